@@ -0,0 +1,91 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.MiniAuthorizerApplication;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link TransactionServicePort#authorize} through the real Spring context
+ * (repositories, transactions, validators and the configured debit mode) on in-memory
+ * H2. Requests are made directly on the port, so HTTP and JSON costs are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthorizeBenchmark {
+
+    private static final String CARD_NUMBER = "1234567890123456";
+
+    @Param({"pessimistic", "conditional", "optimistic"})
+    public String debitMode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionServicePort transactionService;
+    private Transaction approved;
+    private Transaction declined;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(MiniAuthorizerApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "authorizer.debit.mode=" + debitMode,
+                        "logging.level.root=WARN")
+                .run();
+
+        transactionService = context.getBean(TransactionServicePort.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+
+        context.getBean(CardRepositoryPort.class).save(new Card(
+                CARD_NUMBER,
+                passwordEncoder.encode("1234"),
+                new BigDecimal("99999999.99")
+        ));
+
+        approved = new Transaction(CARD_NUMBER, "1234", 1L);
+        declined = new Transaction(CARD_NUMBER, "1234", 10_000_000_000L);
+
+        transactionService.authorize(approved);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthorizationResult approved() {
+        return transactionService.authorize(approved);
+    }
+
+    @Benchmark
+    public AuthorizationResult declined() {
+        return transactionService.authorize(declined);
+    }
+}
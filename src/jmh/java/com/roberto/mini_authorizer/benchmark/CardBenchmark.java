@@ -0,0 +1,53 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Domain operations on {@link Card}: creation, which validates the card number with a
+ * regex, and a debit on a card that never runs out of balance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("10000000000.00");
+    private static final long AMOUNT_CENTS = 10_00L;
+
+    private Card card;
+
+    @Setup
+    public void setup() {
+        card = new Card("1234567890123456", "1234", OPENING_BALANCE);
+    }
+
+    @Benchmark
+    public Card create() {
+        return Card.create("1234567890123456", "1234");
+    }
+
+    @Benchmark
+    public long debit() {
+        if (!card.hasSufficientBalance(AMOUNT_CENTS)) {
+            setup();
+        }
+        card.debit(AMOUNT_CENTS);
+        return card.getBalanceCents();
+    }
+}
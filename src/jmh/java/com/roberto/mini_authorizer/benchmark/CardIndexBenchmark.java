@@ -0,0 +1,110 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.application.index.OffHeapCardIndex;
+import com.roberto.mini_authorizer.application.index.OffHeapLongArray;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance lookups for a random card among {@code cards}, in a
+ * {@code ConcurrentHashMap<String, Card>} against an {@link OffHeapCardIndex} with the
+ * balances in an {@link OffHeapLongArray}, with the card number already packed and parsed
+ * on each lookup. The setup also prints the memory each one takes per card: retained
+ * heap for the map, measured around building it, and the fixed allocation for the index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CardIndexBenchmark {
+
+    private static final long FIRST_CARD_NUMBER = 4000_0000_0000_0000L;
+    private static final long STRIDE = 7919;
+    private static final int LOOKUP_MASK = (1 << 16) - 1;
+
+    @Param({"1000000"})
+    private int cards;
+
+    private Map<String, Card> map;
+    private OffHeapCardIndex index;
+    private OffHeapLongArray balances;
+    private String[] lookups;
+    private long[] packedLookups;
+    private int next;
+
+    @Setup
+    public void setup() {
+        long heapBefore = usedHeap();
+        map = new ConcurrentHashMap<>();
+        for (int i = 0; i < cards; i++) {
+            String cardNumber = CardNumber.unpack(cardNumber(i));
+            map.put(cardNumber, new Card((long) i, cardNumber, "1234", BigDecimal.valueOf(500)));
+        }
+        long mapBytes = usedHeap() - heapBefore;
+
+        index = new OffHeapCardIndex(cards);
+        balances = new OffHeapLongArray(cards, 0L);
+        for (int i = 0; i < cards; i++) {
+            balances.set(index.getOrAssign(cardNumber(i)), 500_00L);
+        }
+        long indexBytes = index.memoryBytes() + balances.memoryBytes();
+
+        System.out.printf("%nConcurrentHashMap<String, Card>: %d bytes per card on the heap%n", mapBytes / cards);
+        System.out.printf("OffHeapCardIndex + balances: %d bytes per card off the heap%n", indexBytes / cards);
+
+        lookups = new String[LOOKUP_MASK + 1];
+        packedLookups = new long[LOOKUP_MASK + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < lookups.length; i++) {
+            long cardNumber = cardNumber(random.nextInt(cards));
+            lookups[i] = CardNumber.unpack(cardNumber);
+            packedLookups[i] = cardNumber;
+        }
+    }
+
+    @Benchmark
+    public long concurrentHashMap() {
+        return map.get(lookups[next++ & LOOKUP_MASK]).getBalanceCents();
+    }
+
+    @Benchmark
+    public long offHeapIndex() {
+        return balances.get(index.slotOf(packedLookups[next++ & LOOKUP_MASK]));
+    }
+
+    @Benchmark
+    public long offHeapIndexParsing() {
+        return balances.get(index.slotOf(CardNumber.pack(lookups[next++ & LOOKUP_MASK])));
+    }
+
+    private static long cardNumber(int i) {
+        return FIRST_CARD_NUMBER + i * STRIDE;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
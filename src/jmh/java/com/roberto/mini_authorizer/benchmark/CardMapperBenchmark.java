@@ -0,0 +1,51 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.infrastructure.persistence.entity.CardEntity;
+import com.roberto.mini_authorizer.infrastructure.persistence.mapper.CardMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions between {@link Card} and {@link CardEntity}, done on every read and save.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardMapperBenchmark {
+
+    private CardMapper mapper;
+    private Card card;
+    private CardEntity entity;
+
+    @Setup
+    public void setup() {
+        mapper = new CardMapper();
+        card = new Card(1L, "1234567890123456", "encoded-password", new BigDecimal("500.00"), 3L);
+        entity = mapper.toEntity(card);
+    }
+
+    @Benchmark
+    public Card toDomain() {
+        return mapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public CardEntity toEntity() {
+        return mapper.toEntity(card);
+    }
+}
@@ -0,0 +1,55 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.TransactionRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link TransactionRequest} from and to UTF-8 bytes, as
+ * the HTTP message converters do for every authorization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+    private TransactionRequest request;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder().build();
+        payload = """
+                {"numeroCartao":"1234567890123456","senhaCartao":"1234","valor":10.00}
+                """.getBytes(StandardCharsets.UTF_8);
+        request = new TransactionRequest("1234567890123456", "1234", new BigDecimal("10.00"));
+    }
+
+    @Benchmark
+    public TransactionRequest deserialize() {
+        return objectMapper.readValue(payload, TransactionRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return objectMapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,102 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.domain.exceptions.InsufficientBalanceException;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance check plus debit, as done once per authorization: the {@code long}-cents
+ * {@link Card} against the previous {@code BigDecimal} implementation, kept here verbatim.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("10000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    private Card card;
+    private long amountCents;
+    private LegacyCard legacyCard;
+
+    @Setup
+    public void setup() {
+        card = new Card("1234567890123456", "1234", OPENING_BALANCE);
+        amountCents = Money.toCents(AMOUNT);
+        legacyCard = new LegacyCard(OPENING_BALANCE);
+    }
+
+    @Benchmark
+    public long cents() {
+        if (!card.hasSufficientBalance(amountCents)) {
+            setup();
+        }
+        card.debit(amountCents);
+        return card.getBalanceCents();
+    }
+
+    @Benchmark
+    public BigDecimal legacyBigDecimal() {
+        if (!legacyCard.hasSufficientBalance(AMOUNT)) {
+            setup();
+        }
+        legacyCard.debit(AMOUNT);
+        return legacyCard.balance;
+    }
+
+    private static final class LegacyCard {
+
+        private static final int MONEY_SCALE = 2;
+        private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
+
+        private BigDecimal balance;
+
+        private LegacyCard(BigDecimal balance) {
+            this.balance = balance.setScale(MONEY_SCALE, ROUNDING_MODE);
+        }
+
+        private void debit(BigDecimal amount) {
+            Optional.ofNullable(amount)
+                    .filter(a -> a.compareTo(BigDecimal.ZERO) > 0)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Debit amount must be greater than zero"
+                    ));
+
+            BigDecimal normalizedAmount =
+                    amount.setScale(MONEY_SCALE, ROUNDING_MODE);
+
+            BigDecimal newBalance = this.balance.subtract(normalizedAmount)
+                    .setScale(MONEY_SCALE, ROUNDING_MODE);
+
+            Optional.of(newBalance)
+                    .filter(b -> b.compareTo(BigDecimal.ZERO) >= 0)
+                    .orElseThrow(InsufficientBalanceException::new);
+
+            this.balance = newBalance;
+        }
+
+        private boolean hasSufficientBalance(BigDecimal amount) {
+            return this.balance.compareTo(amount) >= 0;
+        }
+    }
+}
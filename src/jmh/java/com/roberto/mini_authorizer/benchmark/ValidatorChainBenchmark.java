@@ -0,0 +1,92 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.CorrectPasswordValidator;
+import com.roberto.mini_authorizer.domain.validator.SufficientBalanceValidator;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.infrastructure.cache.PasswordLockoutCache;
+import com.roberto.mini_authorizer.infrastructure.cache.VerifiedCredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The production validators behind a {@link ValidatorChain}. The password is verified
+ * once in setup, so the benchmark measures the steady state where the credential
+ * cache answers instead of BCrypt. {@link #lockedOut()} declines a card locked out after
+ * a wrong password, which is what a brute-force attempt costs once the lockout starts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorChainBenchmark {
+
+    private ValidatorChain validatorChain;
+    private Card card;
+    private Card lockedCard;
+    private Transaction approved;
+    private Transaction insufficientBalance;
+
+    @Setup
+    public void setup() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        VerifiedCredentialCache credentialCache =
+                new VerifiedCredentialCache(1_000, Duration.ofHours(1), "", new SimpleMeterRegistry());
+        PasswordLockoutCache lockout =
+                new PasswordLockoutCache(1, Duration.ofHours(1), 1_000, new SimpleMeterRegistry());
+
+        validatorChain = new ValidatorChain(List.of(
+                new CorrectPasswordValidator(passwordEncoder, credentialCache, lockout),
+                new SufficientBalanceValidator()
+        ));
+
+        card = new Card("1234567890123456", passwordEncoder.encode("1234"), new BigDecimal("500.00"));
+        approved = new Transaction("1234567890123456", "1234", new BigDecimal("10.00"));
+        insufficientBalance = new Transaction("1234567890123456", "1234", new BigDecimal("900.00"));
+
+        validatorChain.validate(approved, card);
+
+        lockedCard = new Card("6543210987654321", card.getPassword(), new BigDecimal("500.00"));
+        lockout.recordFailure(lockedCard.getCardNumber());
+    }
+
+    @Benchmark
+    public AuthorizationResult approved() {
+        return validatorChain.validate(approved, card);
+    }
+
+    @Benchmark
+    public AuthorizationResult declined() {
+        return validatorChain.validate(insufficientBalance, card);
+    }
+
+    @Benchmark
+    public AuthorizationResult lockedOut() {
+        return validatorChain.validate(approved, lockedCard);
+    }
+
+    @Benchmark
+    public AuthorizationResult underLockPhase() {
+        return validatorChain.validate(approved, card, ValidationPhase.UNDER_LOCK);
+    }
+}
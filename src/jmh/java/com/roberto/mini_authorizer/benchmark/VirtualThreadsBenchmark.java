@@ -0,0 +1,91 @@
+package com.roberto.mini_authorizer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent requests that each spend most of their time blocked, as an
+ * authorization does on JDBC and the row lock, served by Tomcat's default 200 platform
+ * threads or by one virtual thread per request. Blocking is modelled as a fixed wait
+ * while holding one of {@code connections} permits, standing in for the Hikari pool;
+ * with enough connections the platform pool runs out of threads first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long BLOCKED_MILLIS = 2;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"10", "1000"})
+    public int connections;
+
+    private ExecutorService executor;
+    private Semaphore pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        pool = new Semaphore(connections, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(executor.submit(this::authorize));
+        }
+
+        int completed = 0;
+        for (Future<Integer> response : responses) {
+            completed += response.get();
+        }
+        return completed;
+    }
+
+    private int authorize() throws InterruptedException {
+        pool.acquire();
+        try {
+            Thread.sleep(BLOCKED_MILLIS);
+            return 1;
+        } finally {
+            pool.release();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import com.roberto.mini_authorizer.loadgen.RequestFactory.LoadRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for {@code /transacoes} and {@code /cartoes}, or for the
+ * binary TCP listener with {@code protocol=tcp}.
+ *
+ * <p>Requests are scheduled at a constant rate regardless of how fast responses come
+ * back, and each latency is taken from the request's scheduled send time. A slow server
+ * therefore shows up as queueing delay in the percentiles instead of silently lowering
+ * the offered load (coordinated omission). Requests scheduled during the warmup are sent
+ * but left out of the report.
+ */
+public final class LoadGenerator {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int SEED_CONCURRENCY = 8;
+    private static final Duration SEED_TIMEOUT = Duration.ofMinutes(1);
+    private static final int MAX_REPORTED_BODY_LENGTH = 32;
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final String authorization;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> responses = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private TcpTransport tcp;
+
+    LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (options.username() + ":" + options.password()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadGenerator generator = new LoadGenerator(options);
+
+        if (options.profile() != LoadProfile.CARD_CREATION) {
+            generator.seedCards();
+        }
+
+        LoadReport report = generator.run();
+        write(report, options.report());
+        print(report, options.report());
+    }
+
+    /**
+     * Creates the cards the transaction profiles draw from. Card creation hashes the
+     * password, so this runs with few requests in flight and a generous timeout. Cards
+     * left over from an earlier run are answered with 422 and reused as they are.
+     */
+    void seedCards() {
+        RequestFactory factory = new RequestFactory(options);
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        for (int i = 0; i < options.cards() && failure.get() == null; i++) {
+            permits.acquireUninterruptibly();
+            client.sendAsync(request(factory.seed(i), SEED_TIMEOUT), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            failure.compareAndSet(null, rootCause(error).toString());
+                        } else if (response.statusCode() != 201 && response.statusCode() != 422) {
+                            failure.compareAndSet(null, "HTTP " + response.statusCode() + " " + response.body());
+                        }
+                        permits.release();
+                    });
+        }
+
+        permits.acquireUninterruptibly(SEED_CONCURRENCY);
+        if (failure.get() != null) {
+            throw new IllegalStateException("Could not seed cards: " + failure.get());
+        }
+    }
+
+    LoadReport run() throws IOException {
+        if (options.protocol() == LoadProtocol.TCP) {
+            try (TcpTransport transport = new TcpTransport(options.tcpAddress(), options.connections())) {
+                tcp = transport;
+                return schedule();
+            }
+        }
+        return schedule();
+    }
+
+    private LoadReport schedule() {
+        RequestFactory factory = new RequestFactory(options);
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * NANOS_PER_SECOND / options.rate();
+            if (scheduled >= end) {
+                break;
+            }
+
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            inFlight.acquireUninterruptibly();
+            send(factory.next(), scheduled, scheduled >= measureFrom, inFlight);
+        }
+
+        inFlight.acquireUninterruptibly(options.maxInFlight());
+        return report(startedAt);
+    }
+
+    private void send(LoadRequest loadRequest, long scheduled, boolean measured, Semaphore inFlight) {
+        if (measured) {
+            sent.increment();
+        }
+
+        if (tcp != null) {
+            tcp.send(loadRequest)
+                    .orTimeout(options.timeout().toNanos(), TimeUnit.NANOSECONDS)
+                    .whenComplete((code, error) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        if (measured) {
+                            record(code, error, latency);
+                        }
+                        inFlight.release();
+                    });
+            return;
+        }
+
+        client.sendAsync(request(loadRequest, options.timeout()), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - scheduled;
+                    if (measured) {
+                        record(error == null ? outcome(loadRequest, response) : null, error, latency);
+                    }
+                    inFlight.release();
+                });
+    }
+
+    private void record(String outcome, Throwable error, long latency) {
+        if (error != null) {
+            failed.increment();
+            count(errors, rootCause(error).getClass().getSimpleName());
+            return;
+        }
+
+        completed.increment();
+        latencies.recordValue(latency);
+        count(responses, outcome);
+    }
+
+    private HttpRequest request(LoadRequest loadRequest, Duration timeout) {
+        return HttpRequest.newBuilder(options.baseUrl().resolve(loadRequest.path()))
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loadRequest.body()))
+                .build();
+    }
+
+    private LoadReport report(Instant startedAt) {
+        double seconds = options.duration().toNanos() / (double) NANOS_PER_SECOND;
+        return new LoadReport(
+                startedAt,
+                options.protocol() == LoadProtocol.TCP
+                        ? "tcp://" + options.tcpAddress().getHostString() + ":" + options.tcpAddress().getPort()
+                        : options.baseUrl().toString(),
+                options.profile().getName(),
+                options.rate(),
+                seconds,
+                sent.sum(),
+                completed.sum(),
+                failed.sum(),
+                completed.sum() / seconds,
+                LoadReport.Latency.of(latencies),
+                snapshot(responses),
+                snapshot(errors)
+        );
+    }
+
+    /**
+     * Keys transactions by status and result code, e.g. {@code 422 SALDO_INSUFICIENTE},
+     * and card creations by status only.
+     */
+    private static String outcome(LoadRequest loadRequest, HttpResponse<String> response) {
+        String body = response.body();
+        boolean withBody = RequestFactory.TRANSACTIONS_PATH.equals(loadRequest.path())
+                && body != null
+                && !body.isBlank()
+                && body.length() <= MAX_REPORTED_BODY_LENGTH;
+
+        return withBody
+                ? response.statusCode() + " " + body.strip()
+                : String.valueOf(response.statusCode());
+    }
+
+    private static void count(Map<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key, ignored -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return snapshot;
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void write(LoadReport report, Path path) throws Exception {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(path.toFile(), report);
+    }
+
+    private static void print(LoadReport report, Path path) {
+        LoadReport.Latency latency = report.latency();
+        System.out.printf(
+                "%s @ %d req/s for %.0fs: %d sent, %d completed, %d failed, %.1f req/s%n"
+                        + "latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n"
+                        + "responses: %s%n"
+                        + "errors: %s%n"
+                        + "report: %s%n",
+                report.profile(), report.targetRate(), report.durationSeconds(),
+                report.sent(), report.completed(), report.failed(), report.throughput(),
+                latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max(),
+                report.responses(), report.errors(), path.toAbsolutePath());
+    }
+}
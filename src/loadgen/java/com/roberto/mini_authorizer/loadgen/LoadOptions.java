@@ -0,0 +1,94 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadGenerator}, given as {@code name=value} with an
+ * optional leading {@code --}. Every option has a default suited to a local run against
+ * {@code localhost:8080}.
+ */
+record LoadOptions(
+        URI baseUrl,
+        LoadProtocol protocol,
+        InetSocketAddress tcpAddress,
+        int connections,
+        String username,
+        String password,
+        LoadProfile profile,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Duration timeout,
+        int maxInFlight,
+        int cards,
+        long firstCardNumber,
+        String cardPassword,
+        BigDecimal amount,
+        double zipfExponent,
+        double declineRatio,
+        long seed,
+        Path report
+) {
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            values.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+
+        LoadOptions options = new LoadOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                LoadProtocol.of(values.getOrDefault("protocol", "http")),
+                address(values.getOrDefault("tcp-address", "localhost:9090")),
+                Integer.parseInt(values.getOrDefault("connections", "4")),
+                values.getOrDefault("username", "username"),
+                values.getOrDefault("password", "password"),
+                LoadProfile.of(values.getOrDefault("profile", "uniform")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT30S")),
+                Duration.parse(values.getOrDefault("timeout", "PT5S")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "1000")),
+                Integer.parseInt(values.getOrDefault("cards", "1000")),
+                Long.parseLong(values.getOrDefault("first-card-number", "5000000000000000")),
+                values.getOrDefault("card-password", "1234"),
+                new BigDecimal(values.getOrDefault("amount", "0.01")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.1")),
+                Double.parseDouble(values.getOrDefault("decline-ratio", "0.8")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "target/loadgen-report.json"))
+        );
+
+        if (options.rate() <= 0 || options.cards() <= 0 || options.maxInFlight() <= 0) {
+            throw new IllegalArgumentException("rate, cards and max-in-flight must be positive");
+        }
+        if (options.declineRatio() < 0 || options.declineRatio() > 1) {
+            throw new IllegalArgumentException("decline-ratio must be between 0 and 1");
+        }
+        if (options.protocol() == LoadProtocol.TCP
+                && (options.profile() == LoadProfile.CARD_CREATION || options.connections() <= 0)) {
+            throw new IllegalArgumentException("protocol=tcp needs a transaction profile and positive connections");
+        }
+        return options;
+    }
+
+    private static InetSocketAddress address(String hostAndPort) {
+        int separator = hostAndPort.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Expected host:port but got: " + hostAndPort);
+        }
+        return new InetSocketAddress(hostAndPort.substring(0, separator),
+                Integer.parseInt(hostAndPort.substring(separator + 1)));
+    }
+}
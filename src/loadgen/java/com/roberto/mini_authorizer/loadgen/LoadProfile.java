@@ -0,0 +1,38 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Traffic shapes the {@link LoadGenerator} can drive.
+ */
+enum LoadProfile {
+
+    /** Approvals spread evenly over all seeded cards. */
+    UNIFORM("uniform"),
+
+    /** Approvals concentrated on a few hot cards, following a Zipf distribution. */
+    ZIPF("zipf"),
+
+    /** Mostly wrong passwords, unknown cards and amounts above the balance. */
+    DECLINE_HEAVY("decline-heavy"),
+
+    /** {@code POST /cartoes} with card numbers never used before. */
+    CARD_CREATION("card-creation");
+
+    private final String name;
+
+    LoadProfile(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static LoadProfile of(String name) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown profile: " + name));
+    }
+}
@@ -0,0 +1,32 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * How the {@link LoadGenerator} sends transactions. Cards are always seeded over HTTP.
+ */
+enum LoadProtocol {
+
+    /** {@code POST /transacoes} with JSON and HTTP Basic authentication. */
+    HTTP("http"),
+
+    /** Pipelined binary frames on the TCP listener ({@code authorizer.tcp.enabled}). */
+    TCP("tcp");
+
+    private final String name;
+
+    LoadProtocol(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static LoadProtocol of(String name) {
+        return Arrays.stream(values())
+                .filter(protocol -> protocol.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown protocol: " + name));
+    }
+}
@@ -0,0 +1,49 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one run, written as JSON. Latencies are in milliseconds and
+ * measured from each request's scheduled send time, not from when it was actually sent.
+ */
+record LoadReport(
+        Instant startedAt,
+        String baseUrl,
+        String profile,
+        int targetRate,
+        double durationSeconds,
+        long sent,
+        long completed,
+        long failed,
+        double throughput,
+        Latency latency,
+        Map<String, Long> responses,
+        Map<String, Long> errors
+) {
+
+    record Latency(
+            double mean,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max
+    ) {
+
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        static Latency of(Histogram histogram) {
+            return new Latency(
+                    histogram.getMean() / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI
+            );
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the next request of the configured {@link LoadProfile}. Only used from the
+ * dispatching thread, so it keeps plain mutable state.
+ */
+final class RequestFactory {
+
+    static final String TRANSACTIONS_PATH = "/transacoes";
+    static final String CARDS_PATH = "/cartoes";
+
+    private static final String WRONG_PASSWORD = "wrong-password";
+    private static final BigDecimal ABOVE_ANY_BALANCE = new BigDecimal("99999999.99");
+    private static final long UNKNOWN_CARD_OFFSET = 1_000_000_000L;
+
+    private final LoadOptions options;
+    private final SplittableRandom random;
+    private final ZipfSampler zipf;
+    private long nextNewCard;
+
+    RequestFactory(LoadOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+        this.zipf = options.profile() == LoadProfile.ZIPF
+                ? new ZipfSampler(options.cards(), options.zipfExponent())
+                : null;
+        // Offset by the clock so repeated storms do not collide with cards created by earlier runs
+        this.nextNewCard = options.firstCardNumber() + options.cards()
+                + (System.currentTimeMillis() / 1_000 % 1_000_000) * 1_000L;
+    }
+
+    LoadRequest next() {
+        return switch (options.profile()) {
+            case UNIFORM -> transaction(seededCard(random.nextInt(options.cards())), options.cardPassword(), options.amount());
+            case ZIPF -> transaction(seededCard(zipf.next(random)), options.cardPassword(), options.amount());
+            case DECLINE_HEAVY -> random.nextDouble() < options.declineRatio()
+                    ? decline()
+                    : transaction(seededCard(random.nextInt(options.cards())), options.cardPassword(), options.amount());
+            case CARD_CREATION -> card(Long.toString(nextNewCard++), options.cardPassword());
+        };
+    }
+
+    LoadRequest seed(int index) {
+        return card(seededCard(index), options.cardPassword());
+    }
+
+    private LoadRequest decline() {
+        String card = seededCard(random.nextInt(options.cards()));
+        return switch (random.nextInt(3)) {
+            case 0 -> transaction(card, WRONG_PASSWORD, options.amount());
+            case 1 -> transaction(
+                    Long.toString(options.firstCardNumber() + UNKNOWN_CARD_OFFSET + random.nextInt(options.cards())),
+                    options.cardPassword(),
+                    options.amount());
+            default -> transaction(card, options.cardPassword(), ABOVE_ANY_BALANCE);
+        };
+    }
+
+    private String seededCard(int index) {
+        return Long.toString(options.firstCardNumber() + index);
+    }
+
+    private static LoadRequest transaction(String cardNumber, String password, BigDecimal amount) {
+        return new LoadRequest(TRANSACTIONS_PATH, "{\"numeroCartao\":\"" + cardNumber
+                + "\",\"senhaCartao\":\"" + password
+                + "\",\"valor\":" + amount.toPlainString() + "}",
+                cardNumber, password, amount);
+    }
+
+    private static LoadRequest card(String cardNumber, String password) {
+        return new LoadRequest(CARDS_PATH, "{\"numeroCartao\":\"" + cardNumber
+                + "\",\"senha\":\"" + password + "\"}",
+                cardNumber, password, null);
+    }
+
+    /**
+     * The JSON body for HTTP, and its fields for the binary protocol.
+     */
+    record LoadRequest(String path, String body, String cardNumber, String password, BigDecimal amount) {
+    }
+}
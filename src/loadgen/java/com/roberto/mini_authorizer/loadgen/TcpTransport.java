@@ -0,0 +1,101 @@
+package com.roberto.mini_authorizer.loadgen;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.domain.model.Money;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Request;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Response;
+import com.roberto.mini_authorizer.loadgen.RequestFactory.LoadRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends transactions as {@link AuthorizationFrames} over a few persistent connections,
+ * without waiting for responses, which a reader thread per connection matches back to
+ * their requests by correlation id. Only used from the dispatching thread, apart from
+ * the readers.
+ */
+final class TcpTransport implements AutoCloseable {
+
+    private static final int WRITE_BUFFER_BYTES = 512;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final SocketChannel[] channels;
+    private final Map<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+    private long nextCorrelationId;
+
+    TcpTransport(InetSocketAddress address, int connections) throws IOException {
+        this.channels = new SocketChannel[connections];
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.socket().setTcpNoDelay(true);
+            channels[i] = channel;
+            Thread.ofPlatform().name("loadgen-tcp-reader-" + i).daemon().start(() -> read(channel));
+        }
+    }
+
+    /**
+     * Sends a transaction and completes with the result code the REST API would have
+     * answered, e.g. {@code OK}.
+     */
+    CompletableFuture<String> send(LoadRequest request) {
+        long correlationId = nextCorrelationId++;
+        CompletableFuture<String> result = new CompletableFuture<>();
+        pending.put(correlationId, result);
+
+        out.clear();
+        AuthorizationFrames.writeRequest(out, new Request(
+                correlationId,
+                CardNumber.pack(request.cardNumber()),
+                request.password(),
+                Money.toCents(request.amount())));
+        out.flip();
+
+        try {
+            SocketChannel channel = channels[(int) (correlationId % channels.length)];
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException ex) {
+            pending.remove(correlationId);
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    private void read(SocketChannel channel) {
+        ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                Response response;
+                while ((response = AuthorizationFrames.readResponse(in)) != null) {
+                    CompletableFuture<String> result = pending.remove(response.correlationId());
+                    if (result != null) {
+                        result.complete(AuthorizationFrames.describe(response.status()));
+                    }
+                }
+                in.compact();
+            }
+        } catch (IOException ex) {
+            if (channel.isOpen()) {
+                pending.values().forEach(result -> result.completeExceptionally(new UncheckedIOException(ex)));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+    }
+}
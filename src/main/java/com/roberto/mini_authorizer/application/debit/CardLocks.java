@@ -0,0 +1,125 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-JVM locks keyed by card number, taken before a debit opens its database
+ * transaction. Requests for a hot card then queue here, without a connection, instead of
+ * each taking one from the pool to wait on the same row lock. The row lock is still taken
+ * and remains what guards the balance across nodes. Cards that hash to the same stripe
+ * wait for each other, so more stripes means less false contention.
+ */
+@Component
+public class CardLocks {
+
+    private static final Duration MINIMUM_EXPECTED = Duration.ofNanos(10_000);
+    private static final Duration MAXIMUM_EXPECTED = Duration.ofSeconds(10);
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final Timer waits;
+    private final Counter contended;
+
+    public CardLocks(
+            @Value("${authorizer.card-locks.enabled:true}") boolean enabled,
+            @Value("${authorizer.card-locks.stripes:1024}") int stripes,
+            MeterRegistry meterRegistry) {
+
+        int size = enabled ? powerOfTwoAtLeast(stripes) : 0;
+        this.stripes = new ReentrantLock[size];
+        Arrays.setAll(this.stripes, i -> new ReentrantLock());
+        this.mask = size - 1;
+
+        this.waits = Timer.builder("authorizer.card-lock.wait")
+                .description("Time spent waiting for a card's in-memory lock before the debit transaction")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MINIMUM_EXPECTED)
+                .maximumExpectedValue(MAXIMUM_EXPECTED)
+                .register(meterRegistry);
+        this.contended = Counter.builder("authorizer.card-lock.contended")
+                .description("Card lock acquisitions that had to wait for another request")
+                .register(meterRegistry);
+        Gauge.builder("authorizer.card-lock.waiting", this, CardLocks::waiting)
+                .description("Requests currently waiting for a card lock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} while holding the stripe of {@code cardNumber}, or directly when
+     * the locks are disabled.
+     */
+    public <T> T withLock(String cardNumber, Supplier<T> action) {
+        long packed = CardNumber.pack(cardNumber);
+        return packed == CardNumber.INVALID
+                ? withStripe(spread(cardNumber.hashCode()), action)
+                : withLock(packed, action);
+    }
+
+    /**
+     * The same as {@link #withLock(String, Supplier)} for a card number already packed,
+     * which picks the stripe without touching the string.
+     */
+    public <T> T withLock(long packedCardNumber, Supplier<T> action) {
+        return withStripe(CardNumber.hash(packedCardNumber), action);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private <T> T withStripe(int hash, Supplier<T> action) {
+        if (stripes.length == 0) {
+            return action.get();
+        }
+
+        ReentrantLock lock = stripes[hash & mask];
+        if (!lock.tryLock()) {
+            contended.increment();
+            long start = System.nanoTime();
+            lock.lock();
+            waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            waits.record(0, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double waiting() {
+        int waiting = 0;
+        for (ReentrantLock stripe : stripes) {
+            waiting += stripe.getQueueLength();
+        }
+        return waiting;
+    }
+
+    /**
+     * Mixes the high bits of the hash into the low ones that pick the stripe.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int powerOfTwoAtLeast(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("authorizer.card-locks.stripes must be positive: " + stripes);
+        }
+        return stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    }
+}
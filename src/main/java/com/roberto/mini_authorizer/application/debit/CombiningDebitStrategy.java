@@ -0,0 +1,171 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pessimistic debit with flat combining per card. Each request queues its debit on the
+ * card's combiner and takes the combiner's lock; whoever holds it drains every debit
+ * queued so far, locks the row once, applies them in arrival order against the running
+ * balance, saves the card with one UPDATE and commits once. Requests whose debit was
+ * applied by another thread only collect their result. A cold card combines a batch of
+ * one, which is exactly the pessimistic mode.
+ */
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "combining")
+public class CombiningDebitStrategy implements DebitStrategy {
+
+    private final CardRepositoryPort cardRepository;
+    private final ValidatorChain validatorChain;
+    private final TransactionOperations transactionOperations;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final ConcurrentHashMap<String, Combiner> combiners = new ConcurrentHashMap<>();
+
+    public CombiningDebitStrategy(
+            CardRepositoryPort cardRepository,
+            ValidatorChain validatorChain,
+            TransactionOperations transactionOperations,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.debit.combining.max-batch-size:256}") int maxBatchSize) {
+
+        this.cardRepository = cardRepository;
+        this.validatorChain = validatorChain;
+        this.transactionOperations = transactionOperations;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("authorizer.debit.combining.batch-size")
+                .description("Debits applied under one row lock and one commit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        String cardNumber = transaction.getCardNumber();
+        PendingDebit pending = new PendingDebit(transaction, verified, new CompletableFuture<>());
+
+        Combiner combiner = combiners.computeIfAbsent(cardNumber, ignored -> new Combiner());
+        combiner.queue.add(pending);
+
+        combiner.lock.lock();
+        try {
+            while (!pending.result().isDone()) {
+                combine(cardNumber, combiner.drain(maxBatchSize));
+            }
+        } finally {
+            // A request that already holds this combiner may still enqueue after the removal;
+            // it then combines on its own, and the row lock keeps it apart from the new one.
+            if (combiner.queue.isEmpty()) {
+                combiners.remove(cardNumber, combiner);
+            }
+            combiner.lock.unlock();
+        }
+
+        return await(pending.result());
+    }
+
+    int queued(String cardNumber) {
+        Combiner combiner = combiners.get(cardNumber);
+        return combiner == null ? 0 : combiner.queue.size();
+    }
+
+    private void combine(String cardNumber, List<PendingDebit> batch) {
+        AuthorizationResult[] results = new AuthorizationResult[batch.size()];
+
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                Optional<Card> locked = cardRepository.findByCardNumberWithLock(cardNumber);
+                if (locked.isEmpty()) {
+                    Arrays.fill(results, AuthorizationResult.CARD_NOT_FOUND);
+                    return;
+                }
+
+                Card card = locked.get();
+                boolean debited = false;
+                for (int i = 0; i < batch.size(); i++) {
+                    results[i] = debitLocked(batch.get(i), card);
+                    debited |= results[i].isApproved();
+                }
+
+                if (debited) {
+                    cardRepository.save(card);
+                }
+            });
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results[i]);
+        }
+        batchSizes.record(batch.size());
+    }
+
+    private AuthorizationResult debitLocked(PendingDebit pending, Card card) {
+        Transaction transaction = pending.transaction();
+
+        if (!card.getPassword().equals(pending.verified().getPassword())) {
+            AuthorizationResult credentials = validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+            if (!credentials.isApproved()) {
+                return credentials;
+            }
+        }
+
+        AuthorizationResult result = validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        if (result.isApproved()) {
+            card.debit(transaction.getAmountCents());
+        }
+        return result;
+    }
+
+    private static AuthorizationResult await(CompletableFuture<AuthorizationResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Combiner {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<PendingDebit> queue = new ConcurrentLinkedQueue<>();
+
+        private List<PendingDebit> drain(int maxBatchSize) {
+            List<PendingDebit> batch = new ArrayList<>();
+            PendingDebit next;
+            while (batch.size() < maxBatchSize && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            return batch;
+        }
+    }
+
+    private record PendingDebit(Transaction transaction, Card verified,
+                                CompletableFuture<AuthorizationResult> result) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Debits with a single conditional UPDATE: the balance check travels with the
+ * statement, so no row is read under lock and the whole debit is one round trip.
+ * Validators of the {@code UNDER_LOCK} phase are not consulted in this mode.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "conditional")
+public class ConditionalUpdateDebitStrategy implements DebitStrategy {
+
+    private final CardRepositoryPort cardRepository;
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        return cardRepository.tryDebit(transaction.getCardNumber(), transaction.getAmountCents())
+                ? AuthorizationResult.APPROVED
+                : AuthorizationResult.INSUFFICIENT_BALANCE;
+    }
+}
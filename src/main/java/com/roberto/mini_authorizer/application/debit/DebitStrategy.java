@@ -0,0 +1,24 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+
+/**
+ * Applies the debit of an authorization whose credentials were already verified
+ * against {@code verified}. Implementations own the concurrency control and the
+ * database transaction; they are selected with {@code authorizer.debit.mode}.
+ * Declines are returned as results, never thrown.
+ */
+public interface DebitStrategy {
+    AuthorizationResult debit(Transaction transaction, Card verified);
+
+    /**
+     * Whether this strategy debits under the card's row lock, in which case a batch may
+     * debit all of a card's items under one lock and one commit with the same outcome.
+     * Otherwise every batch item goes through {@link #debit}.
+     */
+    default boolean debitsUnderRowLock() {
+        return false;
+    }
+}
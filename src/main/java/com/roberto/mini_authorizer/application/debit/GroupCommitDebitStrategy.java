@@ -0,0 +1,192 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects debits from concurrent requests for a short window and applies them as one
+ * JDBC batch of conditional UPDATEs inside a single database transaction, so many
+ * authorizations share one commit. Each caller blocks until its own debit is known.
+ * As in the conditional mode, {@code UNDER_LOCK} validators are not consulted.
+ *
+ * <p>When a batch fails, its transaction is rolled back and each debit is retried alone,
+ * so only the debit that cannot be applied fails. Anything else thrown while flushing,
+ * errors included, fails that batch and the flusher moves on to the next one. Debits
+ * queued when the strategy shuts down are failed rather than left waiting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "group-commit")
+public class GroupCommitDebitStrategy implements DebitStrategy {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final CardRepositoryPort cardRepository;
+    private final TransactionOperations transactionOperations;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final BlockingQueue<PendingDebit> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public GroupCommitDebitStrategy(
+            CardRepositoryPort cardRepository,
+            TransactionOperations transactionOperations,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.debit.group-commit.window:PT0.0003S}") Duration window,
+            @Value("${authorizer.debit.group-commit.max-batch-size:256}") int maxBatchSize) {
+
+        this.cardRepository = cardRepository;
+        this.transactionOperations = transactionOperations;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("authorizer.debit.group-commit.batch-size")
+                .register(meterRegistry);
+        this.flusher = Thread.ofPlatform()
+                .name("debit-group-commit")
+                .daemon()
+                .start(this::flushLoop);
+    }
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        if (!running) {
+            throw new IllegalStateException("Group commit is shut down");
+        }
+
+        PendingDebit pending = new PendingDebit(transaction, new CompletableFuture<>());
+        queue.add(pending);
+        // Queued before reading the flag: if shutdown has not started, the flusher still
+        // drains the queue before it stops; if it has, whoever removes the debit fails it.
+        if (!running && queue.remove(pending)) {
+            pending.debited().completeExceptionally(new IllegalStateException("Group commit is shut down"));
+        }
+
+        return await(pending.debited())
+                ? AuthorizationResult.APPROVED
+                : AuthorizationResult.INSUFFICIENT_BALANCE;
+    }
+
+    private void flushLoop() {
+        List<PendingDebit> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingDebit first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                try {
+                    flush(batch);
+                } catch (Throwable ex) {
+                    // The flusher is the only thread completing debits: if it died, every
+                    // caller after this batch would wait forever.
+                    log.error("Group commit of {} debits failed", batch.size(), ex);
+                    batch.forEach(pending -> pending.debited().completeExceptionally(ex));
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        batch.forEach(pending -> pending.debited().completeExceptionally(
+                new IllegalStateException("Group commit is shut down")));
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<PendingDebit> left = new ArrayList<>();
+        queue.drainTo(left);
+        IllegalStateException stopped = new IllegalStateException("Group commit is shut down");
+        left.forEach(pending -> pending.debited().completeExceptionally(stopped));
+    }
+
+    private void collect(List<PendingDebit> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                return;
+            }
+            PendingDebit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingDebit> batch) {
+        List<Transaction> transactions = batch.stream()
+                .map(PendingDebit::transaction)
+                .toList();
+
+        try {
+            boolean[] debited = transactionOperations.execute(status -> cardRepository.tryDebitAll(transactions));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).debited().complete(debited[i]);
+            }
+            batchSizes.record(batch.size());
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.getFirst().debited().completeExceptionally(ex);
+            } else {
+                batch.forEach(this::flushAlone);
+            }
+        }
+    }
+
+    private void flushAlone(PendingDebit pending) {
+        Transaction transaction = pending.transaction();
+        try {
+            pending.debited().complete(Boolean.TRUE.equals(transactionOperations.execute(status ->
+                    cardRepository.tryDebit(transaction.getCardNumber(), transaction.getAmountCents()))));
+        } catch (RuntimeException ex) {
+            pending.debited().completeExceptionally(ex);
+        }
+    }
+
+    private static boolean await(CompletableFuture<Boolean> debited) {
+        try {
+            return debited.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join();
+        failQueued();
+    }
+
+    private record PendingDebit(Transaction transaction, CompletableFuture<Boolean> debited) {
+    }
+}
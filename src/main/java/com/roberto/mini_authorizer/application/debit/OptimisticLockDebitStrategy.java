@@ -0,0 +1,111 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Debits without row locks: the card is read plainly and saved with its version,
+ * so a concurrent writer makes the save fail instead of blocking. Failed attempts
+ * are retried with exponential backoff and full jitter, up to a bounded count.
+ */
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "optimistic")
+public class OptimisticLockDebitStrategy implements DebitStrategy {
+
+    private final CardRepositoryPort cardRepository;
+    private final ValidatorChain validatorChain;
+    private final TransactionOperations transactionOperations;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticLockDebitStrategy(
+            CardRepositoryPort cardRepository,
+            ValidatorChain validatorChain,
+            TransactionOperations transactionOperations,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.debit.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${authorizer.debit.optimistic.initial-backoff:PT0.001S}") Duration initialBackoff,
+            @Value("${authorizer.debit.optimistic.max-backoff:PT0.05S}") Duration maxBackoff) {
+
+        this.cardRepository = cardRepository;
+        this.validatorChain = validatorChain;
+        this.transactionOperations = transactionOperations;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.conflicts = meterRegistry.counter("authorizer.debit.optimistic.conflicts");
+        this.retries = meterRegistry.counter("authorizer.debit.optimistic.retries");
+        this.exhausted = meterRegistry.counter("authorizer.debit.optimistic.exhausted");
+    }
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> cardRepository
+                        .findByCardNumber(transaction.getCardNumber())
+                        .map(card -> debitVersioned(transaction, verified, card))
+                        .orElse(AuthorizationResult.CARD_NOT_FOUND));
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw ex;
+                }
+                retries.increment();
+                backOff(attempt, ex);
+            }
+        }
+    }
+
+    private AuthorizationResult debitVersioned(Transaction transaction, Card verified, Card card) {
+
+        if (!card.getPassword().equals(verified.getPassword())) {
+            AuthorizationResult credentials = validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+            if (!credentials.isApproved()) {
+                return credentials;
+            }
+        }
+
+        AuthorizationResult result = validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        if (!result.isApproved()) {
+            return result;
+        }
+
+        card.debit(transaction.getAmountCents());
+
+        cardRepository.save(card);
+        return AuthorizationResult.APPROVED;
+    }
+
+    private void backOff(int attempt, OptimisticLockingFailureException cause) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
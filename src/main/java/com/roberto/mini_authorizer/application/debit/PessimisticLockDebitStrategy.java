@@ -0,0 +1,86 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics.Stage;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Optional;
+
+/**
+ * Debits under {@code SELECT ... FOR UPDATE}. Requests for the same card first queue on
+ * {@link CardLocks}, so at most one of them per node holds a connection waiting on the row.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticLockDebitStrategy implements DebitStrategy {
+
+    private final CardRepositoryPort cardRepository;
+    private final ValidatorChain validatorChain;
+    private final TransactionOperations transactionOperations;
+    private final CardLocks cardLocks;
+    private final AuthorizationMetrics metrics;
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        return cardLocks.withLock(transaction.getPackedCardNumber(), () -> debitInTransaction(transaction, verified));
+    }
+
+    @Override
+    public boolean debitsUnderRowLock() {
+        return true;
+    }
+
+    private AuthorizationResult debitInTransaction(Transaction transaction, Card verified) {
+        long start = System.nanoTime();
+        long[] completed = new long[1];
+
+        AuthorizationResult result = transactionOperations.execute(status -> {
+            long begun = metrics.stage(Stage.BEGIN, start);
+            Optional<Card> locked = cardRepository.findByCardNumberWithLock(transaction.getCardNumber());
+            metrics.stage(Stage.LOCK, begun);
+
+            AuthorizationResult debited = locked
+                    .map(card -> debitLocked(transaction, verified, card))
+                    .orElse(AuthorizationResult.CARD_NOT_FOUND);
+            completed[0] = System.nanoTime();
+            return debited;
+        });
+
+        metrics.stage(Stage.COMMIT, completed[0]);
+        return result;
+    }
+
+    private AuthorizationResult debitLocked(Transaction transaction, Card verified, Card card) {
+
+        if (!card.getPassword().equals(verified.getPassword())) {
+            AuthorizationResult credentials = validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+            if (!credentials.isApproved()) {
+                return credentials;
+            }
+        }
+
+        long checking = System.nanoTime();
+        AuthorizationResult result = validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        long checked = metrics.stage(Stage.BALANCE_CHECK, checking);
+        if (!result.isApproved()) {
+            return result;
+        }
+
+        card.debit(transaction.getAmountCents());
+        long applied = metrics.stage(Stage.APPLY, checked);
+
+        cardRepository.save(card);
+        metrics.stage(Stage.SAVE, applied);
+        return AuthorizationResult.APPROVED;
+    }
+}
@@ -0,0 +1,89 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Money;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * The card repository seen by the rest of the application in sharded mode. Cards come
+ * from the database with the balance replaced by the engine's, for cards the engine
+ * owns, since the database only catches up asynchronously. Debiting in the database
+ * would bypass the engine, so the conditional debits are decided by the engine too.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "sharded")
+public class ShardedCardRepository implements CardRepositoryPort {
+
+    private final CardRepositoryPort database;
+    private final ShardedDebitStrategy engine;
+
+    public ShardedCardRepository(
+            @Qualifier("cardRepositoryAdapter") CardRepositoryPort database,
+            ShardedDebitStrategy engine) {
+
+        this.database = database;
+        this.engine = engine;
+    }
+
+    @Override
+    public Card save(Card card) {
+        return database.save(card);
+    }
+
+    @Override
+    public Optional<Card> findByCardNumber(String cardNumber) {
+        return database.findByCardNumber(cardNumber).map(this::withOwnedBalance);
+    }
+
+    @Override
+    public Optional<Card> findByCardNumberWithLock(String cardNumber) {
+        return database.findByCardNumberWithLock(cardNumber).map(this::withOwnedBalance);
+    }
+
+    @Override
+    public Optional<BigDecimal> findBalanceByCardNumber(String cardNumber) {
+        OptionalLong owned = engine.balanceCents(cardNumber);
+        return owned.isPresent()
+                ? Optional.of(Money.fromCents(owned.getAsLong()))
+                : database.findBalanceByCardNumber(cardNumber);
+    }
+
+    @Override
+    public boolean existsByCardNumber(String cardNumber) {
+        return database.existsByCardNumber(cardNumber);
+    }
+
+    @Override
+    public boolean tryDebit(String cardNumber, long amountCents) {
+        return engine.tryDebit(cardNumber, amountCents);
+    }
+
+    @Override
+    public boolean[] tryDebitAll(List<Transaction> transactions) {
+        return engine.tryDebitAll(transactions);
+    }
+
+    @Override
+    public void updateBalances(Map<String, Long> balancesCents) {
+        database.updateBalances(balancesCents);
+    }
+
+    private Card withOwnedBalance(Card card) {
+        OptionalLong owned = engine.balanceCents(card.getCardNumber());
+        return owned.isPresent()
+                ? new Card(card.getId(), card.getCardNumber(), card.getPassword(), Money.fromCents(owned.getAsLong()), card.getVersion())
+                : card;
+    }
+}
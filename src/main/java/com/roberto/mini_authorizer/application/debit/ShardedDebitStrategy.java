@@ -0,0 +1,428 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.application.index.OffHeapCardIndex;
+import com.roberto.mini_authorizer.application.index.OffHeapLongArray;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort.Entry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps balances in memory, split into shards by card number, each owned by one thread
+ * that applies {@code Card.debit} without locks. A shard takes every debit queued so
+ * far, decides them in arrival order, appends the decisions to its journal and only then
+ * answers, so an approved debit is durable before its response is sent. Balances reach
+ * the database asynchronously, the latest one per card every
+ * {@code authorizer.debit.sharded.persist-interval}, after which the journal segments
+ * they cover are discarded.
+ *
+ * <p>A card is loaded from the card read by the caller the first time it is debited, and
+ * from then on this node owns its balance: the database never runs ahead of the engine,
+ * and {@link ShardedCardRepository} serves reads from memory. On startup the balances
+ * left in the journal by a crash are written to the database before any debit is taken.
+ *
+ * <p>The balances readers see are published off the heap, in an {@link OffHeapLongArray}
+ * indexed by the card's slot in an {@link OffHeapCardIndex}: 40 bytes per card of
+ * {@code authorizer.debit.sharded.capacity}, allocated up front, and publishing a balance
+ * allocates nothing. The shard itself still keeps each card it owns as a {@link Card} in
+ * a heap map, a few hundred bytes per card. A card that does not fit in the index is not
+ * debited; only its own debits fail, not the rest of the batch.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "sharded")
+public class ShardedDebitStrategy implements DebitStrategy {
+
+    private static final PendingDebit STOP = new PendingDebit(null, null, false, null);
+    private static final long NOT_OWNED = Long.MIN_VALUE;
+
+    private final CardRepositoryPort database;
+    private final ValidatorChain validatorChain;
+    private final TransactionOperations transactionOperations;
+    private final DebitJournalPort journal;
+    private final int maxBatchSize;
+    private final Shard[] shards;
+    private final OffHeapCardIndex index;
+    private final OffHeapLongArray balances;
+    private final Map<String, Long> unpersisted = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService persister;
+    private final DistributionSummary batchSizes;
+    private volatile boolean stopped;
+
+    public ShardedDebitStrategy(
+            @Qualifier("cardRepositoryAdapter") CardRepositoryPort database,
+            ValidatorChain validatorChain,
+            TransactionOperations transactionOperations,
+            DebitJournalPort journal,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.debit.sharded.shards:0}") int shards,
+            @Value("${authorizer.debit.sharded.capacity:1048576}") int capacity,
+            @Value("${authorizer.debit.sharded.max-batch-size:256}") int maxBatchSize,
+            @Value("${authorizer.debit.sharded.persist-interval:PT0.01S}") Duration persistInterval) {
+
+        this.database = database;
+        this.validatorChain = validatorChain;
+        this.transactionOperations = transactionOperations;
+        this.journal = journal;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.index = new OffHeapCardIndex(capacity);
+        this.balances = new OffHeapLongArray(capacity, NOT_OWNED);
+        this.batchSizes = DistributionSummary.builder("authorizer.debit.sharded.batch-size")
+                .description("Debits decided and journaled together by one shard")
+                .register(meterRegistry);
+        Gauge.builder("authorizer.debit.sharded.unpersisted", unpersisted, Map::size)
+                .description("Cards whose journaled balance is not in the database yet")
+                .register(meterRegistry);
+
+        recover();
+
+        this.shards = new Shard[shards > 0 ? shards : Runtime.getRuntime().availableProcessors()];
+        for (int i = 0; i < this.shards.length; i++) {
+            Shard shard = new Shard(i);
+            this.shards[i] = shard;
+            shard.thread = Thread.ofPlatform().name("debit-shard-" + i).daemon().start(() -> run(shard));
+        }
+
+        this.persister = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("debit-persister").daemon().factory());
+        long interval = Math.max(1, persistInterval.toNanos());
+        persister.scheduleWithFixedDelay(this::persist, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public AuthorizationResult debit(Transaction transaction, Card verified) {
+        return await(submit(transaction, verified, false));
+    }
+
+    /**
+     * Debits {@code amountCents} if the card balance covers it, with no other validation:
+     * {@link CardRepositoryPort#tryDebit} for the cards this engine owns. A card it does
+     * not own yet is read from the database and owned from then on.
+     */
+    public boolean tryDebit(String cardNumber, long amountCents) {
+        // Conditional debits never check the password; the stored one only fills the transaction
+        return database.findByCardNumber(cardNumber)
+                .map(stored -> await(submit(new Transaction(cardNumber, stored.getPassword(), amountCents), stored, true)))
+                .map(AuthorizationResult::isApproved)
+                .orElse(false);
+    }
+
+    /**
+     * Debits each transaction whose card balance covers it, with no other validation, in
+     * order, as {@link #tryDebit} does.
+     */
+    public boolean[] tryDebitAll(List<Transaction> transactions) {
+        List<CompletableFuture<AuthorizationResult>> results = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            results.add(database.findByCardNumber(transaction.getCardNumber())
+                    .map(stored -> submit(transaction, stored, true))
+                    .orElseGet(() -> CompletableFuture.completedFuture(AuthorizationResult.CARD_NOT_FOUND)));
+        }
+
+        boolean[] debited = new boolean[transactions.size()];
+        for (int i = 0; i < debited.length; i++) {
+            debited[i] = await(results.get(i)).isApproved();
+        }
+        return debited;
+    }
+
+    /**
+     * The journaled balance of a card this node has debited, empty for cards it has not
+     * touched yet, whose balance is the one in the database.
+     */
+    public OptionalLong balanceCents(String cardNumber) {
+        int slot = index.slotOf(CardNumber.pack(cardNumber));
+        long balance = slot < 0 ? NOT_OWNED : balances.get(slot);
+        return balance == NOT_OWNED ? OptionalLong.empty() : OptionalLong.of(balance);
+    }
+
+    private CompletableFuture<AuthorizationResult> submit(Transaction transaction, Card verified, boolean conditional) {
+        if (stopped) {
+            throw new RejectedExecutionException("The sharded debit engine is stopped");
+        }
+
+        PendingDebit pending = new PendingDebit(transaction, verified, conditional, new CompletableFuture<>());
+        shards[shardOf(transaction.getPackedCardNumber())].queue.add(pending);
+        return pending.result();
+    }
+
+    int shardOf(long cardNumber) {
+        return Math.floorMod(CardNumber.hash(cardNumber), shards.length);
+    }
+
+    private void run(Shard shard) {
+        List<PendingDebit> batch = new ArrayList<>(maxBatchSize);
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(shard.queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            shard.queue.drainTo(batch, maxBatchSize - 1);
+
+            running = !batch.removeIf(pending -> pending == STOP);
+            if (!batch.isEmpty()) {
+                apply(shard, batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(Shard shard, List<PendingDebit> batch) {
+        AuthorizationResult[] results = new AuthorizationResult[batch.size()];
+        List<Entry> entries = new ArrayList<>(batch.size());
+        Map<String, Card> before = new HashMap<>();
+        Map<String, Integer> slots = new HashMap<>();
+        Map<String, RuntimeException> refused = new HashMap<>();
+        Set<String> debited = new HashSet<>();
+
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                PendingDebit pending = batch.get(i);
+                String cardNumber = pending.transaction().getCardNumber();
+                if (refused.containsKey(cardNumber)) {
+                    continue;
+                }
+
+                Card card = shard.cards.get(cardNumber);
+                if (!before.containsKey(cardNumber)) {
+                    int slot;
+                    try {
+                        slot = index.getOrAssign(pending.transaction().getPackedCardNumber());
+                    } catch (RuntimeException full) {
+                        refused.put(cardNumber, full);
+                        continue;
+                    }
+                    before.put(cardNumber, card == null ? null : copyOf(card));
+                    slots.put(cardNumber, slot);
+                }
+                if (card == null) {
+                    card = copyOf(pending.verified());
+                    shard.cards.put(cardNumber, card);
+                }
+
+                results[i] = pending.conditional() ? debitIfCovered(pending.transaction(), card) : debitOwned(pending, card);
+                if (results[i].isApproved()) {
+                    debited.add(cardNumber);
+                }
+                entries.add(new Entry(cardNumber, pending.transaction().getAmountCents(), results[i], card.getBalanceCents()));
+            }
+        } catch (RuntimeException ex) {
+            rollBack(shard, batch, before, ex);
+            return;
+        }
+
+        // persist() seals under the same lock, so a sealed segment never holds an entry whose balance is not queued yet
+        synchronized (shard) {
+            try {
+                if (!entries.isEmpty()) {
+                    journal.append(shard.index, entries);
+                }
+            } catch (RuntimeException ex) {
+                rollBack(shard, batch, before, ex);
+                return;
+            }
+
+            for (String cardNumber : before.keySet()) {
+                long balance = shard.cards.get(cardNumber).getBalanceCents();
+                balances.set(slots.get(cardNumber), balance);
+                if (debited.contains(cardNumber)) {
+                    unpersisted.put(cardNumber, balance);
+                }
+            }
+        }
+
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingDebit pending = batch.get(i);
+            if (results[i] == null) {
+                pending.result().completeExceptionally(refused.get(pending.transaction().getCardNumber()));
+            } else {
+                pending.result().complete(results[i]);
+            }
+        }
+    }
+
+    private static void rollBack(Shard shard, List<PendingDebit> batch, Map<String, Card> before, RuntimeException ex) {
+        before.forEach((cardNumber, card) -> {
+            if (card == null) {
+                shard.cards.remove(cardNumber);
+            } else {
+                shard.cards.put(cardNumber, card);
+            }
+        });
+        batch.forEach(pending -> pending.result().completeExceptionally(ex));
+    }
+
+    private AuthorizationResult debitOwned(PendingDebit pending, Card card) {
+        Transaction transaction = pending.transaction();
+
+        if (!card.getPassword().equals(pending.verified().getPassword())) {
+            AuthorizationResult credentials = validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+            if (!credentials.isApproved()) {
+                return credentials;
+            }
+        }
+
+        AuthorizationResult result = validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        if (result.isApproved()) {
+            card.debit(transaction.getAmountCents());
+        }
+        return result;
+    }
+
+    private static AuthorizationResult debitIfCovered(Transaction transaction, Card card) {
+        if (!card.hasSufficientBalance(transaction.getAmountCents())) {
+            return AuthorizationResult.INSUFFICIENT_BALANCE;
+        }
+        card.debit(transaction.getAmountCents());
+        return AuthorizationResult.APPROVED;
+    }
+
+    /**
+     * Writes the latest balance of every card changed since the last run, then discards
+     * the journal segments sealed before it: every entry in them has its balance, or a
+     * newer one, in what was written. A card debited again meanwhile keeps its newer
+     * balance queued for the next run.
+     */
+    void persist() {
+        long[] marks = new long[shards.length];
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                marks[shard.index] = journal.seal(shard.index);
+            }
+        }
+
+        Map<String, Long> snapshot = new HashMap<>(unpersisted);
+        if (!snapshot.isEmpty()) {
+            try {
+                transactionOperations.executeWithoutResult(status -> database.updateBalances(snapshot));
+            } catch (RuntimeException ex) {
+                log.warn("Could not persist {} card balances, retrying on the next run", snapshot.size(), ex);
+                return;
+            }
+            snapshot.forEach(unpersisted::remove);
+        }
+
+        for (Shard shard : shards) {
+            try {
+                journal.discard(shard.index, marks[shard.index]);
+            } catch (RuntimeException ex) {
+                log.warn("Could not discard the persisted debit journal of shard {}", shard.index, ex);
+            }
+        }
+    }
+
+    /**
+     * Every entry carries the balance after it, so the last approved entry of a card is
+     * its balance. Writing absolute balances makes a replay that is interrupted and run
+     * again harmless.
+     */
+    private void recover() {
+        Map<String, Long> recovered = new HashMap<>();
+        journal.replay(entry -> {
+            if (entry.result().isApproved()) {
+                recovered.put(entry.cardNumber(), entry.balanceCents());
+            }
+        });
+
+        if (!recovered.isEmpty()) {
+            transactionOperations.executeWithoutResult(status -> database.updateBalances(recovered));
+            log.info("Recovered the balances of {} cards from the debit journal", recovered.size());
+        }
+        journal.reset();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        stopped = true;
+        for (Shard shard : shards) {
+            shard.queue.add(STOP);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join();
+            List<PendingDebit> abandoned = new ArrayList<>();
+            shard.queue.drainTo(abandoned);
+            abandoned.forEach(pending -> pending.result().completeExceptionally(
+                    new RejectedExecutionException("The sharded debit engine is stopped")));
+        }
+
+        persister.shutdown();
+        persister.awaitTermination(10, TimeUnit.SECONDS);
+        persist();
+        if (unpersisted.isEmpty()) {
+            journal.reset();
+        }
+    }
+
+    private static Card copyOf(Card card) {
+        return new Card(card.getId(), card.getCardNumber(), card.getPassword(), card.getBalance(), card.getVersion());
+    }
+
+    private static AuthorizationResult await(CompletableFuture<AuthorizationResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final BlockingQueue<PendingDebit> queue = new LinkedBlockingQueue<>();
+        private final Map<String, Card> cards = new HashMap<>();
+        private Thread thread;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * A debit for a shard to decide. A conditional one only needs the balance to cover it,
+     * as {@link CardRepositoryPort#tryDebit} does, and skips the validator chain.
+     */
+    private record PendingDebit(Transaction transaction, Card verified, boolean conditional,
+                                CompletableFuture<AuthorizationResult> result) {
+    }
+}
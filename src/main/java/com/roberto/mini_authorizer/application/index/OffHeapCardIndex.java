@@ -0,0 +1,152 @@
+package com.roberto.mini_authorizer.application.index;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps packed card numbers to dense slots {@code 0..capacity-1}, for structures that keep
+ * per-card state in primitive arrays indexed by slot. The table is an open-addressed
+ * array of 16-byte buckets outside the heap, allocated up front with at least two
+ * buckets per card of capacity: 32 bytes per card for a power-of-two capacity, however
+ * many cards are in it, and nothing for the garbage collector to scan.
+ *
+ * <p>Lookups take no lock. A bucket is claimed by a CAS on its key and then published by
+ * writing its slot, so {@link #slotOf} never sees a slot before the key that owns it.
+ * Cards are never removed: a slot, once assigned, belongs to its card for the life of
+ * the index.
+ */
+public final class OffHeapCardIndex {
+
+    public static final int MAX_CAPACITY = 1 << 25;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int BUCKET_BYTES = 16;
+    private static final int KEY = 0;
+    private static final int SLOT = 8;
+    private static final long PENDING = 0L;
+    private static final long OVERFLOW = -1L;
+
+    private final ByteBuffer table;
+    private final int capacity;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public OffHeapCardIndex(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Card index capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+
+        int buckets = Integer.highestOneBit(capacity) << 1;
+        if (buckets < capacity * 2L) {
+            buckets <<= 1;
+        }
+        this.table = ByteBuffer.allocateDirect(buckets * BUCKET_BYTES).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * The slot of a card, or -1 when the card has none yet or the number could not be
+     * packed.
+     */
+    public int slotOf(long cardNumber) {
+        if (cardNumber < 0) {
+            return -1;
+        }
+
+        long key = cardNumber + 1;
+        for (int bucket = CardNumber.hash(cardNumber) & mask; ; bucket = (bucket + 1) & mask) {
+            int base = bucket * BUCKET_BYTES;
+            long found = (long) LONGS.getAcquire(table, base + KEY);
+            if (found == 0) {
+                return -1;
+            }
+            if (found == key) {
+                long slot = (long) LONGS.getAcquire(table, base + SLOT);
+                return slot > 0 ? (int) (slot - 1) : -1;
+            }
+        }
+    }
+
+    /**
+     * The slot of a card, assigning the next free one the first time the card is seen.
+     *
+     * @throws IllegalArgumentException when the number could not be packed
+     * @throws IllegalStateException when every slot is taken
+     */
+    public int getOrAssign(long cardNumber) {
+        if (cardNumber < 0) {
+            throw new IllegalArgumentException("Only 16-digit card numbers can be indexed");
+        }
+
+        long key = cardNumber + 1;
+        for (int bucket = CardNumber.hash(cardNumber) & mask; ; bucket = (bucket + 1) & mask) {
+            int base = bucket * BUCKET_BYTES;
+            long found = (long) LONGS.getAcquire(table, base + KEY);
+            if (found == 0) {
+                if (size.get() >= capacity) {
+                    throw full();
+                }
+                if (LONGS.compareAndSet(table, base + KEY, 0L, key)) {
+                    return assign(base);
+                }
+                found = (long) LONGS.getAcquire(table, base + KEY);
+            }
+            if (found == key) {
+                return awaitSlot(base);
+            }
+        }
+    }
+
+    public int size() {
+        return Math.min(size.get(), capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Bytes allocated outside the heap, fixed at construction.
+     */
+    public long memoryBytes() {
+        return table.capacity();
+    }
+
+    private int assign(int base) {
+        int slot = size.getAndIncrement();
+        if (slot >= capacity) {
+            LONGS.setRelease(table, base + SLOT, OVERFLOW);
+            throw full();
+        }
+        LONGS.setRelease(table, base + SLOT, slot + 1L);
+        return slot;
+    }
+
+    /**
+     * Another thread claimed the bucket for the same card and is about to publish its
+     * slot.
+     */
+    private int awaitSlot(int base) {
+        while (true) {
+            long slot = (long) LONGS.getAcquire(table, base + SLOT);
+            if (slot == OVERFLOW) {
+                throw full();
+            }
+            if (slot != PENDING) {
+                return (int) (slot - 1);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private IllegalStateException full() {
+        return new IllegalStateException("The card index is full (" + capacity + " cards)");
+    }
+}
@@ -0,0 +1,54 @@
+package com.roberto.mini_authorizer.application.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * A fixed array of longs outside the heap, indexed by the slots of an
+ * {@link OffHeapCardIndex}. Writes are released and reads acquired, so one thread can
+ * publish a value that others read without a lock.
+ */
+public final class OffHeapLongArray {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer values;
+    private final int length;
+
+    public OffHeapLongArray(int length, long initial) {
+        if (length < 1 || length > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Invalid off-heap array length: " + length);
+        }
+
+        this.values = ByteBuffer.allocateDirect(length * Long.BYTES).order(ByteOrder.nativeOrder());
+        this.length = length;
+        if (initial != 0) {
+            for (int i = 0; i < length; i++) {
+                values.putLong(i * Long.BYTES, initial);
+            }
+        }
+    }
+
+    public long get(int index) {
+        return (long) LONGS.getAcquire(values, offset(index));
+    }
+
+    public void set(int index, long value) {
+        LONGS.setRelease(values, offset(index), value);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long memoryBytes() {
+        return values.capacity();
+    }
+
+    private int offset(int index) {
+        return Objects.checkIndex(index, length) * Long.BYTES;
+    }
+}
@@ -0,0 +1,143 @@
+package com.roberto.mini_authorizer.application.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for any number of keys in a fixed table, taken and refilled with a single
+ * CAS and no lock. Each bucket is one {@code long}: a 20-bit fingerprint of its key and,
+ * in microseconds, the time at which the bucket will be full again (the "theoretical
+ * arrival time" of GCRA). A request takes a token when that time is at most
+ * {@code burst} tokens ahead of now, and moves it one token further ahead.
+ *
+ * <p>A key hashes to a set of {@value #WAYS} slots. A new key replaces the slot in its set
+ * that has been idle longest. Replacing a full bucket loses nothing. Replacing a bucket
+ * that still owes tokens, which only happens when the table is too small for the active
+ * keys, lets that key start again from a full bucket; those are counted in
+ * {@link #evictions()}. Two keys with the same set and fingerprint share a bucket, about
+ * one in a million pairs.
+ */
+public final class TokenBucketTable {
+
+    public static final int MAX_SLOTS = 1 << 26;
+
+    private static final int WAYS = 4;
+    private static final int TIME_BITS = 44;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long FINGERPRINT_MASK = (1L << (Long.SIZE - TIME_BITS)) - 1;
+    private static final long EMPTY = 0L;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray slots;
+    private final int setMask;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketTable(int slots, double tokensPerSecond, int burst) {
+        this(slots, tokensPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucketTable(int slots, double tokensPerSecond, int burst, LongSupplier nanoClock) {
+        if (slots < WAYS || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Rate limit table size must be between " + WAYS + " and " + MAX_SLOTS + ": " + slots);
+        }
+        if (!(tokensPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and a burst of at least 1: "
+                    + tokensPerSecond + "/s, burst " + burst);
+        }
+
+        int size = Integer.highestOneBit(slots - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.setMask = size / WAYS - 1;
+        this.intervalMicros = Math.max(1, Math.round(1_000_000 / tokensPerSecond));
+        this.toleranceMicros = intervalMicros * burst;
+        if (toleranceMicros >= 1L << (TIME_BITS - 2)) {
+            throw new IllegalArgumentException("Burst " + burst + " at " + tokensPerSecond + "/s spans too long a window");
+        }
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}, or returns {@code false} without
+     * changing it when the bucket is empty.
+     */
+    public boolean tryAcquire(long key) {
+        long hash = key * MIX;
+        long fingerprint = Math.max(1, hash & FINGERPRINT_MASK);
+        int first = (int) ((hash >>> 32) & setMask) * WAYS;
+        long now = now();
+
+        retry:
+        while (true) {
+            int victim = first;
+            long victimWord = EMPTY;
+            long victimIdle = Long.MIN_VALUE;
+
+            for (int i = first; i < first + WAYS; i++) {
+                long word = slots.get(i);
+                long idle = idleMicros(word, now);
+
+                if (word != EMPTY && word >>> TIME_BITS == fingerprint) {
+                    long owed = Math.max(0, -idle);
+                    if (owed + intervalMicros > toleranceMicros) {
+                        return false;
+                    }
+                    if (slots.compareAndSet(i, word, pack(fingerprint, now + owed + intervalMicros))) {
+                        return true;
+                    }
+                    continue retry;
+                }
+
+                if (idle > victimIdle) {
+                    victim = i;
+                    victimWord = word;
+                    victimIdle = idle;
+                }
+            }
+
+            if (slots.compareAndSet(victim, victimWord, pack(fingerprint, now + intervalMicros))) {
+                if (victimIdle < 0) {
+                    evictions.increment();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Buckets replaced while they still owed tokens.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int slots() {
+        return slots.length();
+    }
+
+    /**
+     * How long ago the bucket in {@code word} became full, negative while it still owes
+     * tokens. Empty slots and timestamps that cannot be current, left by a bucket idle for
+     * longer than the 44-bit clock wraps, count as idle forever.
+     */
+    private long idleMicros(long word, long now) {
+        if (word == EMPTY) {
+            return Long.MAX_VALUE;
+        }
+        long idle = ((now - word) & TIME_MASK) << (Long.SIZE - TIME_BITS) >> (Long.SIZE - TIME_BITS);
+        return idle < -toleranceMicros ? Long.MAX_VALUE - 1 : idle;
+    }
+
+    private long now() {
+        return ((nanoClock.getAsLong() - origin) / 1_000) & TIME_MASK;
+    }
+
+    private static long pack(long fingerprint, long fullAtMicros) {
+        return fingerprint << TIME_BITS | (fullAtMicros & TIME_MASK);
+    }
+}
@@ -0,0 +1,225 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.application.debit.CardLocks;
+import com.roberto.mini_authorizer.application.debit.DebitStrategy;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.in.BatchTransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Authorizes many transactions in one call. Items are grouped by card: each card is
+ * read and credential-checked without a lock, then debited item by item in arrival order.
+ * When the {@link DebitStrategy} debits under the row lock, the card is locked once, behind
+ * its {@link CardLocks} stripe, for all its items; in every other mode the items are handed
+ * to the strategy one by one, so a batch debits the way single requests do. Different cards
+ * are processed in parallel, on virtual threads when {@code spring.threads.virtual.enabled}
+ * is set; the pool still bounds how many connections one batch can hold. A card locked out
+ * after too many wrong passwords is declined without being read.
+ *
+ * <p>A card that fails unexpectedly does not fail the batch: the other cards' debits are
+ * already committed and must be reported. Its items that were not debited are answered
+ * {@link AuthorizationResult#ERROR}.
+ */
+@Slf4j
+@Service
+public class BatchTransactionService implements BatchTransactionServicePort {
+
+    private final CardRepositoryPort cardRepository;
+    private final ValidatorChain validatorChain;
+    private final TransactionOperations transactionOperations;
+    private final CardLocks cardLocks;
+    private final DebitStrategy debitStrategy;
+    private final BalanceCachePort balanceCache;
+    private final PasswordLockoutPort lockout;
+    private final AuthorizationMetrics metrics;
+    private final ExecutorService executor;
+
+    public BatchTransactionService(
+            CardRepositoryPort cardRepository,
+            ValidatorChain validatorChain,
+            TransactionOperations transactionOperations,
+            CardLocks cardLocks,
+            DebitStrategy debitStrategy,
+            BalanceCachePort balanceCache,
+            PasswordLockoutPort lockout,
+            AuthorizationMetrics metrics,
+            @Value("${authorizer.batch.parallelism:0}") int parallelism,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        this.cardRepository = cardRepository;
+        this.validatorChain = validatorChain;
+        this.transactionOperations = transactionOperations;
+        this.cardLocks = cardLocks;
+        this.debitStrategy = debitStrategy;
+        this.balanceCache = balanceCache;
+        this.lockout = lockout;
+        this.metrics = metrics;
+        this.executor = Executors.newFixedThreadPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                virtualThreads
+                        ? Thread.ofVirtual().name("batch-authorizer-", 0).factory()
+                        : Thread.ofPlatform().name("batch-authorizer-", 0).factory());
+    }
+
+    @Override
+    public List<AuthorizationResult> authorizeAll(List<Transaction> transactions) {
+
+        AuthorizationResult[] results = new AuthorizationResult[transactions.size()];
+
+        Map<String, List<Integer>> itemsByCard = new LinkedHashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            itemsByCard.computeIfAbsent(transactions.get(i).getCardNumber(), card -> new ArrayList<>()).add(i);
+        }
+
+        CompletableFuture<?>[] cards = itemsByCard.entrySet().stream()
+                .map(entry -> CompletableFuture
+                        .runAsync(() -> authorizeCard(entry.getKey(), entry.getValue(), transactions, results), executor)
+                        .exceptionally(ex -> {
+                            log.error("Batch items for a card failed and were not debited", ex);
+                            entry.getValue().stream()
+                                    .filter(i -> results[i] == null)
+                                    .forEach(i -> results[i] = AuthorizationResult.ERROR);
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(cards).join();
+
+        for (AuthorizationResult result : results) {
+            metrics.count(result);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void authorizeCard(String cardNumber, List<Integer> items,
+                               List<Transaction> transactions, AuthorizationResult[] results) {
+
+        if (lockout.isLockedOut(cardNumber)) {
+            items.forEach(i -> results[i] = AuthorizationResult.INVALID_PASSWORD);
+            return;
+        }
+
+        Optional<Card> verified = cardRepository.findByCardNumber(cardNumber);
+        if (verified.isEmpty()) {
+            items.forEach(i -> results[i] = AuthorizationResult.CARD_NOT_FOUND);
+            return;
+        }
+
+        List<Integer> accepted = checkCredentials(items, transactions, verified.get(), results);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        boolean debited = debitStrategy.debitsUnderRowLock()
+                ? debitLocked(cardNumber, accepted, transactions, verified.get(), results)
+                : debitEach(accepted, transactions, verified.get(), results);
+
+        if (debited) {
+            balanceCache.invalidate(cardNumber);
+        }
+    }
+
+    /**
+     * Debits the accepted items in one database transaction. If it fails, none of them
+     * was debited, whatever result they were given before the rollback.
+     */
+    private boolean debitLocked(String cardNumber, List<Integer> accepted, List<Transaction> transactions,
+                                Card verified, AuthorizationResult[] results) {
+        try {
+            return debitLockedOnce(cardNumber, accepted, transactions, verified, results);
+        } catch (RuntimeException ex) {
+            accepted.forEach(i -> results[i] = null);
+            throw ex;
+        }
+    }
+
+    private boolean debitLockedOnce(String cardNumber, List<Integer> accepted, List<Transaction> transactions,
+                                    Card verified, AuthorizationResult[] results) {
+        return cardLocks.withLock(cardNumber, () -> Boolean.TRUE.equals(transactionOperations.execute(status -> {
+            Optional<Card> locked = cardRepository.findByCardNumberWithLock(cardNumber);
+            if (locked.isEmpty()) {
+                accepted.forEach(i -> results[i] = AuthorizationResult.CARD_NOT_FOUND);
+                return false;
+            }
+
+            Card card = locked.get();
+            List<Integer> debitable = card.getPassword().equals(verified.getPassword())
+                    ? accepted
+                    : checkCredentials(accepted, transactions, card, results);
+
+            debitable.forEach(i -> results[i] = debit(transactions.get(i), card));
+
+            if (debitable.stream().noneMatch(i -> results[i].isApproved())) {
+                return false;
+            }
+            cardRepository.save(card);
+            return true;
+        })));
+    }
+
+    /**
+     * Each item is its own debit here, so one that fails is answered
+     * {@link AuthorizationResult#ERROR} and the rest of the card's items still run.
+     */
+    private boolean debitEach(List<Integer> accepted, List<Transaction> transactions,
+                               Card verified, AuthorizationResult[] results) {
+        for (Integer i : accepted) {
+            try {
+                results[i] = debitStrategy.debit(transactions.get(i), verified);
+            } catch (RuntimeException ex) {
+                log.error("Batch item failed and was not debited", ex);
+                results[i] = AuthorizationResult.ERROR;
+            }
+        }
+        return accepted.stream().anyMatch(i -> results[i].isApproved());
+    }
+
+    private List<Integer> checkCredentials(List<Integer> items, List<Transaction> transactions,
+                                           Card card, AuthorizationResult[] results) {
+        List<Integer> accepted = new ArrayList<>(items.size());
+        for (Integer i : items) {
+            AuthorizationResult credentials = validatorChain.validate(transactions.get(i), card, ValidationPhase.BEFORE_LOCK);
+            if (credentials.isApproved()) {
+                accepted.add(i);
+            } else {
+                results[i] = credentials;
+            }
+        }
+        return accepted;
+    }
+
+    private AuthorizationResult debit(Transaction transaction, Card card) {
+        AuthorizationResult result = validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        if (result.isApproved()) {
+            card.debit(transaction.getAmountCents());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
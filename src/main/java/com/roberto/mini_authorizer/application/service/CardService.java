@@ -4,8 +4,9 @@ import com.roberto.mini_authorizer.domain.exceptions.CardAlreadyExistsException;
 import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundException;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.ports.in.CardServicePort;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
 import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
-import lombok.AllArgsConstructor;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +21,8 @@ public class CardService implements CardServicePort {
 
     private final CardRepositoryPort cardRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CredentialCachePort credentialCache;
+    private final BalanceCachePort balanceCache;
 
     @Override
     @Transactional
@@ -28,17 +31,18 @@ public class CardService implements CardServicePort {
         Card newCard = Card.create(cardNumber, encodedPassword);
 
         try {
-            return cardRepository.save(newCard);
+            Card saved = cardRepository.save(newCard);
+            credentialCache.invalidate(cardNumber);
+            balanceCache.invalidate(cardNumber);
+            return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new CardAlreadyExistsException(cardNumber, password);
         }
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal getBalance(String cardNumber) {
-        return cardRepository.findByCardNumber(cardNumber)
-                .map(Card::getBalance)
+        return balanceCache.get(cardNumber, cardRepository::findBalanceByCardNumber)
                 .orElseThrow(() -> new CardNotFoundException(cardNumber));
     }
 }
@@ -0,0 +1,127 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyInProgressException;
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyMismatchException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.IdempotentTransactionServicePort;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort;
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs an authorization at most once per idempotency key. Requests racing on the same
+ * key inside this node wait for the first one and share its result; across nodes the
+ * durable reservation in {@link TransactionPersistencePort} decides the winner.
+ *
+ * <p>Each key is stored with a fingerprint of the client, card number and amount that
+ * reserved it. A request that reuses the key with a different fingerprint gets an
+ * {@link IdempotencyKeyMismatchException} instead of another request's result.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotentTransactionService implements IdempotentTransactionServicePort {
+
+    private final TransactionServicePort transactionService;
+    private final TransactionPersistencePort transactionPersistence;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationResult authorize(Transaction transaction, String clientId, String idempotencyKey) {
+
+        String fingerprint = fingerprint(clientId, transaction);
+        Optional<AuthorizationResult> stored = storedResult(idempotencyKey, fingerprint);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        InFlight claim = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(idempotencyKey, claim);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyMismatchException(idempotencyKey);
+            }
+            return await(running.result());
+        }
+
+        try {
+            AuthorizationResult result = process(transaction, idempotencyKey, fingerprint);
+            claim.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            claim.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(idempotencyKey, claim);
+        }
+    }
+
+    private AuthorizationResult process(Transaction transaction, String idempotencyKey, String fingerprint) {
+
+        if (!transactionPersistence.reserve(idempotencyKey, fingerprint)) {
+            return storedResult(idempotencyKey, fingerprint)
+                    .orElseThrow(() -> new IdempotencyKeyInProgressException(idempotencyKey));
+        }
+
+        AuthorizationResult result = null;
+        try {
+            result = transactionService.authorize(transaction);
+            return result;
+        } finally {
+            if (result == null) {
+                transactionPersistence.release(idempotencyKey);
+            } else {
+                transactionPersistence.markAsProcessed(idempotencyKey, fingerprint, result.getCode());
+            }
+        }
+    }
+
+    private Optional<AuthorizationResult> storedResult(String idempotencyKey, String fingerprint) {
+        Optional<IdempotencyRecord> stored = transactionPersistence.find(idempotencyKey);
+        if (stored.isPresent() && !stored.get().matches(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        return stored.filter(IdempotencyRecord::isProcessed)
+                .map(IdempotencyRecord::result)
+                .map(AuthorizationResult::fromCode);
+    }
+
+    /**
+     * SHA-256 of what the key must keep meaning. The password is left out, so a retry
+     * after a wrong password replays the decline, as it would for any stored result.
+     */
+    static String fingerprint(String clientId, Transaction transaction) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String request = clientId + '\n' + transaction.getCardNumber() + '\n' + transaction.getAmountCents();
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static AuthorizationResult await(CompletableFuture<AuthorizationResult> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<AuthorizationResult> result) {
+    }
+}
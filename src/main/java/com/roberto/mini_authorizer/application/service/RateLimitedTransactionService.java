@@ -0,0 +1,61 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.application.ratelimit.TokenBucketTable;
+import com.roberto.mini_authorizer.domain.exceptions.RateLimitExceededException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limits how often each card can be authorized, before {@link TransactionService} reads
+ * the card or checks its password. A bot trying passwords on one card is answered with
+ * {@link RateLimitExceededException} once the card's bucket is empty, which costs a CAS
+ * rather than a database read and a BCrypt check. Applies to every caller of
+ * {@link TransactionServicePort}: the REST API, idempotent requests and the TCP listener.
+ */
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "authorizer.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitedTransactionService implements TransactionServicePort {
+
+    private final TransactionServicePort transactionService;
+    private final TokenBucketTable cards;
+    private final Counter throttled;
+
+    public RateLimitedTransactionService(
+            @Qualifier("transactionService") TransactionServicePort transactionService,
+            @Value("${authorizer.rate-limit.card.per-second:10}") double perSecond,
+            @Value("${authorizer.rate-limit.card.burst:20}") int burst,
+            @Value("${authorizer.rate-limit.card.table-size:262144}") int tableSize,
+            MeterRegistry meterRegistry) {
+
+        this.transactionService = transactionService;
+        this.cards = new TokenBucketTable(tableSize, perSecond, burst);
+        this.throttled = Counter.builder("authorizer.rate-limit.throttled")
+                .description("Requests refused because their card or API client was over its rate limit")
+                .tag("key", "card")
+                .register(meterRegistry);
+        FunctionCounter.builder("authorizer.rate-limit.evictions", cards, TokenBucketTable::evictions)
+                .description("Rate limit buckets replaced while still limiting their key; the table is too small")
+                .tag("key", "card")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Transaction transaction) {
+        long packed = transaction.getPackedCardNumber();
+        if (!cards.tryAcquire(packed >= 0 ? packed : transaction.getCardNumber().hashCode())) {
+            throttled.increment();
+            throw RateLimitExceededException.INSTANCE;
+        }
+        return transactionService.authorize(transaction);
+    }
+}
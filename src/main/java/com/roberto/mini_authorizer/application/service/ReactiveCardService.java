@@ -0,0 +1,57 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.domain.exceptions.CardAlreadyExistsException;
+import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundException;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.infrastructure.config.ReactiveConfig;
+import com.roberto.mini_authorizer.ports.in.ReactiveCardServicePort;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import com.roberto.mini_authorizer.ports.out.ReactiveCardRepositoryPort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardService implements ReactiveCardServicePort {
+
+    private final ReactiveCardRepositoryPort cardRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final CredentialCachePort credentialCache;
+    private final Scheduler credentialScheduler;
+
+    public ReactiveCardService(
+            ReactiveCardRepositoryPort cardRepository,
+            PasswordEncoder passwordEncoder,
+            CredentialCachePort credentialCache,
+            @Qualifier(ReactiveConfig.CREDENTIAL_SCHEDULER) Scheduler credentialScheduler) {
+
+        this.cardRepository = cardRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
+        this.credentialScheduler = credentialScheduler;
+    }
+
+    @Override
+    public Mono<Card> createCard(String cardNumber, String password) {
+        return Mono.fromCallable(() -> Card.create(cardNumber, passwordEncoder.encode(password)))
+                .subscribeOn(credentialScheduler)
+                .flatMap(cardRepository::save)
+                .doOnNext(saved -> credentialCache.invalidate(cardNumber))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        ex -> new CardAlreadyExistsException(cardNumber, password));
+    }
+
+    @Override
+    public Mono<BigDecimal> getBalance(String cardNumber) {
+        return cardRepository.findByCardNumber(cardNumber)
+                .map(Card::getBalance)
+                .switchIfEmpty(Mono.error(() -> new CardNotFoundException(cardNumber)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.infrastructure.config.ReactiveConfig;
+import com.roberto.mini_authorizer.ports.in.ReactiveTransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import com.roberto.mini_authorizer.ports.out.ReactiveCardRepositoryPort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking authorization: the card is read, its credentials are checked on the
+ * bounded credential scheduler, and the debit is a single conditional UPDATE. As in the
+ * conditional debit mode, {@code UNDER_LOCK} validators are not consulted. A card locked
+ * out after too many wrong passwords is declined before it is read.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionService implements ReactiveTransactionServicePort {
+
+    private final ReactiveCardRepositoryPort cardRepository;
+    private final ValidatorChain validatorChain;
+    private final Scheduler credentialScheduler;
+    private final PasswordLockoutPort lockout;
+    private final AuthorizationMetrics metrics;
+
+    public ReactiveTransactionService(
+            ReactiveCardRepositoryPort cardRepository,
+            ValidatorChain validatorChain,
+            @Qualifier(ReactiveConfig.CREDENTIAL_SCHEDULER) Scheduler credentialScheduler,
+            PasswordLockoutPort lockout,
+            AuthorizationMetrics metrics) {
+
+        this.cardRepository = cardRepository;
+        this.validatorChain = validatorChain;
+        this.credentialScheduler = credentialScheduler;
+        this.lockout = lockout;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<AuthorizationResult> authorize(Transaction transaction) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            if (lockout.isLockedOut(transaction.getCardNumber())) {
+                return Mono.just(metrics.authorized(AuthorizationResult.INVALID_PASSWORD, start));
+            }
+            return cardRepository.findByCardNumber(transaction.getCardNumber())
+                    .flatMap(verified -> authorize(transaction, verified))
+                    .defaultIfEmpty(AuthorizationResult.CARD_NOT_FOUND)
+                    .map(result -> metrics.authorized(result, start));
+        });
+    }
+
+    private Mono<AuthorizationResult> authorize(Transaction transaction, Card verified) {
+        return Mono.fromCallable(() -> validatorChain.validate(transaction, verified, ValidationPhase.BEFORE_LOCK))
+                .subscribeOn(credentialScheduler)
+                .flatMap(credentials -> credentials.isApproved()
+                        ? debit(transaction)
+                        : Mono.just(credentials));
+    }
+
+    private Mono<AuthorizationResult> debit(Transaction transaction) {
+        return cardRepository.tryDebit(transaction.getCardNumber(), transaction.getAmountCents())
+                .map(debited -> debited
+                        ? AuthorizationResult.APPROVED
+                        : AuthorizationResult.INSUFFICIENT_BALANCE);
+    }
+}
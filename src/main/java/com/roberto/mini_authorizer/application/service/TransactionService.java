@@ -1,34 +1,69 @@
 package com.roberto.mini_authorizer.application.service;
 
-import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundForTransactionException;
+import com.roberto.mini_authorizer.application.debit.DebitStrategy;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics.Stage;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
 import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
 import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
 import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
+/**
+ * Authorizes in two phases so the row lock is never held while hashing passwords:
+ * an unlocked read plus credential check first, then the configured
+ * {@link DebitStrategy} rechecks the balance and debits. Every strategy has committed
+ * by the time it returns, so an approved debit evicts the cached balance right away.
+ * A card locked out after too many wrong passwords is declined before it is even read.
+ */
 @Service
 @RequiredArgsConstructor
 public class TransactionService implements TransactionServicePort {
 
     private final CardRepositoryPort cardRepository;
     private final ValidatorChain validatorChain;
+    private final DebitStrategy debitStrategy;
+    private final BalanceCachePort balanceCache;
+    private final PasswordLockoutPort lockout;
+    private final AuthorizationMetrics metrics;
 
     @Override
-    @Transactional
-    public void authorize(Transaction transaction) {
+    public AuthorizationResult authorize(Transaction transaction) {
+        long start = System.nanoTime();
+        if (lockout.isLockedOut(transaction.getCardNumber())) {
+            return metrics.authorized(AuthorizationResult.INVALID_PASSWORD, start);
+        }
+
+        Optional<Card> verified = cardRepository.findByCardNumber(transaction.getCardNumber());
+        long read = metrics.stage(Stage.READ, start);
 
-        Card card = cardRepository
-                .findByCardNumberWithLock(transaction.getCardNumber())
-                .orElseThrow(CardNotFoundForTransactionException::new);
+        AuthorizationResult result = verified
+                .map(card -> authorize(transaction, card, read))
+                .orElse(AuthorizationResult.CARD_NOT_FOUND);
 
-        validatorChain.validate(transaction, card);
+        return metrics.authorized(result, start);
+    }
 
-        card.debit(transaction.getAmount());
+    private AuthorizationResult authorize(Transaction transaction, Card verified, long read) {
+        AuthorizationResult credentials = validatorChain.validate(transaction, verified, ValidationPhase.BEFORE_LOCK);
+        long checked = metrics.stage(Stage.CREDENTIALS, read);
+        if (!credentials.isApproved()) {
+            return credentials;
+        }
 
-        cardRepository.save(card);
+        AuthorizationResult debited = debitStrategy.debit(transaction, verified);
+        if (debited.isApproved()) {
+            balanceCache.invalidate(transaction.getCardNumber());
+        }
+        metrics.stage(Stage.DEBIT, checked);
+        return debited;
     }
 }
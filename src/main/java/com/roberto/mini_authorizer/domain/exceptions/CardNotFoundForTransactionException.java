@@ -1,7 +1,10 @@
 package com.roberto.mini_authorizer.domain.exceptions;
 
 public class CardNotFoundForTransactionException extends RuntimeException {
+
+    public static final CardNotFoundForTransactionException INSTANCE = new CardNotFoundForTransactionException();
+
     public CardNotFoundForTransactionException() {
-        super("CARTAO_INEXISTENTE");
+        super("CARTAO_INEXISTENTE", null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.roberto.mini_authorizer.domain.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String idempotencyKey) {
+        super("Transaction still in progress for idempotency key: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,7 @@
+package com.roberto.mini_authorizer.domain.exceptions;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency key already used for a different request: " + idempotencyKey);
+    }
+}
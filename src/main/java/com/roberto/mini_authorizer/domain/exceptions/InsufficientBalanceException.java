@@ -2,7 +2,9 @@ package com.roberto.mini_authorizer.domain.exceptions;
 
 public class InsufficientBalanceException extends RuntimeException {
 
+    public static final InsufficientBalanceException INSTANCE = new InsufficientBalanceException();
+
     public InsufficientBalanceException() {
-        super("SALDO_INSUFICIENTE");
+        super("SALDO_INSUFICIENTE", null, false, false);
     }
 }
@@ -2,7 +2,9 @@ package com.roberto.mini_authorizer.domain.exceptions;
 
 public class InvalidPasswordException extends RuntimeException {
 
+    public static final InvalidPasswordException INSTANCE = new InvalidPasswordException();
+
     public InvalidPasswordException() {
-        super("SENHA_INVALIDA");
+        super("SENHA_INVALIDA", null, false, false);
     }
 }
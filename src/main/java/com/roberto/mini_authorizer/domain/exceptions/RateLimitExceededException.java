@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.domain.exceptions;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    public static final RateLimitExceededException INSTANCE = new RateLimitExceededException();
+
+    public RateLimitExceededException() {
+        super("LIMITE_EXCEDIDO", null, false, false);
+    }
+}
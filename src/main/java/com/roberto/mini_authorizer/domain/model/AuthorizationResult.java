@@ -0,0 +1,36 @@
+package com.roberto.mini_authorizer.domain.model;
+
+import java.util.Arrays;
+
+public enum AuthorizationResult {
+    APPROVED("OK"),
+    INSUFFICIENT_BALANCE("SALDO_INSUFICIENTE"),
+    INVALID_PASSWORD("SENHA_INVALIDA"),
+    CARD_NOT_FOUND("CARTAO_INEXISTENTE"),
+    /**
+     * A batch item whose card failed unexpectedly and was not debited. Single
+     * authorizations throw instead.
+     */
+    ERROR("ERRO");
+
+    private final String code;
+
+    AuthorizationResult(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean isApproved() {
+        return this == APPROVED;
+    }
+
+    public static AuthorizationResult fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(result -> result.code.equals(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown authorization result: " + code));
+    }
+}
@@ -4,56 +4,65 @@ import com.roberto.mini_authorizer.domain.exceptions.InsufficientBalanceExceptio
 import lombok.Getter;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Objects;
 import java.util.Optional;
 
 @Getter
 public class Card {
-    private static final int MONEY_SCALE = 2;
-    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
-    private static final BigDecimal INITIAL_BALANCE =
-            new BigDecimal("500.00").setScale(MONEY_SCALE, ROUNDING_MODE);
+    private static final long INITIAL_BALANCE_CENTS = 500_00L;
 
     private Long id;
     private String cardNumber;
     private String password;
-    private BigDecimal balance;
+    private long balanceCents;
+    private long version;
 
     public Card(Long id, String cardNumber, String password, BigDecimal balance) {
+        this(id, cardNumber, password, balance, 0L);
+    }
+
+    public Card(Long id, String cardNumber, String password, BigDecimal balance, long version) {
         this.id = id;
         this.cardNumber = cardNumber;
         this.password = password;
-        this.balance = balance.setScale(MONEY_SCALE, ROUNDING_MODE);
+        this.balanceCents = Money.toCents(balance);
+        this.version = version;
     }
 
     public Card(String cardNumber, String password, BigDecimal balance) {
+        this(cardNumber, password, Money.toCents(balance));
+    }
+
+    private Card(String cardNumber, String password, long balanceCents) {
         this.cardNumber = cardNumber;
         this.password = password;
-        this.balance = balance.setScale(MONEY_SCALE, ROUNDING_MODE);
+        this.balanceCents = balanceCents;
     }
 
 
     public static Card create(String cardNumber, String password) {
         validateCardNumber(cardNumber);
         validatePassword(password);
-        return new Card(cardNumber, password, INITIAL_BALANCE);
+        return new Card(cardNumber, password, INITIAL_BALANCE_CENTS);
+    }
+
+    public BigDecimal getBalance() {
+        return Money.fromCents(balanceCents);
     }
 
     public void debit(BigDecimal amount) {
         validateDebitAmount(amount);
+        debit(Money.toCents(amount));
+    }
 
-        BigDecimal normalizedAmount =
-                amount.setScale(MONEY_SCALE, ROUNDING_MODE);
-
-        BigDecimal newBalance = this.balance.subtract(normalizedAmount)
-                .setScale(MONEY_SCALE, ROUNDING_MODE);
-
-        Optional.of(newBalance)
-                .filter(b -> b.compareTo(BigDecimal.ZERO) >= 0)
-                .orElseThrow(InsufficientBalanceException::new);
-
-        this.balance = newBalance;
+    public void debit(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Debit amount must be greater than zero");
+        }
+        if (!hasSufficientBalance(amountCents)) {
+            throw InsufficientBalanceException.INSTANCE;
+        }
+        this.balanceCents -= amountCents;
     }
 
 
@@ -62,7 +71,11 @@ public class Card {
     }
 
     public boolean hasSufficientBalance(BigDecimal amount) {
-        return this.balance.compareTo(amount) >= 0;
+        return hasSufficientBalance(Money.toCents(amount));
+    }
+
+    public boolean hasSufficientBalance(long amountCents) {
+        return this.balanceCents >= amountCents;
     }
 
     private static void validateCardNumber(String cardNumber) {
@@ -0,0 +1,50 @@
+package com.roberto.mini_authorizer.domain.model;
+
+/**
+ * Card numbers are always 16 digits, so they fit in a {@code long}. Packing them once,
+ * where a transaction enters the application, lets in-memory structures key cards by a
+ * primitive instead of hashing and comparing strings on every lookup.
+ */
+public final class CardNumber {
+
+    public static final int DIGITS = 16;
+
+    /**
+     * What {@link #pack} returns for anything that is not exactly 16 digits.
+     */
+    public static final long INVALID = -1L;
+
+    private static final long GOLDEN_RATIO = 0x9E37_79B9_7F4A_7C15L;
+
+    private CardNumber() {
+    }
+
+    public static long pack(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != DIGITS) {
+            return INVALID;
+        }
+
+        long packed = 0;
+        for (int i = 0; i < DIGITS; i++) {
+            char digit = cardNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return INVALID;
+            }
+            packed = packed * 10 + (digit - '0');
+        }
+        return packed;
+    }
+
+    public static String unpack(long packed) {
+        String digits = Long.toString(packed);
+        return "0".repeat(DIGITS - digits.length()) + digits;
+    }
+
+    /**
+     * Spreads a packed card number over an {@code int}, for open-addressed tables whose
+     * size is a power of two and therefore only look at the low bits.
+     */
+    public static int hash(long packed) {
+        return (int) ((packed * GOLDEN_RATIO) >>> 32);
+    }
+}
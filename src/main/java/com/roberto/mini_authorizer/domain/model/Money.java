@@ -0,0 +1,28 @@
+package com.roberto.mini_authorizer.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money in the domain is a plain {@code long} of cents, so balance checks and debits
+ * are primitive arithmetic. {@link BigDecimal} is only used where amounts enter or
+ * leave the application (JSON and the database), through the conversions below.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, ROUNDING_MODE)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
@@ -10,17 +10,31 @@ import java.util.Optional;
 @Getter
 public class Transaction {
     private final String cardNumber;
+    /**
+     * The card number as {@link CardNumber#pack} returns it, computed once here so that
+     * in-memory structures keyed by it do not parse the string again.
+     */
+    private final long packedCardNumber;
     private final String cardPassword;
-    private final BigDecimal amount;
+    private final long amountCents;
     private final LocalDateTime timestamp;
 
     public Transaction(String cardNumber, String cardPassword, BigDecimal amount) {
+        this(cardNumber, cardPassword, Money.toCents(validateAmount(amount)));
+    }
+
+    public Transaction(String cardNumber, String cardPassword, long amountCents) {
         this.cardNumber = validateCardNumber(cardNumber);
+        this.packedCardNumber = CardNumber.pack(this.cardNumber);
         this.cardPassword = validatePassword(cardPassword);
-        this.amount = validateAmount(amount);
+        this.amountCents = validateAmountCents(amountCents);
         this.timestamp = LocalDateTime.now();
     }
 
+    public BigDecimal getAmount() {
+        return Money.fromCents(amountCents);
+    }
+
     private String validateCardNumber(String cardNumber) {
         return Optional.ofNullable(cardNumber)
                 .filter(n -> !n.isBlank())
@@ -33,12 +47,19 @@ public class Transaction {
                 .orElseThrow(() -> new IllegalArgumentException("Password must not be empty"));
     }
 
-    private BigDecimal validateAmount(BigDecimal amount) {
+    private static BigDecimal validateAmount(BigDecimal amount) {
         return Optional.ofNullable(amount)
                 .filter(a -> a.compareTo(BigDecimal.ZERO) > 0)
                 .orElseThrow(() -> new IllegalArgumentException("Amount must be greater than zero"));
     }
 
+    private static long validateAmountCents(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        return amountCents;
+    }
+
     @Override
     public boolean equals(Object o) {
         return Optional.ofNullable(o)
@@ -1,24 +1,50 @@
 package com.roberto.mini_authorizer.domain.validator;
 
-import com.roberto.mini_authorizer.domain.exceptions.InvalidPasswordException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
+/**
+ * Checks the card password, through the credential cache before BCrypt, and keeps the
+ * count of consecutive wrong passwords behind the lockout. Whether a card is locked out
+ * is checked once, by the services, before the card is even read.
+ */
 @Component
 @RequiredArgsConstructor
 public class CorrectPasswordValidator implements TransactionValidator {
 
     private final PasswordEncoder passwordEncoder;
+    private final CredentialCachePort credentialCache;
+    private final PasswordLockoutPort lockout;
+
+    @Override
+    public AuthorizationResult validate(Transaction transaction, Card card) {
+        String rawPassword = transaction.getCardPassword();
+
+        // The count is reset as soon as the credentials check out, whether or not the
+        // authorization is then declined, for example on the balance.
+        if (credentialCache.isVerified(card.getCardNumber(), rawPassword, card.getPassword())) {
+            lockout.reset(card.getCardNumber());
+            return AuthorizationResult.APPROVED;
+        }
+
+        if (!passwordEncoder.matches(rawPassword, card.getPassword())) {
+            lockout.recordFailure(card.getCardNumber());
+            return AuthorizationResult.INVALID_PASSWORD;
+        }
+
+        credentialCache.markVerified(card.getCardNumber(), rawPassword, card.getPassword());
+        lockout.reset(card.getCardNumber());
+        return AuthorizationResult.APPROVED;
+    }
 
     @Override
-    public void validate(Transaction transaction, Card card) {
-        Optional.of(transaction.getCardPassword())
-                .filter(password -> passwordEncoder.matches(password, card.getPassword()))
-                .orElseThrow(InvalidPasswordException::new);
+    public ValidationPhase phase() {
+        return ValidationPhase.BEFORE_LOCK;
     }
 }
@@ -1,9 +1,18 @@
 package com.roberto.mini_authorizer.domain.validator;
 
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
 
+/**
+ * A single authorization rule. Returns {@link AuthorizationResult#APPROVED} when the
+ * rule holds, or the decline to report otherwise; declines are not exceptional.
+ */
 @FunctionalInterface
 public interface TransactionValidator {
-    void validate(Transaction transaction, Card card);
+    AuthorizationResult validate(Transaction transaction, Card card);
+
+    default ValidationPhase phase() {
+        return ValidationPhase.UNDER_LOCK;
+    }
 }
@@ -0,0 +1,11 @@
+package com.roberto.mini_authorizer.domain.validator;
+
+/**
+ * Tells the authorization flow where a validator must run relative to the card row lock.
+ * Expensive checks that do not depend on the current balance belong before the lock;
+ * anything reading mutable card state must run under it.
+ */
+public enum ValidationPhase {
+    BEFORE_LOCK,
+    UNDER_LOCK
+}
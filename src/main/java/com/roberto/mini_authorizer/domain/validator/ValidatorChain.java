@@ -1,21 +1,46 @@
 package com.roberto.mini_authorizer.domain.validator;
 
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ValidatorChain {
 
     private final List<TransactionValidator> validators;
+    private final Map<ValidationPhase, List<TransactionValidator>> validatorsByPhase;
 
     public ValidatorChain(List<TransactionValidator> validators) {
         this.validators = validators;
+        this.validatorsByPhase = new EnumMap<>(ValidationPhase.class);
+        for (ValidationPhase phase : ValidationPhase.values()) {
+            validatorsByPhase.put(phase, validators.stream()
+                    .filter(validator -> validator.phase() == phase)
+                    .toList());
+        }
     }
 
-    public void validate(Transaction transaction, Card card) {
-        validators.forEach(validator -> validator.validate(transaction, card));
+    public AuthorizationResult validate(Transaction transaction, Card card) {
+        return firstDecline(validators, transaction, card);
+    }
+
+    public AuthorizationResult validate(Transaction transaction, Card card, ValidationPhase phase) {
+        return firstDecline(validatorsByPhase.get(phase), transaction, card);
+    }
+
+    private static AuthorizationResult firstDecline(List<TransactionValidator> validators,
+                                                    Transaction transaction, Card card) {
+        for (TransactionValidator validator : validators) {
+            AuthorizationResult result = validator.validate(transaction, card);
+            if (!result.isApproved()) {
+                return result;
+            }
+        }
+        return AuthorizationResult.APPROVED;
     }
 }
@@ -0,0 +1,41 @@
+package com.roberto.mini_authorizer.infrastructure.api.controllers;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One immutable response per authorization result, shared by the servlet and reactive
+ * transaction controllers so neither builds a response per request.
+ */
+final class AuthorizationResponses {
+
+    private static final Map<AuthorizationResult, ResponseEntity<String>> RESPONSES =
+            new EnumMap<>(AuthorizationResult.class);
+
+    static {
+        for (AuthorizationResult result : AuthorizationResult.values()) {
+            RESPONSES.put(result, ResponseEntity
+                    .status(statusOf(result))
+                    .body(result.getCode()));
+        }
+    }
+
+    private AuthorizationResponses() {
+    }
+
+    static ResponseEntity<String> of(AuthorizationResult result) {
+        return RESPONSES.get(result);
+    }
+
+    private static HttpStatus statusOf(AuthorizationResult result) {
+        return switch (result) {
+            case APPROVED -> HttpStatus.CREATED;
+            case ERROR -> HttpStatus.INTERNAL_SERVER_ERROR;
+            default -> HttpStatus.UNPROCESSABLE_CONTENT;
+        };
+    }
+}
@@ -6,6 +6,7 @@ import com.roberto.mini_authorizer.infrastructure.persistence.mapper.CardMapper;
 import com.roberto.mini_authorizer.ports.in.CardServicePort;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.math.BigDecimal;
 @RestController
 @RequestMapping("/cartoes")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CardController {
 
     private final CardServicePort cardServicePort;
@@ -0,0 +1,36 @@
+package com.roberto.mini_authorizer.infrastructure.api.controllers;
+
+import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.CardRequest;
+import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.CardResponse;
+import com.roberto.mini_authorizer.infrastructure.persistence.mapper.CardMapper;
+import com.roberto.mini_authorizer.ports.in.ReactiveCardServicePort;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/cartoes")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardController {
+
+    private final ReactiveCardServicePort cardServicePort;
+
+    @PostMapping
+    public Mono<ResponseEntity<CardResponse>> create(@Valid @RequestBody CardRequest request) {
+        return cardServicePort.createCard(request.cardNumber(), request.password())
+                .map(card -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(CardMapper.toResponse(request.cardNumber(), request.password())));
+    }
+
+    @GetMapping("/{cardNumber}")
+    public Mono<ResponseEntity<BigDecimal>> getBalance(@PathVariable String cardNumber) {
+        return cardServicePort.getBalance(cardNumber).map(ResponseEntity::ok);
+    }
+}
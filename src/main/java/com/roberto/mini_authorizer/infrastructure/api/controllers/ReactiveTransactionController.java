@@ -0,0 +1,87 @@
+package com.roberto.mini_authorizer.infrastructure.api.controllers;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.TransactionRequest;
+import com.roberto.mini_authorizer.ports.in.BatchTransactionServicePort;
+import com.roberto.mini_authorizer.ports.in.IdempotentTransactionServicePort;
+import com.roberto.mini_authorizer.ports.in.ReactiveTransactionServicePort;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link TransactionController}. Plain authorizations are fully
+ * non-blocking; idempotent retries and batches still go through their JDBC services,
+ * which are called on the bounded elastic scheduler to keep the event loop free.
+ */
+@RestController
+@RequestMapping("/transacoes")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionServicePort transactionService;
+    private final IdempotentTransactionServicePort idempotentTransactionService;
+    private final BatchTransactionServicePort batchTransactionService;
+
+    @Value("${authorizer.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @PostMapping
+    public Mono<ResponseEntity<String>> authorize(
+            @RequestHeader(name = TransactionController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransactionRequest request,
+            Principal principal) {
+
+        Transaction transaction = new Transaction(
+                request.cardNumber(),
+                request.cardPassword(),
+                request.amountCents()
+        );
+
+        if (idempotencyKey == null) {
+            return transactionService.authorize(transaction).map(AuthorizationResponses::of);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > TransactionController.MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        String clientId = TransactionController.clientId(principal);
+        return Mono.fromCallable(() -> idempotentTransactionService.authorize(transaction, clientId, idempotencyKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(AuthorizationResponses::of);
+    }
+
+    @PostMapping("/lote")
+    public Mono<ResponseEntity<List<String>>> authorizeBatch(
+            @RequestBody List<@Valid TransactionRequest> requests) {
+
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        List<Transaction> transactions = requests.stream()
+                .map(request -> new Transaction(
+                        request.cardNumber(),
+                        request.cardPassword(),
+                        request.amountCents()
+                ))
+                .toList();
+
+        return Mono.fromCallable(() -> batchTransactionService.authorizeAll(transactions))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(results -> ResponseEntity.ok(results.stream()
+                        .map(AuthorizationResult::getCode)
+                        .toList()));
+    }
+}
@@ -1,33 +1,87 @@
 package com.roberto.mini_authorizer.infrastructure.api.controllers;
 
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.TransactionRequest;
 import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.BatchTransactionServicePort;
+import com.roberto.mini_authorizer.ports.in.IdempotentTransactionServicePort;
 import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.List;
+
 @RestController
 @RequestMapping("/transacoes")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final TransactionServicePort transactionService;
+    private final IdempotentTransactionServicePort idempotentTransactionService;
+    private final BatchTransactionServicePort batchTransactionService;
+
+    @Value("${authorizer.batch.max-size:500}")
+    private int maxBatchSize;
 
     @PostMapping
     public ResponseEntity<String> authorize(
-            @Valid @RequestBody TransactionRequest request) {
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransactionRequest request,
+            Principal principal) {
 
         Transaction transaction = new Transaction(
                 request.cardNumber(),
                 request.cardPassword(),
-                request.amount()
+                request.amountCents()
         );
 
-        transactionService.authorize(transaction);
+        if (idempotencyKey == null) {
+            return AuthorizationResponses.of(transactionService.authorize(transaction));
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return AuthorizationResponses.of(idempotentTransactionService.authorize(transaction, clientId(principal), idempotencyKey));
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<String>> authorizeBatch(
+            @RequestBody List<@Valid TransactionRequest> requests) {
+
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Transaction> transactions = requests.stream()
+                .map(request -> new Transaction(
+                        request.cardNumber(),
+                        request.cardPassword(),
+                        request.amountCents()
+                ))
+                .toList();
+
+        List<String> results = batchTransactionService.authorizeAll(transactions).stream()
+                .map(AuthorizationResult::getCode)
+                .toList();
+
+        return ResponseEntity.ok(results);
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body("OK");
+    /**
+     * The authenticated client an idempotency key belongs to.
+     */
+    static String clientId(Principal principal) {
+        return principal == null ? "" : principal.getName();
     }
 }
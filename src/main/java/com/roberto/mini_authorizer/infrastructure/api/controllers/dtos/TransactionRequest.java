@@ -1,6 +1,8 @@
 package com.roberto.mini_authorizer.infrastructure.api.controllers.dtos;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.roberto.mini_authorizer.domain.model.Money;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -20,7 +22,12 @@ public record TransactionRequest(
 
         @NotNull
         @DecimalMin("0.01")
+        @DecimalMax("99999999.99")
         @JsonProperty("valor")
         BigDecimal amount
 ) {
+
+    public long amountCents() {
+        return Money.toCents(amount);
+    }
 }
@@ -3,41 +3,56 @@ package com.roberto.mini_authorizer.infrastructure.api.exceptions;
 import com.roberto.mini_authorizer.domain.exceptions.*;
 import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.CardResponse;
 import com.roberto.mini_authorizer.infrastructure.persistence.mapper.CardMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog.Reason;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Maps exceptions to responses. Declines and failures are logged through
+ * {@link SampledRequestLog}, so a flood of them is counted rather than written line by line
+ * on the request thread.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private final SampledRequestLog requestLog;
+
+    public GlobalExceptionHandler(SampledRequestLog requestLog) {
+        this.requestLog = requestLog;
+    }
 
     @ExceptionHandler(CardAlreadyExistsException.class)
     public ResponseEntity<CardResponse> handleCardAlreadyExists(CardAlreadyExistsException ex) {
-        log.warn("Attempt to create duplicated card: {}", ex.getMessage());
+        requestLog.record(Reason.DUPLICATE_CARD, ex.getMessage());
 
         return ResponseEntity
-                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .status(HttpStatus.UNPROCESSABLE_CONTENT)
                 .body(CardMapper.toResponse(ex.getCardNumber(), ex.getPassword()));
     }
 
     @ExceptionHandler(CardNotFoundException.class)
     public ResponseEntity<Void> handleCardNotFound(CardNotFoundException ex) {
-        log.warn("Card not found: {}", ex.getMessage());
+        requestLog.record(Reason.CARD_NOT_FOUND, ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
     @ExceptionHandler(CardNotFoundForTransactionException.class)
     public ResponseEntity<String> handleCardNotFoundForTransaction(CardNotFoundForTransactionException ex) {
-        log.warn("Card not found for transaction: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+        requestLog.record(Reason.CARD_NOT_FOUND_FOR_TRANSACTION, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT)
                 .body(ex.getMessage());
     }
 
@@ -46,33 +61,93 @@ public class GlobalExceptionHandler {
             InvalidPasswordException.class
     })
     public ResponseEntity<String> handleTransactionRuleViolation(RuntimeException ex) {
-        log.info("Transaction denied: {}", ex.getMessage());
+        requestLog.record(Reason.TRANSACTION_DENIED, ex.getMessage());
 
         return ResponseEntity
-                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .status(HttpStatus.UNPROCESSABLE_CONTENT)
                 .body(ex.getMessage());
     }
 
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Void> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        requestLog.record(Reason.IDEMPOTENCY_KEY_IN_PROGRESS, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<String> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        requestLog.record(Reason.IDEMPOTENCY_KEY_MISMATCH, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> handleRateLimitExceeded(RateLimitExceededException ex) {
+        requestLog.record(Reason.RATE_LIMITED, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        requestLog.record(Reason.CONCURRENT_UPDATE, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleRejectedExecution(RejectedExecutionException ex) {
+        requestLog.record(Reason.CREDENTIAL_QUEUE_FULL, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationErrors(
             MethodArgumentNotValidException ex) {
 
+        return fieldErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleReactiveValidationErrors(
+            WebExchangeBindException ex) {
+
+        return fieldErrors(ex.getBindingResult());
+    }
+
+    private ResponseEntity<Map<String, String>> fieldErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
 
-        ex.getBindingResult()
+        bindingResult
                 .getFieldErrors()
                 .forEach(error ->
                         errors.put(error.getField(), error.getDefaultMessage())
                 );
 
-        log.warn("Validation error: {}", errors);
+        requestLog.record(Reason.VALIDATION_ERROR, errors);
+
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<Map<String, String>> handleMethodValidationErrors(
+            HandlerMethodValidationException ex) {
+
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getParameterValidationResults().stream()
+                .filter(ParameterErrors.class::isInstance)
+                .map(ParameterErrors.class::cast)
+                .forEach(result -> result.getFieldErrors().forEach(error ->
+                        errors.put("[" + result.getContainerIndex() + "]." + error.getField(),
+                                error.getDefaultMessage())
+                ));
+
+        requestLog.record(Reason.VALIDATION_ERROR, errors);
 
         return ResponseEntity.badRequest().body(errors);
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception ex) {
-        log.error("Unexpected error", ex);
+        requestLog.record(Reason.UNEXPECTED_ERROR, ex.getMessage(), ex);
 
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
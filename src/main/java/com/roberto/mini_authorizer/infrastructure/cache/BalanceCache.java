@@ -0,0 +1,51 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of card balances for the balance endpoint. A load runs inside the
+ * cache's per-key compute, and an invalidation of that key waits for it to finish, so a
+ * load that read the balance before a debit committed is always discarded by the
+ * invalidation that follows the commit. The TTL bounds staleness against writes made by
+ * other nodes, which this node never hears about.
+ */
+@Component
+public class BalanceCache implements BalanceCachePort {
+
+    private final Cache<String, BigDecimal> cache;
+
+    public BalanceCache(
+            @Value("${authorizer.balance-cache.maximum-size:100000}") long maximumSize,
+            @Value("${authorizer.balance-cache.ttl:PT10S}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "balances");
+    }
+
+    @Override
+    public Optional<BigDecimal> get(String cardNumber, Function<String, Optional<BigDecimal>> loader) {
+        return Optional.ofNullable(cache.get(cardNumber, key -> loader.apply(key).orElse(null)));
+    }
+
+    @Override
+    public void invalidate(String cardNumber) {
+        cache.invalidate(cardNumber);
+    }
+}
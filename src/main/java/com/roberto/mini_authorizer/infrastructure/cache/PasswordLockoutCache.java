@@ -0,0 +1,83 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Counts consecutive wrong passwords per card and locks a card out for a cool-down once
+ * it reaches {@code authorizer.password-lockout.max-failures}, so a brute-force attack
+ * stops costing a BCrypt check per guess. Only cards with recent failures are kept, at
+ * most {@code maximum-size} of them; an entry expires a cool-down after its last failure,
+ * which also ends a lockout. A correct password clears the card's failures.
+ */
+@Component
+public class PasswordLockoutCache implements PasswordLockoutPort {
+
+    private final Cache<String, Attempts> attempts;
+    private final Ticker ticker;
+    private final int maxFailures;
+    private final long coolDownNanos;
+    private final Counter lockouts;
+
+    @Autowired
+    public PasswordLockoutCache(
+            @Value("${authorizer.password-lockout.max-failures:5}") int maxFailures,
+            @Value("${authorizer.password-lockout.cool-down:PT15M}") Duration coolDown,
+            @Value("${authorizer.password-lockout.maximum-size:100000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+
+        this(maxFailures, coolDown, maximumSize, meterRegistry, Ticker.systemTicker());
+    }
+
+    PasswordLockoutCache(int maxFailures, Duration coolDown, long maximumSize, MeterRegistry meterRegistry,
+                         Ticker ticker) {
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(coolDown)
+                .ticker(ticker)
+                .build();
+        this.ticker = ticker;
+        this.maxFailures = Math.max(1, maxFailures);
+        this.coolDownNanos = coolDown.toNanos();
+        this.lockouts = Counter.builder("authorizer.password-lockout.lockouts")
+                .description("Cards locked out after too many consecutive wrong passwords")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isLockedOut(String cardNumber) {
+        Attempts current = attempts.getIfPresent(cardNumber);
+        return current != null && current.lockedUntilNanos() - ticker.read() > 0;
+    }
+
+    @Override
+    public void recordFailure(String cardNumber) {
+        attempts.asMap().compute(cardNumber, (key, current) -> {
+            int failures = current == null ? 1 : current.failures() + 1;
+            if (failures < maxFailures) {
+                return new Attempts(failures, current == null ? 0 : current.lockedUntilNanos());
+            }
+            lockouts.increment();
+            return new Attempts(0, ticker.read() + coolDownNanos);
+        });
+    }
+
+    @Override
+    public void reset(String cardNumber) {
+        if (attempts.getIfPresent(cardNumber) != null) {
+            attempts.invalidate(cardNumber);
+        }
+    }
+
+    private record Attempts(int failures, long lockedUntilNanos) {
+    }
+}
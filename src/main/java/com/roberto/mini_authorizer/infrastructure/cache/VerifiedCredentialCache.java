@@ -0,0 +1,119 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Remembers successful password verifications so repeated authorizations for the
+ * same card can skip BCrypt. Only an HMAC of the raw password is kept, never the
+ * plaintext, and an entry is discarded as soon as the card's stored hash differs
+ * from the one it was verified against.
+ */
+@Component
+public class VerifiedCredentialCache implements CredentialCachePort {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, VerifiedCredential> cache;
+    private final SecretKeySpec hmacKey;
+    private final Mac prototype;
+    private final ThreadLocal<Mac> macs;
+
+    public VerifiedCredentialCache(
+            @Value("${authorizer.credential-cache.maximum-size:100000}") long maximumSize,
+            @Value("${authorizer.credential-cache.ttl:PT5M}") Duration ttl,
+            @Value("${authorizer.credential-cache.hmac-secret:}") String hmacSecret,
+            MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.hmacKey = new SecretKeySpec(resolveSecret(hmacSecret), HMAC_ALGORITHM);
+        this.prototype = newMac();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-credentials");
+    }
+
+    @Override
+    public boolean isVerified(String principal, String rawPassword, String encodedPassword) {
+        VerifiedCredential entry = cache.getIfPresent(principal);
+
+        if (entry == null) {
+            return false;
+        }
+
+        if (!entry.encodedPassword().equals(encodedPassword)) {
+            cache.invalidate(principal);
+            return false;
+        }
+
+        return MessageDigest.isEqual(entry.digest(), digest(principal, rawPassword));
+    }
+
+    @Override
+    public void markVerified(String principal, String rawPassword, String encodedPassword) {
+        cache.put(principal, new VerifiedCredential(digest(principal, rawPassword), encodedPassword));
+    }
+
+    @Override
+    public void invalidate(String principal) {
+        cache.invalidate(principal);
+    }
+
+    private byte[] digest(String principal, String rawPassword) {
+        Mac mac = Thread.currentThread().isVirtual() ? copyOfPrototype() : macs.get();
+        mac.update(principal.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Virtual threads live for a single request, so a thread-local {@link Mac} would be
+     * looked up and keyed again on every call; cloning the keyed prototype is cheaper.
+     */
+    private Mac copyOfPrototype() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            return newMac();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC algorithm unavailable: " + HMAC_ALGORITHM, ex);
+        }
+    }
+
+    private static byte[] resolveSecret(String configured) {
+        if (!configured.isBlank()) {
+            return configured.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    private record VerifiedCredential(byte[] digest, String encodedPassword) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.roberto.mini_authorizer.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Beans of the reactive stack, active when the application runs as a WebFlux server
+ * ({@code spring.main.web-application-type=reactive}, set by the {@code reactive} profile).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    public static final String CREDENTIAL_SCHEDULER = "credentialScheduler";
+
+    /**
+     * Runs password hashing and verification off the event loop. BCrypt is CPU bound, so
+     * the pool defaults to one thread per core; the bounded queue turns overload into
+     * rejected requests instead of unbounded latency.
+     */
+    @Bean(name = CREDENTIAL_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler credentialScheduler(
+            @Value("${authorizer.reactive.credential-threads:0}") int threads,
+            @Value("${authorizer.reactive.credential-queue:10000}") int queuedTasks) {
+
+        return Schedulers.newBoundedElastic(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queuedTasks,
+                "credentials");
+    }
+}
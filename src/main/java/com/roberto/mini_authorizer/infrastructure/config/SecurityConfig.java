@@ -1,7 +1,18 @@
 package com.roberto.mini_authorizer.infrastructure.config;
 
+import com.roberto.mini_authorizer.application.ratelimit.TokenBucketTable;
+import com.roberto.mini_authorizer.infrastructure.security.ApiClientProperties;
+import com.roberto.mini_authorizer.infrastructure.security.CachingBasicAuthenticationProvider;
+import com.roberto.mini_authorizer.infrastructure.security.ClientRateLimitFilter;
+import com.roberto.mini_authorizer.infrastructure.security.HmacAuthenticationFilter;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -12,23 +23,48 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Clock;
 
 @Configuration
+@EnableConfigurationProperties(ApiClientProperties.class)
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ApiClientProperties apiClients,
+                                                   UserDetailsService userDetailsService,
+                                                   PasswordEncoder passwordEncoder,
+                                                   CredentialCachePort credentialCache,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${authorizer.rate-limit.enabled:false}") boolean rateLimited,
+                                                   @Value("${authorizer.rate-limit.client.per-second:5000}") double clientPerSecond,
+                                                   @Value("${authorizer.rate-limit.client.burst:10000}") int clientBurst,
+                                                   @Value("${authorizer.rate-limit.client.table-size:1024}") int clientTableSize)
+            throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(new HmacAuthenticationFilter(apiClients, Clock.systemUTC(), meterRegistry),
+                        BasicAuthenticationFilter.class)
+                .authenticationManager(new ProviderManager(
+                        new CachingBasicAuthenticationProvider(userDetailsService, passwordEncoder, credentialCache)))
                 .httpBasic(Customizer.withDefaults());
 
+        if (rateLimited) {
+            http.addFilterAfter(new ClientRateLimitFilter(
+                            new TokenBucketTable(clientTableSize, clientPerSecond, clientBurst), meterRegistry),
+                    BasicAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
         UserDetails user = User.builder()
                 .username("username")
@@ -0,0 +1,317 @@
+package com.roberto.mini_authorizer.infrastructure.journal;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One append-only log per shard, split into segments named
+ * {@code shard-<n>-<segment>.journal}, each entry framed by its length and a CRC32C of its
+ * bytes. A batch of entries is written with one call and, unless
+ * {@code authorizer.debit.sharded.fsync} is off, forced to disk with one fsync before
+ * {@link #append} returns. A failed append truncates the segment back to its last complete
+ * entry; a crash mid-write leaves a torn last entry, which the checksum rejects on replay.
+ * A segment is sealed once it reaches {@code authorizer.debit.sharded.journal-segment-size}
+ * and deleted once the engine has persisted the balances it holds.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.debit", name = "mode", havingValue = "sharded")
+public class FileDebitJournal implements DebitJournalPort {
+
+    private static final String LOG_GLOB = "shard-*.journal";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_ENTRY_BYTES = 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long segmentBytes;
+    private final Map<Integer, ShardLog> logs = new ConcurrentHashMap<>();
+
+    public FileDebitJournal(
+            @Value("${authorizer.debit.sharded.journal-dir:journal}") Path directory,
+            @Value("${authorizer.debit.sharded.fsync:true}") boolean fsync,
+            @Value("${authorizer.debit.sharded.journal-segment-size:4MB}") DataSize segmentSize) {
+
+        this.directory = directory;
+        this.fsync = fsync;
+        this.segmentBytes = Math.max(1, segmentSize.toBytes());
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create the debit journal directory " + directory, ex);
+        }
+    }
+
+    @Override
+    public void append(int shard, List<Entry> entries) {
+        logs.computeIfAbsent(shard, ShardLog::new).append(encode(entries));
+    }
+
+    @Override
+    public long seal(int shard) {
+        return logs.computeIfAbsent(shard, ShardLog::new).seal();
+    }
+
+    @Override
+    public void discard(int shard, long mark) {
+        logs.computeIfAbsent(shard, ShardLog::new).discard(mark);
+    }
+
+    @Override
+    public void replay(Consumer<Entry> consumer) {
+        for (Path file : files()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                replay(file, input, consumer);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not replay the debit journal " + file, ex);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        close();
+        for (Path file : files()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not delete the debit journal " + file, ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        logs.values().forEach(ShardLog::close);
+        logs.clear();
+    }
+
+    private static void replay(Path file, DataInputStream input, Consumer<Entry> consumer) throws IOException {
+        while (true) {
+            int length;
+            try {
+                length = input.readInt();
+            } catch (EOFException end) {
+                return;
+            }
+
+            if (length <= 0 || length > MAX_ENTRY_BYTES) {
+                log.warn("Debit journal {} has an entry of invalid length {}, ignoring the rest", file, length);
+                return;
+            }
+
+            byte[] payload = new byte[length];
+            int checksum;
+            try {
+                checksum = input.readInt();
+                input.readFully(payload);
+            } catch (EOFException torn) {
+                log.warn("Debit journal {} ends with an incomplete entry, ignoring it", file);
+                return;
+            }
+
+            if (checksum != checksum(payload)) {
+                log.warn("Debit journal {} has an entry with a bad checksum, ignoring the rest", file);
+                return;
+            }
+            consumer.accept(decode(ByteBuffer.wrap(payload)));
+        }
+    }
+
+    /**
+     * Every segment in the directory, in replay order: by shard, then by segment. Logs
+     * written before segments existed, {@code shard-<n>.journal}, come first in their shard.
+     */
+    private List<Path> files() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, LOG_GLOB)) {
+            stream.forEach(files::add);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list the debit journals in " + directory, ex);
+        }
+        files.sort(Comparator.comparingLong((Path file) -> position(file, 0))
+                .thenComparingLong(file -> position(file, 1))
+                .thenComparing(Comparator.naturalOrder()));
+        return files;
+    }
+
+    private static long position(Path file, int part) {
+        String name = file.getFileName().toString();
+        String[] parts = name.substring("shard-".length(), name.length() - ".journal".length()).split("-");
+        try {
+            return part < parts.length ? Long.parseLong(parts[part]) : -1;
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static ByteBuffer encode(List<Entry> entries) {
+        List<byte[]> payloads = new ArrayList<>(entries.size());
+        int size = 0;
+        for (Entry entry : entries) {
+            byte[] payload = payload(entry);
+            payloads.add(payload);
+            size += HEADER_BYTES + payload.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] payload : payloads) {
+            buffer.putInt(payload.length).putInt(checksum(payload)).put(payload);
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] payload(Entry entry) {
+        byte[] cardNumber = entry.cardNumber().getBytes(StandardCharsets.UTF_8);
+        byte[] result = entry.result().getCode().getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(Short.BYTES + cardNumber.length + Long.BYTES + Short.BYTES + result.length + Long.BYTES)
+                .putShort((short) cardNumber.length).put(cardNumber)
+                .putLong(entry.amountCents())
+                .putShort((short) result.length).put(result)
+                .putLong(entry.balanceCents())
+                .array();
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        String cardNumber = string(payload);
+        long amountCents = payload.getLong();
+        AuthorizationResult result = AuthorizationResult.fromCode(string(payload));
+        long balanceCents = payload.getLong();
+        return new Entry(cardNumber, amountCents, result, balanceCents);
+    }
+
+    private static String string(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The segments of one shard. Appends come from the shard's thread and sealing from the
+     * persister, so both hold the lock; discarding only touches closed segments.
+     */
+    private final class ShardLog {
+
+        private final int shard;
+        private FileChannel channel;
+        private long segment;
+        private long size;
+        private long oldest;
+
+        private ShardLog(int shard) {
+            this.shard = shard;
+        }
+
+        synchronized void append(ByteBuffer buffer) {
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(file(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                size += buffer.limit();
+            } catch (IOException ex) {
+                discardTail(ex);
+                throw new UncheckedIOException("Could not append to the debit journal of shard " + shard, ex);
+            }
+        }
+
+        /**
+         * Cuts the segment back to its last complete entry, so that nothing of a failed
+         * batch, written or not forced, can be replayed. A segment that cannot be cut is
+         * sealed instead, its torn tail then ending its own replay and not the next one's.
+         */
+        private void discardTail(IOException failure) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.truncate(size);
+                if (fsync) {
+                    channel.force(false);
+                }
+            } catch (IOException ex) {
+                failure.addSuppressed(ex);
+                log.error("Could not truncate the debit journal of shard {}, starting a new segment", shard, ex);
+                closeSegment();
+            }
+        }
+
+        synchronized long seal() {
+            if (size >= segmentBytes) {
+                closeSegment();
+            }
+            return segment - 1;
+        }
+
+        void discard(long mark) {
+            for (; oldest <= mark; oldest++) {
+                try {
+                    Files.deleteIfExists(file(oldest));
+                } catch (IOException ex) {
+                    log.warn("Could not delete the debit journal {}, retrying on the next checkpoint", file(oldest), ex);
+                    return;
+                }
+            }
+        }
+
+        synchronized void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    log.warn("Could not close the debit journal of shard {}", shard, ex);
+                }
+                channel = null;
+            }
+        }
+
+        private void closeSegment() {
+            close();
+            segment++;
+            size = 0;
+        }
+
+        private Path file(long segment) {
+            return directory.resolve("shard-" + shard + "-" + segment + ".journal");
+        }
+    }
+}
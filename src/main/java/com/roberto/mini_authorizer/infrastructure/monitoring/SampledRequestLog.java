@@ -0,0 +1,155 @@
+package com.roberto.mini_authorizer.infrastructure.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs declined and failed requests off the request thread. Each reason logs at most
+ * {@code authorizer.request-log.samples-per-interval} requests per interval; the rest are
+ * only counted, and every interval one line per reason reports how many there were, e.g.
+ * {@code 1532 x Transaction denied in the last 1000 ms (5 logged)}.
+ *
+ * <p>Request threads only bump counters and offer sampled lines to a bounded queue that
+ * the scheduler thread writes out. When the queue is full the line is dropped and counted,
+ * so a card-testing attack costs a few atomic increments per request, never a blocked
+ * thread or a disk write.
+ */
+@Component
+public class SampledRequestLog {
+
+    /**
+     * Why a request was declined or failed, with the message and level it is logged at.
+     */
+    public enum Reason {
+        DUPLICATE_CARD(Level.WARN, "Attempt to create duplicated card"),
+        CARD_NOT_FOUND(Level.WARN, "Card not found"),
+        CARD_NOT_FOUND_FOR_TRANSACTION(Level.WARN, "Card not found for transaction"),
+        TRANSACTION_DENIED(Level.INFO, "Transaction denied"),
+        IDEMPOTENCY_KEY_IN_PROGRESS(Level.WARN, "Rejected retry of unfinished transaction"),
+        IDEMPOTENCY_KEY_MISMATCH(Level.WARN, "Rejected idempotency key reused for a different request"),
+        CONCURRENT_UPDATE(Level.WARN, "Transaction not applied after concurrent updates"),
+        CREDENTIAL_QUEUE_FULL(Level.WARN, "Request rejected, credential queue is full"),
+        RATE_LIMITED(Level.INFO, "Transaction refused, card over its rate limit"),
+        VALIDATION_ERROR(Level.WARN, "Validation error"),
+        UNEXPECTED_ERROR(Level.ERROR, "Unexpected error");
+
+        private final Level level;
+        private final String message;
+
+        Reason(Level level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+    }
+
+    private static final Reason[] REASONS = Reason.values();
+
+    private final Logger log;
+    private final int samplesPerInterval;
+    private final BlockingQueue<Sample> samples;
+    private final LongAdder[] occurrences = new LongAdder[REASONS.length];
+    private final AtomicIntegerArray sampled = new AtomicIntegerArray(REASONS.length);
+    private final Counter dropped;
+    private long intervalStart = System.nanoTime();
+
+    @Autowired
+    public SampledRequestLog(
+            @Value("${authorizer.request-log.samples-per-interval:5}") int samplesPerInterval,
+            @Value("${authorizer.request-log.buffer-size:1024}") int bufferSize,
+            MeterRegistry meterRegistry) {
+
+        this(samplesPerInterval, bufferSize, meterRegistry, LoggerFactory.getLogger(SampledRequestLog.class));
+    }
+
+    SampledRequestLog(int samplesPerInterval, int bufferSize, MeterRegistry meterRegistry, Logger log) {
+        this.log = log;
+        this.samplesPerInterval = samplesPerInterval;
+        this.samples = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        for (int i = 0; i < occurrences.length; i++) {
+            occurrences[i] = new LongAdder();
+        }
+        this.dropped = Counter.builder("authorizer.request-log.dropped")
+                .description("Sampled request log lines dropped because the log buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a declined or failed request and, if it is within its reason's sample budget,
+     * queues it to be logged with {@code detail}, formatted later on the logging thread.
+     */
+    public void record(Reason reason, Object detail) {
+        record(reason, detail, null);
+    }
+
+    public void record(Reason reason, Object detail, Throwable error) {
+        int index = reason.ordinal();
+        occurrences[index].increment();
+        if (sampled.get(index) >= samplesPerInterval || sampled.getAndIncrement(index) >= samplesPerInterval) {
+            return;
+        }
+        if (!samples.offer(new Sample(reason, detail, error))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes the queued samples and, for every reason that had more requests than it
+     * logged, how many it had since the previous flush.
+     */
+    @Scheduled(fixedRateString = "${authorizer.request-log.interval:PT1S}")
+    public synchronized void flush() {
+        List<Sample> pending = new ArrayList<>(samples.size());
+        samples.drainTo(pending);
+        int[] logged = new int[REASONS.length];
+        for (Sample sample : pending) {
+            logged[sample.reason().ordinal()]++;
+            write(sample.reason().level, "{}: {}", sample.reason().message, sample.detail(), sample.error());
+        }
+
+        long now = System.nanoTime();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - intervalStart);
+        intervalStart = now;
+        for (Reason reason : REASONS) {
+            int index = reason.ordinal();
+            sampled.set(index, 0);
+            long count = occurrences[index].sumThenReset();
+            if (count > logged[index]) {
+                write(reason.level, "{} x {} in the last {} ms ({} logged)",
+                        count, reason.message, elapsedMillis, logged[index]);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void write(Level level, String format, Object... arguments) {
+        switch (level) {
+            case ERROR -> log.error(format, arguments);
+            case WARN -> log.warn(format, arguments);
+            case INFO -> log.info(format, arguments);
+            default -> log.debug(format, arguments);
+        }
+    }
+
+    private record Sample(Reason reason, Object detail, Throwable error) {
+    }
+}
@@ -4,18 +4,39 @@ import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpa
 import com.roberto.mini_authorizer.infrastructure.persistence.entity.CardEntity;
 import com.roberto.mini_authorizer.infrastructure.persistence.mapper.CardMapper;
 import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Money;
+import com.roberto.mini_authorizer.domain.model.Transaction;
 import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class CardRepositoryAdapter implements CardRepositoryPort {
 
+    private static final String DEBIT_IF_SUFFICIENT_BALANCE = """
+            UPDATE cards
+               SET balance = balance - ?, version = version + 1, updated_at = ?
+             WHERE card_number = ? AND balance >= ?
+            """;
+
+    private static final String UPDATE_BALANCE = """
+            UPDATE cards
+               SET balance = ?, version = version + 1, updated_at = ?
+             WHERE card_number = ?
+            """;
+
     private final CardJpaRepository jpaRepository;
     private final CardMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Card save(Card card) {
@@ -36,8 +57,68 @@ public class CardRepositoryAdapter implements CardRepositoryPort {
                 .map(mapper::toDomain);
     }
 
+    @Override
+    public Optional<BigDecimal> findBalanceByCardNumber(String cardNumber) {
+        return jpaRepository.findBalanceByCardNumber(cardNumber);
+    }
+
     @Override
     public boolean existsByCardNumber(String cardNumber) {
         return jpaRepository.existsByCardNumber(cardNumber);
     }
+
+    @Override
+    public boolean tryDebit(String cardNumber, long amountCents) {
+        return jpaRepository.debitIfSufficientBalance(
+                cardNumber, Money.fromCents(amountCents), LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean[] tryDebitAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new boolean[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                DEBIT_IF_SUFFICIENT_BALANCE,
+                transactions,
+                transactions.size(),
+                (statement, transaction) -> {
+                    BigDecimal amount = transaction.getAmount();
+                    statement.setBigDecimal(1, amount);
+                    statement.setTimestamp(2, now);
+                    statement.setString(3, transaction.getCardNumber());
+                    statement.setBigDecimal(4, amount);
+                });
+
+        boolean[] debited = new boolean[transactions.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                debited[i++] = count == 1;
+            }
+        }
+        return debited;
+    }
+
+    @Override
+    public void updateBalances(Map<String, Long> balancesCents) {
+        if (balancesCents.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(
+                UPDATE_BALANCE,
+                List.copyOf(balancesCents.entrySet()),
+                balancesCents.size(),
+                (statement, balance) -> {
+                    statement.setBigDecimal(1, Money.fromCents(balance.getValue()));
+                    statement.setTimestamp(2, now);
+                    statement.setString(3, balance.getKey());
+                });
+    }
 }
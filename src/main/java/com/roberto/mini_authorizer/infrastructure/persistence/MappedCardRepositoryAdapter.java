@@ -0,0 +1,394 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.domain.model.Money;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cards in a memory-mapped file of fixed 128-byte records, for terminals that keep their
+ * cards out of the database. Only the cards move: JPA, the DataSource and the idempotency
+ * table are still required. The file is an open-addressed hash table keyed by the card number
+ * packed into a long, so opening it is a single {@code mmap} and a lookup is a few
+ * probes; records are never removed, so an empty slot ends a probe.
+ *
+ * <p>Each record carries a sequence that is twice the card version and odd while the
+ * record is being written. Writers claim a record by a CAS from an even sequence to the
+ * next odd one, which also makes {@link #save} fail on a stale version like the JPA
+ * adapter does; readers retry until they see the same even sequence before and after
+ * reading. There are no row locks: {@link #findByCardNumberWithLock} is a plain read,
+ * and conflicting saves are caught by the version. Waiting for a writer gives up after
+ * {@code authorizer.card-store.mapped.lock-timeout}.
+ *
+ * <p>Without row locks, a debit mode that reads a card "for update" and saves it would
+ * fail on the version whenever two requests debit the same card. So only the modes that
+ * never do that concurrently are accepted, and any other mode fails startup: pessimistic
+ * (serialized by the {@code CardLocks} stripes, which must stay enabled), optimistic (which
+ * retries on the version), conditional and group-commit (a CAS on the record). Combining
+ * and sharded are rejected.
+ *
+ * <p>The file belongs to one process. The header records whether it was closed cleanly;
+ * if not, a writer may have died between claiming and releasing a record, so opening it
+ * moves every odd sequence on to the next even one.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "authorizer.card-store", name = "type", havingValue = "mapped")
+public class MappedCardRepositoryAdapter implements CardRepositoryPort {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final long MAGIC = 0x4D41_4341_5244_5331L;
+    private static final int RECORD_BYTES = 128;
+    private static final int MAX_CAPACITY = 1 << 23;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_STATE = 16;
+    private static final int HEADER_SIZE = 24;
+    private static final long CLOSED_CLEANLY = 0x434C_4F53_4544_2121L;
+    private static final long OPEN = 0;
+
+    private static final int ID = 0;
+    private static final int CARD_NUMBER = 8;
+    private static final int BALANCE = 16;
+    private static final int SEQUENCE = 24;
+    private static final int PASSWORD_LENGTH = 32;
+    private static final int PASSWORD = 34;
+    private static final int MAX_PASSWORD_BYTES = RECORD_BYTES - PASSWORD;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean sync;
+    private final long lockTimeoutNanos;
+    private final ReentrantLock inserts = new ReentrantLock();
+
+    public MappedCardRepositoryAdapter(
+            @Value("${authorizer.card-store.mapped.path:cards.dat}") Path path,
+            @Value("${authorizer.card-store.mapped.capacity:1048576}") int capacity,
+            @Value("${authorizer.card-store.mapped.sync:false}") boolean sync,
+            @Value("${authorizer.card-store.mapped.lock-timeout:PT1S}") Duration lockTimeout,
+            @Value("${authorizer.debit.mode:pessimistic}") String debitMode,
+            @Value("${authorizer.card-locks.enabled:true}") boolean cardLocks) {
+
+        requireSupportedDebitMode(debitMode, cardLocks);
+        if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Card store capacity must be a power of two up to " + MAX_CAPACITY);
+        }
+
+        boolean created;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            created = channel.size() == 0;
+            int mapped = created ? capacity : existingCapacity(channel, path);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, RECORD_BYTES + (long) mapped * RECORD_BYTES);
+            this.capacity = mapped;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not map the card store " + path, ex);
+        }
+        this.sync = sync;
+        this.lockTimeoutNanos = lockTimeout.toNanos();
+
+        buffer.order(ByteOrder.nativeOrder());
+        if (!created && buffer.getLong(HEADER_STATE) != CLOSED_CLEANLY) {
+            recover(path);
+        }
+        buffer.putLong(HEADER_CAPACITY, this.capacity);
+        buffer.putLong(HEADER_MAGIC, MAGIC);
+        buffer.putLong(HEADER_STATE, OPEN);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    private static void requireSupportedDebitMode(String debitMode, boolean cardLocks) {
+        boolean supported = switch (debitMode) {
+            case "pessimistic" -> cardLocks;
+            case "optimistic", "conditional", "group-commit" -> true;
+            default -> false;
+        };
+        if (!supported) {
+            throw new IllegalArgumentException("The mapped card store has no row locks and does not support "
+                    + "authorizer.debit.mode=" + debitMode + (cardLocks ? "" : " with authorizer.card-locks.enabled=false")
+                    + "; use pessimistic, optimistic, conditional or group-commit");
+        }
+    }
+
+    @Override
+    public Card save(Card card) {
+        long cardNumber = CardNumber.pack(card.getCardNumber());
+        if (cardNumber < 0) {
+            throw new IllegalArgumentException("The card store only holds 16-digit card numbers");
+        }
+
+        byte[] password = card.getPassword().getBytes(StandardCharsets.UTF_8);
+        if (password.length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("Password hash longer than " + MAX_PASSWORD_BYTES + " bytes");
+        }
+
+        return card.getId() == null
+                ? insert(cardNumber, card, password)
+                : update(cardNumber, card, password);
+    }
+
+    @Override
+    public Optional<Card> findByCardNumber(String cardNumber) {
+        int slot = find(CardNumber.pack(cardNumber));
+        return slot < 0 ? Optional.empty() : Optional.of(read(slot));
+    }
+
+    @Override
+    public Optional<Card> findByCardNumberWithLock(String cardNumber) {
+        return findByCardNumber(cardNumber);
+    }
+
+    @Override
+    public Optional<BigDecimal> findBalanceByCardNumber(String cardNumber) {
+        return findByCardNumber(cardNumber).map(Card::getBalance);
+    }
+
+    @Override
+    public boolean existsByCardNumber(String cardNumber) {
+        return find(CardNumber.pack(cardNumber)) >= 0;
+    }
+
+    @Override
+    public boolean tryDebit(String cardNumber, long amountCents) {
+        int slot = find(CardNumber.pack(cardNumber));
+        if (slot < 0) {
+            return false;
+        }
+
+        int base = base(slot);
+        long sequence = claim(base);
+        long balance = buffer.getLong(base + BALANCE);
+        if (balance < amountCents) {
+            release(base, sequence);
+            return false;
+        }
+
+        buffer.putLong(base + BALANCE, balance - amountCents);
+        release(base, sequence + 2);
+        return true;
+    }
+
+    /**
+     * Debits one by one; there is no enclosing transaction to roll them back together.
+     */
+    @Override
+    public boolean[] tryDebitAll(List<Transaction> transactions) {
+        boolean[] debited = new boolean[transactions.size()];
+        for (int i = 0; i < debited.length; i++) {
+            Transaction transaction = transactions.get(i);
+            debited[i] = tryDebit(transaction.getCardNumber(), transaction.getAmountCents());
+        }
+        return debited;
+    }
+
+    @Override
+    public void updateBalances(Map<String, Long> balancesCents) {
+        balancesCents.forEach((cardNumber, balance) -> {
+            int slot = find(CardNumber.pack(cardNumber));
+            if (slot >= 0) {
+                int base = base(slot);
+                long sequence = claim(base);
+                buffer.putLong(base + BALANCE, balance);
+                release(base, sequence + 2);
+            }
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        buffer.force();
+        buffer.putLong(HEADER_STATE, CLOSED_CLEANLY);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Releases the records left claimed by a process that died mid-write. Each keeps what
+     * the interrupted writer had put in it; the balance is a single aligned write, so it is
+     * either the old or the new one.
+     */
+    private void recover(Path path) {
+        int released = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = base(slot);
+            long sequence = buffer.getLong(base + SEQUENCE);
+            if (buffer.getLong(base + ID) != 0 && (sequence & 1) != 0) {
+                buffer.putLong(base + SEQUENCE, sequence + 1);
+                released++;
+            }
+        }
+        if (released > 0) {
+            buffer.force();
+            log.warn("Card store {} was not closed cleanly, released {} records left mid-write", path, released);
+        }
+    }
+
+    private Card insert(long cardNumber, Card card, byte[] password) {
+        inserts.lock();
+        try {
+            int mask = capacity - 1;
+            int slot = CardNumber.hash(cardNumber) & mask;
+            for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+                int base = base(slot);
+                if ((long) LONGS.getAcquire(buffer, base + ID) == 0) {
+                    buffer.putLong(base + CARD_NUMBER, cardNumber);
+                    buffer.putLong(base + BALANCE, card.getBalanceCents());
+                    buffer.putLong(base + SEQUENCE, 0L);
+                    buffer.putShort(base + PASSWORD_LENGTH, (short) password.length);
+                    buffer.put(base + PASSWORD, password);
+                    LONGS.setRelease(buffer, base + ID, slot + 1L);
+                    flush(base);
+                    return read(slot);
+                }
+                if (buffer.getLong(base + CARD_NUMBER) == cardNumber) {
+                    throw new DataIntegrityViolationException("Card " + card.getCardNumber() + " already exists");
+                }
+            }
+        } finally {
+            inserts.unlock();
+        }
+        throw new DataAccessResourceFailureException("The card store is full (" + capacity + " cards)");
+    }
+
+    private Card update(long cardNumber, Card card, byte[] password) {
+        int slot = find(cardNumber);
+        if (slot < 0) {
+            throw new OptimisticLockingFailureException("Card " + card.getCardNumber() + " no longer exists");
+        }
+
+        int base = base(slot);
+        long expected = card.getVersion() * 2;
+        if (!LONGS.compareAndSet(buffer, base + SEQUENCE, expected, expected + 1)) {
+            throw new OptimisticLockingFailureException("Card " + card.getCardNumber() + " was updated concurrently");
+        }
+
+        buffer.putLong(base + BALANCE, card.getBalanceCents());
+        buffer.putShort(base + PASSWORD_LENGTH, (short) password.length);
+        buffer.put(base + PASSWORD, password);
+        release(base, expected + 2);
+        return read(slot);
+    }
+
+    private int find(long cardNumber) {
+        if (cardNumber < 0) {
+            return -1;
+        }
+
+        int mask = capacity - 1;
+        int slot = CardNumber.hash(cardNumber) & mask;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            int base = base(slot);
+            if ((long) LONGS.getAcquire(buffer, base + ID) == 0) {
+                return -1;
+            }
+            if (buffer.getLong(base + CARD_NUMBER) == cardNumber) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private Card read(int slot) {
+        int base = base(slot);
+        long waitingSince = 0;
+        while (true) {
+            long sequence = (long) LONGS.getAcquire(buffer, base + SEQUENCE);
+            if ((sequence & 1) == 0) {
+                long balance = buffer.getLong(base + BALANCE);
+                byte[] password = new byte[buffer.getShort(base + PASSWORD_LENGTH)];
+                buffer.get(base + PASSWORD, password);
+
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getVolatile(buffer, base + SEQUENCE) == sequence) {
+                    return new Card(
+                            slot + 1L,
+                            CardNumber.unpack(buffer.getLong(base + CARD_NUMBER)),
+                            new String(password, StandardCharsets.UTF_8),
+                            Money.fromCents(balance),
+                            sequence >>> 1);
+                }
+            }
+            waitingSince = waitForWriter(slot, waitingSince);
+        }
+    }
+
+    private long claim(int base) {
+        long waitingSince = 0;
+        while (true) {
+            long sequence = (long) LONGS.getAcquire(buffer, base + SEQUENCE);
+            if ((sequence & 1) == 0 && LONGS.compareAndSet(buffer, base + SEQUENCE, sequence, sequence + 1)) {
+                return sequence;
+            }
+            waitingSince = waitForWriter(base / RECORD_BYTES - 1, waitingSince);
+        }
+    }
+
+    /**
+     * Spins once more on a record being written, unless the wait that started at
+     * {@code waitingSince} (0 on the first spin) has passed the lock timeout.
+     */
+    private long waitForWriter(int slot, long waitingSince) {
+        long now = System.nanoTime();
+        if (waitingSince != 0 && now - waitingSince > lockTimeoutNanos) {
+            throw new CannotAcquireLockException("Card store record " + slot + " is still being written after "
+                    + Duration.ofNanos(lockTimeoutNanos));
+        }
+        Thread.onSpinWait();
+        return waitingSince == 0 ? now : waitingSince;
+    }
+
+    private void release(int base, long sequence) {
+        LONGS.setRelease(buffer, base + SEQUENCE, sequence);
+        flush(base);
+    }
+
+    private void flush(int base) {
+        if (sync) {
+            buffer.force(base, RECORD_BYTES);
+        }
+    }
+
+    private static int base(int slot) {
+        return RECORD_BYTES + slot * RECORD_BYTES;
+    }
+
+    private static int existingCapacity(FileChannel channel, Path path) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        header.order(ByteOrder.nativeOrder());
+        if (header.getLong(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalStateException(path + " is not a card store");
+        }
+        return (int) header.getLong(HEADER_CAPACITY);
+    }
+}
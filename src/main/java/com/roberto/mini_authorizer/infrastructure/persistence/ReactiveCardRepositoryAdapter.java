@@ -0,0 +1,85 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Money;
+import com.roberto.mini_authorizer.ports.out.ReactiveCardRepositoryPort;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking access to the same {@code cards} table the JPA adapter maps. Debits use
+ * the conditional UPDATE of the conditional mode, so no row is read under lock.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardRepositoryAdapter implements ReactiveCardRepositoryPort {
+
+    private static final String FIND_BY_CARD_NUMBER = """
+            SELECT id, card_number, password, balance, version
+              FROM cards
+             WHERE card_number = :cardNumber
+            """;
+
+    private static final String INSERT = """
+            INSERT INTO cards (card_number, password, balance, version, created_at, updated_at)
+            VALUES (:cardNumber, :password, :balance, 0, :now, :now)
+            """;
+
+    private static final String DEBIT_IF_SUFFICIENT_BALANCE = """
+            UPDATE cards
+               SET balance = balance - :amount, version = version + 1, updated_at = :now
+             WHERE card_number = :cardNumber AND balance >= :amount
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Card> save(Card card) {
+        return databaseClient.sql(INSERT)
+                .bind("cardNumber", card.getCardNumber())
+                .bind("password", card.getPassword())
+                .bind("balance", card.getBalance())
+                .bind("now", LocalDateTime.now())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> new Card(id, card.getCardNumber(), card.getPassword(), card.getBalance()));
+    }
+
+    @Override
+    public Mono<Card> findByCardNumber(String cardNumber) {
+        return databaseClient.sql(FIND_BY_CARD_NUMBER)
+                .bind("cardNumber", cardNumber)
+                .map(ReactiveCardRepositoryAdapter::toDomain)
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> tryDebit(String cardNumber, long amountCents) {
+        return databaseClient.sql(DEBIT_IF_SUFFICIENT_BALANCE)
+                .bind("amount", Money.fromCents(amountCents))
+                .bind("now", LocalDateTime.now())
+                .bind("cardNumber", cardNumber)
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated == 1);
+    }
+
+    private static Card toDomain(Readable row) {
+        return new Card(
+                row.get("id", Long.class),
+                row.get("card_number", String.class),
+                row.get("password", String.class),
+                row.get("balance", BigDecimal.class),
+                row.get("version", Long.class)
+        );
+    }
+}
@@ -0,0 +1,141 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roberto.mini_authorizer.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.IdempotencyKeyJpaRepository;
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency store in two tiers: finished results are served from an in-memory TTL
+ * cache, and the {@code idempotency_keys} table is the durable record. Claims rely on
+ * the table's primary key, so only one request can ever reserve a given key.
+ *
+ * <p>A result that cannot be written to the table is kept in memory and written by
+ * {@link #retryUnsavedResults()}, so a key whose transaction already ran is never left
+ * reserved until the purge.
+ */
+@Slf4j
+@Component
+public class TransactionPersistenceAdapter implements TransactionPersistencePort {
+
+    private final IdempotencyKeyJpaRepository jpaRepository;
+    private final TransactionTemplate requiresNew;
+    private final Cache<String, IdempotencyRecord> results;
+    private final Map<String, IdempotencyRecord> unsaved = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    public TransactionPersistenceAdapter(
+            IdempotencyKeyJpaRepository jpaRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.idempotency.cache.maximum-size:100000}") long maximumSize,
+            @Value("${authorizer.idempotency.cache.ttl:PT10M}") Duration ttl,
+            @Value("${authorizer.idempotency.retention:PT24H}") Duration retention) {
+
+        this.jpaRepository = jpaRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.retention = retention;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "idempotency-results");
+        meterRegistry.gaugeMapSize("authorizer.idempotency.unsaved", List.of(), unsaved);
+    }
+
+    @Override
+    public boolean hasBeenProcessed(String idempotencyKey) {
+        return find(idempotencyKey).filter(IdempotencyRecord::isProcessed).isPresent();
+    }
+
+    @Override
+    public boolean reserve(String idempotencyKey, String fingerprint) {
+        try {
+            requiresNew.executeWithoutResult(status ->
+                    jpaRepository.insertPending(idempotencyKey, fingerprint, LocalDateTime.now()));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void markAsProcessed(String idempotencyKey, String fingerprint, String result) {
+        IdempotencyRecord processed = new IdempotencyRecord(fingerprint, result);
+        results.put(idempotencyKey, processed);
+        try {
+            save(idempotencyKey, processed);
+        } catch (RuntimeException ex) {
+            unsaved.put(idempotencyKey, processed);
+            log.warn("Could not store result of idempotency key {}, retrying in the background", idempotencyKey, ex);
+        }
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        requiresNew.executeWithoutResult(status -> jpaRepository.deleteById(idempotencyKey));
+        results.invalidate(idempotencyKey);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String idempotencyKey) {
+        IdempotencyRecord cached = results.getIfPresent(idempotencyKey);
+        if (cached == null) {
+            cached = unsaved.get(idempotencyKey);
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<IdempotencyRecord> stored = jpaRepository.findById(idempotencyKey)
+                .map(entity -> new IdempotencyRecord(
+                        entity.getRequestFingerprint(),
+                        IdempotencyKeyEntity.PROCESSED.equals(entity.getStatus()) ? entity.getResult() : null));
+
+        stored.filter(IdempotencyRecord::isProcessed)
+                .ifPresent(processed -> results.put(idempotencyKey, processed));
+        return stored;
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.idempotency.retry-interval:PT5S}")
+    public void retryUnsavedResults() {
+        unsaved.forEach((idempotencyKey, processed) -> {
+            try {
+                save(idempotencyKey, processed);
+                unsaved.remove(idempotencyKey, processed);
+            } catch (RuntimeException ex) {
+                log.debug("Result of idempotency key {} still not stored", idempotencyKey, ex);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredKeys() {
+        jpaRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private void save(String idempotencyKey, IdempotencyRecord processed) {
+        requiresNew.executeWithoutResult(status -> jpaRepository.markProcessed(idempotencyKey, processed.result()));
+    }
+}
@@ -14,6 +14,7 @@ public class CardMapper {
         entity.setCardNumber(card.getCardNumber());
         entity.setPassword(card.getPassword());
         entity.setBalance(card.getBalance());
+        entity.setVersion(card.getVersion());
         return entity;
     }
 
@@ -22,7 +23,8 @@ public class CardMapper {
                 entity.getId(),
                 entity.getCardNumber(),
                 entity.getPassword(),
-                entity.getBalance()
+                entity.getBalance(),
+                entity.getVersion()
         );
     }
 
@@ -4,9 +4,13 @@ import com.roberto.mini_authorizer.infrastructure.persistence.entity.CardEntity;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface CardJpaRepository extends JpaRepository<CardEntity, Long> {
@@ -15,7 +19,19 @@ public interface CardJpaRepository extends JpaRepository<CardEntity, Long> {
 
     boolean existsByCardNumber(String cardNumber);
 
+    @Query("SELECT c.balance FROM CardEntity c WHERE c.cardNumber = :cardNumber")
+    Optional<BigDecimal> findBalanceByCardNumber(@Param("cardNumber") String cardNumber);
+
     @Query(value = "SELECT * FROM cards WHERE card_number = :cardNumber FOR UPDATE", nativeQuery = true)
     Optional<CardEntity> findByCardNumberWithLock(@Param("cardNumber") String cardNumber);
 
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CardEntity c SET c.balance = c.balance - :amount, c.version = c.version + 1, " +
+            "c.updatedAt = :updatedAt " +
+            "WHERE c.cardNumber = :cardNumber AND c.balance >= :amount")
+    int debitIfSufficientBalance(@Param("cardNumber") String cardNumber,
+                                 @Param("amount") BigDecimal amount,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+
 }
@@ -0,0 +1,33 @@
+package com.roberto.mini_authorizer.infrastructure.persistence.repository;
+
+import com.roberto.mini_authorizer.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyJpaRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, status, request_fingerprint, created_at) " +
+            "VALUES (:idempotencyKey, 'PENDING', :fingerprint, :createdAt)", nativeQuery = true)
+    int insertPending(@Param("idempotencyKey") String idempotencyKey,
+                      @Param("fingerprint") String fingerprint,
+                      @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = 'PROCESSED', k.result = :result " +
+            "WHERE k.idempotencyKey = :idempotencyKey")
+    int markProcessed(@Param("idempotencyKey") String idempotencyKey,
+                      @Param("result") String result);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,24 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * API clients that sign their requests instead of sending a password, by client id.
+ *
+ * @param secrets          HMAC secret of each client id
+ * @param maxClockSkew     how far a request's timestamp may be from this node's clock
+ * @param replayCacheSize  signatures remembered to reject a request sent twice
+ * @param maxBodySize      largest body a signed request may carry; it is read into memory to be hashed
+ */
+@ConfigurationProperties("authorizer.api-clients")
+public record ApiClientProperties(
+        @DefaultValue Map<String, String> secrets,
+        @DefaultValue("PT5M") Duration maxClockSkew,
+        @DefaultValue("1000000") long replayCacheSize,
+        @DefaultValue("64KB") DataSize maxBodySize) {
+}
@@ -0,0 +1,64 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * HTTP Basic authentication that runs BCrypt once per client password rather than once
+ * per request: a verified password is remembered in the {@link CredentialCachePort}
+ * used for card passwords, under a prefix that no card number can collide with, and
+ * only while the stored hash is still the one it was checked against.
+ */
+public class CachingBasicAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String PRINCIPAL_PREFIX = "api-client:";
+
+    private final UserDetailsService users;
+    private final PasswordEncoder passwordEncoder;
+    private final CredentialCachePort credentialCache;
+    private final AccountStatusUserDetailsChecker accountStatus = new AccountStatusUserDetailsChecker();
+
+    public CachingBasicAuthenticationProvider(UserDetailsService users, PasswordEncoder passwordEncoder,
+                                              CredentialCachePort credentialCache) {
+        this.users = users;
+        this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        String username = authentication.getName();
+        String password = authentication.getCredentials() == null ? "" : authentication.getCredentials().toString();
+
+        UserDetails user;
+        try {
+            user = users.loadUserByUsername(username);
+        } catch (UsernameNotFoundException ex) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+
+        String principal = PRINCIPAL_PREFIX + username;
+        if (!credentialCache.isVerified(principal, password, user.getPassword())) {
+            if (!passwordEncoder.matches(password, user.getPassword())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            credentialCache.markVerified(principal, password, user.getPassword());
+        }
+        accountStatus.check(user);
+
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
@@ -0,0 +1,77 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import com.roberto.mini_authorizer.application.ratelimit.TokenBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many authorizations each authenticated client, Basic user or signed API
+ * client, can send. Runs after authentication and before the request body is read, so
+ * a client over its limit is answered with a bare 429 without parsing or authorizing
+ * anything. A batch counts as one request.
+ *
+ * <p>Each client is numbered the first time it is seen, and its bucket is keyed by that
+ * number rather than a hash of its name, which two names can share. Numbers below 2^20
+ * get distinct fingerprints in {@link TokenBucketTable}, so no two clients ever share a
+ * bucket. Clients are authenticated, so there are only as many as there are users and
+ * API clients.
+ */
+public class ClientRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TRANSACTIONS_PATH = "/transacoes";
+
+    private final TokenBucketTable clients;
+    private final Map<String, Long> keys = new ConcurrentHashMap<>();
+    private final AtomicLong lastKey = new AtomicLong();
+    private final Counter throttled;
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+    public ClientRateLimitFilter(TokenBucketTable clients, MeterRegistry meterRegistry) {
+        this.clients = clients;
+        this.throttled = Counter.builder("authorizer.rate-limit.throttled")
+                .description("Requests refused because their card or API client was over its rate limit")
+                .tag("key", "client")
+                .register(meterRegistry);
+        FunctionCounter.builder("authorizer.rate-limit.evictions", clients, TokenBucketTable::evictions)
+                .description("Rate limit buckets replaced while still limiting their key; the table is too small")
+                .tag("key", "client")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith(TRANSACTIONS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Authentication authentication = contextHolder.getContext().getAuthentication();
+        if (authentication != null && !clients.tryAcquire(keyOf(authentication.getName()))) {
+            throttled.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private long keyOf(String client) {
+        return keys.computeIfAbsent(client, name -> lastKey.incrementAndGet());
+    }
+}
@@ -0,0 +1,201 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Authenticates requests signed with {@link RequestSignature}, in microseconds rather
+ * than the BCrypt check of HTTP Basic. Requests without a signature pass through to
+ * Basic. A signed request whose client is unknown, whose timestamp is outside
+ * {@code authorizer.api-clients.max-clock-skew}, whose signature does not match, or that
+ * was already seen is answered with 401 without reaching Basic.
+ *
+ * <p>The body is only read once the headers pass the checks that need no body, and at
+ * most {@code authorizer.api-clients.max-body-size} of it: a larger one is answered with
+ * 413, so an unauthenticated caller cannot make this node buffer an arbitrary body.
+ *
+ * <p>Nothing is kept per client between requests apart from the signatures seen within
+ * twice the allowed skew, which is what stops a captured request from being replayed.
+ */
+public class HmacAuthenticationFilter extends OncePerRequestFilter {
+
+    private final ApiClientProperties clients;
+    private final Clock clock;
+    private final Cache<String, Boolean> seenSignatures;
+    private final Counter rejected;
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+    public HmacAuthenticationFilter(ApiClientProperties clients, Clock clock, MeterRegistry meterRegistry) {
+        this.clients = clients;
+        this.clock = clock;
+        this.seenSignatures = Caffeine.newBuilder()
+                .maximumSize(clients.replayCacheSize())
+                .expireAfterWrite(clients.maxClockSkew().multipliedBy(2).plus(Duration.ofSeconds(1)))
+                .build();
+        this.rejected = Counter.builder("authorizer.api-clients.rejected")
+                .description("Signed requests rejected for an unknown client, stale timestamp, bad or replayed signature")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String signature = request.getHeader(RequestSignature.SIGNATURE_HEADER);
+        if (signature == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String clientId = request.getHeader(RequestSignature.CLIENT_ID_HEADER);
+        String secret = clientId == null ? null : clients.secrets().get(clientId);
+        Long timestamp = parse(request.getHeader(RequestSignature.TIMESTAMP_HEADER));
+        String nonce = request.getHeader(RequestSignature.NONCE_HEADER);
+        if (secret == null || timestamp == null || nonce == null || nonce.isBlank()
+                || Math.abs(clock.instant().getEpochSecond() - timestamp) > clients.maxClockSkew().toSeconds()) {
+            reject(response);
+            return;
+        }
+
+        byte[] body = boundedBody(request);
+        if (body == null) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        if (!verified(cached, secret, timestamp, nonce, signature)) {
+            reject(response);
+            return;
+        }
+
+        SecurityContext context = contextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                clientId, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        contextHolder.setContext(context);
+        try {
+            chain.doFilter(cached, response);
+        } finally {
+            contextHolder.clearContext();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        rejected.increment();
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    /**
+     * The body, or null when it is larger than allowed: announced as such, or found to be
+     * while reading one byte past the limit.
+     */
+    private byte[] boundedBody(HttpServletRequest request) throws IOException {
+        int limit = (int) Math.min(clients.maxBodySize().toBytes(), Integer.MAX_VALUE - 1);
+        if (request.getContentLengthLong() > limit) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(limit + 1);
+        return body.length > limit ? null : body;
+    }
+
+    private boolean verified(CachedBodyRequest request, String secret, long timestamp, String nonce, String signature) {
+        String expected = RequestSignature.sign(secret, request.getMethod(), pathAndQuery(request), timestamp, nonce,
+                request.body);
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        return seenSignatures.asMap().putIfAbsent(expected, Boolean.TRUE) == null;
+    }
+
+    private static String pathAndQuery(HttpServletRequest request) {
+        return request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+    }
+
+    private static Long parse(String timestamp) {
+        try {
+            return timestamp == null ? null : Long.parseLong(timestamp);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The body is read once to check its digest and served again from memory to the
+     * controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("The body is already in memory");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
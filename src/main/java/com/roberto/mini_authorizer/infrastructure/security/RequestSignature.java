@@ -0,0 +1,43 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * How API clients sign a request: a Base64 HMAC-SHA256, keyed by the client's secret,
+ * of the method, the path with its query string, the timestamp in epoch seconds, a nonce
+ * unique to the request and the hex SHA-256 of the body, one per line. The signature and
+ * its inputs travel in the {@code X-Client-Id}, {@code X-Timestamp}, {@code X-Nonce} and
+ * {@code X-Signature} headers. The nonce tells apart identical requests sent within the
+ * same second, e.g. two equal purchases, which would otherwise look like a replay.
+ */
+public final class RequestSignature {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String TIMESTAMP_HEADER = "X-Timestamp";
+    public static final String NONCE_HEADER = "X-Nonce";
+    public static final String SIGNATURE_HEADER = "X-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private RequestSignature() {
+    }
+
+    public static String sign(String secret, String method, String pathAndQuery, long timestamp, String nonce,
+                              byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            String canonical = method + "\n" + pathAndQuery + "\n" + timestamp + "\n" + nonce + "\n"
+                    + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+            return Base64.getEncoder().encodeToString(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC algorithm unavailable: " + HMAC_ALGORITHM, ex);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.roberto.mini_authorizer.infrastructure.tcp;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary authorization protocol. Every frame starts with a big-endian {@code int}
+ * holding the length of the rest of the frame.
+ *
+ * <pre>
+ * request:  length | correlation id (long) | card number packed (long) | amount in cents (long)
+ *                  | password length (unsigned byte) | password (UTF-8)
+ * response: length | correlation id (long) | status (byte)
+ * </pre>
+ *
+ * <p>The card number travels as {@link CardNumber#pack} returns it. Clients send frames
+ * back to back without waiting, and responses come back in completion order, so the
+ * correlation id is what matches a response to its request.
+ */
+public final class AuthorizationFrames {
+
+    public static final byte APPROVED = 0;
+    public static final byte INSUFFICIENT_BALANCE = 1;
+    public static final byte INVALID_PASSWORD = 2;
+    public static final byte CARD_NOT_FOUND = 3;
+    /** The request was well framed but not a valid transaction, e.g. a zero amount. */
+    public static final byte REJECTED = 0x10;
+    /** The card is over its rate limit; nothing was read or debited. */
+    public static final byte THROTTLED = 0x11;
+    /** The authorization failed unexpectedly; whether the card was debited is unknown. */
+    public static final byte ERROR = 0x7F;
+
+    public static final int RESPONSE_FRAME_BYTES = Integer.BYTES + Long.BYTES + 1;
+
+    private static final int REQUEST_FIXED_BYTES = 3 * Long.BYTES + 1;
+    private static final int MAX_PASSWORD_BYTES = 255;
+    private static final int MAX_REQUEST_BYTES = REQUEST_FIXED_BYTES + MAX_PASSWORD_BYTES;
+
+    private AuthorizationFrames() {
+    }
+
+    /**
+     * Reads the next request from {@code buffer}, or returns {@code null} and leaves the
+     * buffer untouched when the frame has not fully arrived yet.
+     *
+     * @throws ProtocolException when the frame is malformed; the stream cannot be resynchronised
+     */
+    public static Request readRequest(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length < REQUEST_FIXED_BYTES || length > MAX_REQUEST_BYTES) {
+            throw new ProtocolException("Invalid request frame length: " + length);
+        }
+        if (buffer.remaining() < Integer.BYTES + length) {
+            return null;
+        }
+
+        buffer.position(start + Integer.BYTES);
+        long correlationId = buffer.getLong();
+        long cardNumber = buffer.getLong();
+        long amountCents = buffer.getLong();
+        int passwordLength = Byte.toUnsignedInt(buffer.get());
+        if (passwordLength != length - REQUEST_FIXED_BYTES) {
+            throw new ProtocolException("Password length " + passwordLength + " does not match the frame length " + length);
+        }
+
+        byte[] password = new byte[passwordLength];
+        buffer.get(password);
+        return new Request(correlationId, cardNumber, new String(password, StandardCharsets.UTF_8), amountCents);
+    }
+
+    public static void writeRequest(ByteBuffer buffer, Request request) {
+        byte[] password = request.password().getBytes(StandardCharsets.UTF_8);
+        if (password.length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("Password longer than " + MAX_PASSWORD_BYTES + " bytes");
+        }
+
+        buffer.putInt(REQUEST_FIXED_BYTES + password.length)
+                .putLong(request.correlationId())
+                .putLong(request.cardNumber())
+                .putLong(request.amountCents())
+                .put((byte) password.length)
+                .put(password);
+    }
+
+    /**
+     * Reads the next response, or returns {@code null} when it has not fully arrived.
+     */
+    public static Response readResponse(ByteBuffer buffer) throws ProtocolException {
+        if (buffer.remaining() < RESPONSE_FRAME_BYTES) {
+            return null;
+        }
+
+        int length = buffer.getInt();
+        if (length != RESPONSE_FRAME_BYTES - Integer.BYTES) {
+            throw new ProtocolException("Invalid response frame length: " + length);
+        }
+        return new Response(buffer.getLong(), buffer.get());
+    }
+
+    public static void writeResponse(ByteBuffer buffer, Response response) {
+        buffer.putInt(RESPONSE_FRAME_BYTES - Integer.BYTES)
+                .putLong(response.correlationId())
+                .put(response.status());
+    }
+
+    public static byte statusOf(AuthorizationResult result) {
+        return switch (result) {
+            case APPROVED -> APPROVED;
+            case INSUFFICIENT_BALANCE -> INSUFFICIENT_BALANCE;
+            case INVALID_PASSWORD -> INVALID_PASSWORD;
+            case CARD_NOT_FOUND -> CARD_NOT_FOUND;
+            case ERROR -> ERROR;
+        };
+    }
+
+    /**
+     * The name of a status as the REST API would answer it, {@code REJECTED},
+     * {@code THROTTLED} or {@code ERROR} for the statuses that have no REST equivalent.
+     */
+    public static String describe(byte status) {
+        return switch (status) {
+            case APPROVED -> AuthorizationResult.APPROVED.getCode();
+            case INSUFFICIENT_BALANCE -> AuthorizationResult.INSUFFICIENT_BALANCE.getCode();
+            case INVALID_PASSWORD -> AuthorizationResult.INVALID_PASSWORD.getCode();
+            case CARD_NOT_FOUND -> AuthorizationResult.CARD_NOT_FOUND.getCode();
+            case REJECTED -> "REJECTED";
+            case THROTTLED -> "THROTTLED";
+            default -> "ERROR";
+        };
+    }
+
+    public record Request(long correlationId, long cardNumber, String password, long amountCents) {
+    }
+
+    public record Response(long correlationId, byte status) {
+    }
+}
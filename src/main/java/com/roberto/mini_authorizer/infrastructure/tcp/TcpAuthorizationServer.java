@@ -0,0 +1,321 @@
+package com.roberto.mini_authorizer.infrastructure.tcp;
+
+import com.roberto.mini_authorizer.domain.exceptions.RateLimitExceededException;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Request;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Response;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Authorizes {@link AuthorizationFrames binary frames} on persistent TCP connections,
+ * calling {@link TransactionServicePort} directly: no HTTP parsing, security filter or
+ * JSON. One selector thread accepts, reads and writes every connection; authorizations
+ * run on worker threads, so a connection can have many in flight, and their responses
+ * are written as they complete, coalesced into as few writes as possible.
+ *
+ * <p>A connection stops being read once {@code authorizer.tcp.max-in-flight} of its
+ * requests are pending or waiting to be written, and resumes as their responses are
+ * written, so a client that pipelines faster than the database debits, or that stops
+ * reading its responses, is held back by TCP flow control. There is no authentication:
+ * bind it to an address only the switch can reach.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.tcp", name = "enabled", havingValue = "true")
+public class TcpAuthorizationServer {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int WRITE_BUFFER_BYTES = 16 * 1024;
+
+    private final TransactionServicePort transactionService;
+    private final int maxInFlight;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Thread selectorThread;
+    private volatile boolean running = true;
+
+    public TcpAuthorizationServer(
+            TransactionServicePort transactionService,
+            MeterRegistry meterRegistry,
+            @Value("${authorizer.tcp.address:127.0.0.1}") String address,
+            @Value("${authorizer.tcp.port:9090}") int port,
+            @Value("${authorizer.tcp.workers:200}") int workers,
+            @Value("${authorizer.tcp.max-in-flight:256}") int maxInFlight,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        this.transactionService = transactionService;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.workers = Executors.newFixedThreadPool(
+                Math.max(1, workers),
+                virtualThreads
+                        ? Thread.ofVirtual().name("tcp-authorizer-", 0).factory()
+                        : Thread.ofPlatform().name("tcp-authorizer-", 0).factory());
+
+        try {
+            this.selector = Selector.open();
+            this.server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(address, port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not listen on " + address + ":" + port, ex);
+        }
+
+        Gauge.builder("authorizer.tcp.connections", connections, Set::size)
+                .description("Open binary authorization connections")
+                .register(meterRegistry);
+
+        this.selectorThread = Thread.ofPlatform().name("tcp-selector").daemon().start(this::run);
+        log.info("Listening for binary authorizations on {}:{}", address, getPort());
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException ex) {
+                log.error("Binary authorization selector failed", ex);
+                return;
+            }
+
+            Connection ready;
+            while ((ready = writable.poll()) != null) {
+                ready.scheduled.set(false);
+                handle(ready, this::flush);
+            }
+
+            Set<SelectionKey> selected = selector.selectedKeys();
+            for (SelectionKey key : selected) {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+
+                Connection connection = (Connection) key.attachment();
+                if (key.isValid() && key.isWritable()) {
+                    handle(connection, this::flush);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    handle(connection, this::read);
+                }
+            }
+            selected.clear();
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections.add(connection);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not accept a binary authorization connection", ex);
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) < 0) {
+            close(connection);
+            return;
+        }
+        dispatch(connection);
+    }
+
+    /**
+     * Hands every complete frame in the read buffer to a worker, until the connection
+     * has as many requests in flight as it may.
+     */
+    private void dispatch(Connection connection) throws IOException {
+        ByteBuffer in = connection.in.flip();
+        try {
+            Request request;
+            while (connection.inFlight.get() < maxInFlight
+                    && (request = AuthorizationFrames.readRequest(in)) != null) {
+                connection.inFlight.incrementAndGet();
+                Request authorized = request;
+                workers.execute(() -> connection.respond(authorize(authorized)));
+            }
+        } catch (RejectedExecutionException ex) {
+            close(connection);
+            return;
+        } finally {
+            in.compact();
+        }
+
+        boolean paused = connection.inFlight.get() >= maxInFlight;
+        connection.paused = paused;
+        interest(connection, SelectionKey.OP_READ, !paused);
+    }
+
+    private Response authorize(Request request) {
+        if (request.cardNumber() < 0) {
+            return new Response(request.correlationId(), AuthorizationFrames.REJECTED);
+        }
+
+        try {
+            Transaction transaction = new Transaction(
+                    CardNumber.unpack(request.cardNumber()), request.password(), request.amountCents());
+            return new Response(request.correlationId(),
+                    AuthorizationFrames.statusOf(transactionService.authorize(transaction)));
+        } catch (IllegalArgumentException ex) {
+            return new Response(request.correlationId(), AuthorizationFrames.REJECTED);
+        } catch (RateLimitExceededException ex) {
+            return new Response(request.correlationId(), AuthorizationFrames.THROTTLED);
+        } catch (RuntimeException ex) {
+            log.error("Binary authorization {} failed", request.correlationId(), ex);
+            return new Response(request.correlationId(), AuthorizationFrames.ERROR);
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        while (true) {
+            Response response;
+            int written = 0;
+            while (out.remaining() >= AuthorizationFrames.RESPONSE_FRAME_BYTES
+                    && (response = connection.responses.poll()) != null) {
+                AuthorizationFrames.writeResponse(out, response);
+                written++;
+            }
+            // A request stays in flight until its response is in the write buffer, so a
+            // client that stops reading stops being read once max-in-flight are queued.
+            connection.inFlight.addAndGet(-written);
+
+            out.flip();
+            connection.channel.write(out);
+            boolean drained = !out.hasRemaining();
+            out.compact();
+
+            if (!drained || connection.responses.isEmpty()) {
+                interest(connection, SelectionKey.OP_WRITE, !drained);
+                break;
+            }
+        }
+
+        if (connection.paused && connection.inFlight.get() < maxInFlight) {
+            dispatch(connection);
+        }
+    }
+
+    private void handle(Connection connection, IoAction action) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        try {
+            action.run(connection);
+        } catch (IOException ex) {
+            log.debug("Closing binary authorization connection {}", connection.channel, ex);
+            close(connection);
+        }
+    }
+
+    private void interest(Connection connection, int operation, boolean enabled) {
+        int ops = connection.key.interestOps();
+        connection.key.interestOps(enabled ? ops | operation : ops & ~operation);
+    }
+
+    private void close(Connection connection) {
+        connections.remove(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ex) {
+            log.debug("Could not close {}", connection.channel, ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+
+        connections.forEach(this::close);
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException ex) {
+            log.debug("Could not close the binary authorization listener", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run(Connection connection) throws IOException;
+    }
+
+    /**
+     * The buffers and the pause flag are only touched by the selector thread. Workers
+     * queue responses and schedule the connection for a flush at most once until the
+     * selector picks it up.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private SelectionKey key;
+        private boolean paused;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void respond(Response response) {
+            responses.add(response);
+            if (scheduled.compareAndSet(false, true)) {
+                writable.add(this);
+                selector.wakeup();
+            }
+        }
+    }
+}
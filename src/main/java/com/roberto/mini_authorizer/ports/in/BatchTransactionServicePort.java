@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.ports.in;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+
+import java.util.List;
+
+public interface BatchTransactionServicePort {
+    List<AuthorizationResult> authorizeAll(List<Transaction> transactions);
+}
@@ -0,0 +1,14 @@
+package com.roberto.mini_authorizer.ports.in;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+
+public interface IdempotentTransactionServicePort {
+
+    /**
+     * Authorizes {@code transaction} at most once per idempotency key. The key is bound to
+     * the client and to the card and amount of the first request that used it; reusing
+     * it for anything else is rejected rather than answered with the first result.
+     */
+    AuthorizationResult authorize(Transaction transaction, String clientId, String idempotencyKey);
+}
@@ -0,0 +1,11 @@
+package com.roberto.mini_authorizer.ports.in;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveCardServicePort {
+    Mono<Card> createCard(String cardNumber, String password);
+    Mono<BigDecimal> getBalance(String cardNumber);
+}
@@ -0,0 +1,9 @@
+package com.roberto.mini_authorizer.ports.in;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTransactionServicePort {
+    Mono<AuthorizationResult> authorize(Transaction transaction);
+}
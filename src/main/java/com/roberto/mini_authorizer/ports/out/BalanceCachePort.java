@@ -0,0 +1,20 @@
+package com.roberto.mini_authorizer.ports.out;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface BalanceCachePort {
+
+    /**
+     * Returns the cached balance of the card, calling {@code loader} on a miss. Cards the
+     * loader does not find are not cached.
+     */
+    Optional<BigDecimal> get(String cardNumber, Function<String, Optional<BigDecimal>> loader);
+
+    /**
+     * Drops the cached balance. Must be called after the change to the balance has been
+     * committed, so a concurrent load cannot cache the value it replaced.
+     */
+    void invalidate(String cardNumber);
+}
@@ -1,7 +1,11 @@
 package com.roberto.mini_authorizer.ports.out;
 
 import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CardRepositoryPort {
@@ -12,5 +16,29 @@ public interface CardRepositoryPort {
 
     Optional<Card> findByCardNumberWithLock(String cardNumber);
 
+    /**
+     * Reads only the balance, without loading the rest of the card.
+     */
+    Optional<BigDecimal> findBalanceByCardNumber(String cardNumber);
+
     boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Atomically subtracts {@code amountCents} from the card balance if, and only if,
+     * the balance covers it. Returns {@code false} when nothing was debited.
+     */
+    boolean tryDebit(String cardNumber, long amountCents);
+
+    /**
+     * Applies {@link #tryDebit} for every transaction, in order, as one batch of
+     * statements. Element {@code i} of the result tells whether transaction {@code i}
+     * was debited. Callers provide the surrounding database transaction.
+     */
+    boolean[] tryDebitAll(List<Transaction> transactions);
+
+    /**
+     * Overwrites the balance of every card in {@code balancesCents}, keyed by card number,
+     * as one batch of statements. Callers provide the surrounding database transaction.
+     */
+    void updateBalances(Map<String, Long> balancesCents);
 }
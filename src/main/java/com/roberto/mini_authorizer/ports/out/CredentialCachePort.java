@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.ports.out;
+
+public interface CredentialCachePort {
+
+    boolean isVerified(String principal, String rawPassword, String encodedPassword);
+
+    void markVerified(String principal, String rawPassword, String encodedPassword);
+
+    void invalidate(String principal);
+}
@@ -0,0 +1,51 @@
+package com.roberto.mini_authorizer.ports.out;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead journal of the sharded debit engine. Each shard appends to its own log,
+ * and a card always belongs to one shard, so the entries of a card are replayed in the
+ * order they were decided. A log is a sequence of segments: the engine seals the current
+ * one before it persists balances and discards the sealed ones once the balances are in
+ * the database, so the journal only holds what the database has not caught up with.
+ */
+public interface DebitJournalPort {
+
+    /**
+     * Appends the entries to the log of {@code shard} and returns once they are durable.
+     * When it throws, none of the entries is left to be replayed.
+     */
+    void append(int shard, List<Entry> entries);
+
+    /**
+     * Closes the current segment of {@code shard} to appends, if it is worth starting a
+     * new one, and returns a mark covering every closed segment.
+     */
+    long seal(int shard);
+
+    /**
+     * Discards the closed segments of {@code shard} up to {@code mark}. Only called once
+     * the balances they hold are persisted.
+     */
+    void discard(int shard, long mark);
+
+    /**
+     * Feeds every entry to {@code consumer}, log by log, stopping a log at its first
+     * incomplete or corrupt entry.
+     */
+    void replay(Consumer<Entry> consumer);
+
+    /**
+     * Discards every log. Only called once the balances they hold are persisted.
+     */
+    void reset();
+
+    /**
+     * One decision: the debit asked for, its result, and the card balance after it.
+     */
+    record Entry(String cardNumber, long amountCents, AuthorizationResult result, long balanceCents) {
+    }
+}
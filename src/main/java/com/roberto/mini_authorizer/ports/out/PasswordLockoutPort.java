@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.ports.out;
+
+public interface PasswordLockoutPort {
+
+    boolean isLockedOut(String cardNumber);
+
+    void recordFailure(String cardNumber);
+
+    void reset(String cardNumber);
+}
@@ -0,0 +1,21 @@
+package com.roberto.mini_authorizer.ports.out;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCardRepositoryPort {
+
+    /**
+     * Inserts a new card. Completes with a {@code DataIntegrityViolationException} when
+     * the card number is already taken.
+     */
+    Mono<Card> save(Card card);
+
+    Mono<Card> findByCardNumber(String cardNumber);
+
+    /**
+     * Atomically subtracts {@code amountCents} from the card balance if, and only if,
+     * the balance covers it. Emits {@code false} when nothing was debited.
+     */
+    Mono<Boolean> tryDebit(String cardNumber, long amountCents);
+}
@@ -4,6 +4,39 @@ import java.util.Optional;
 
 public interface TransactionPersistencePort {
     boolean hasBeenProcessed(String idempotencyKey);
-    void markAsProcessed(String idempotencyKey);
-    Optional<String> findResult(String idempotencyKey);
+
+    /**
+     * Claims the key for processing on behalf of the request identified by
+     * {@code fingerprint}. Returns {@code false} when it was already claimed, whether or
+     * not that earlier attempt has finished.
+     */
+    boolean reserve(String idempotencyKey, String fingerprint);
+
+    /**
+     * Records the result of a reserved key. A failure to store it durably is retried in
+     * the background rather than thrown, since the transaction it belongs to already ran.
+     */
+    void markAsProcessed(String idempotencyKey, String fingerprint, String result);
+
+    void release(String idempotencyKey);
+
+    Optional<IdempotencyRecord> find(String idempotencyKey);
+
+    /**
+     * A reserved key, with the fingerprint of the request that reserved it and its result
+     * once processed, {@code null} before that.
+     */
+    record IdempotencyRecord(String fingerprint, String result) {
+
+        public boolean isProcessed() {
+            return result != null;
+        }
+
+        /**
+         * Keys stored before fingerprints were recorded have none and match any request.
+         */
+        public boolean matches(String requestFingerprint) {
+            return fingerprint == null || fingerprint.equals(requestFingerprint);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLocksTest {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardLocks cardLocks;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardLocks = new CardLocks(true, 64, meterRegistry);
+    }
+
+    @Test
+    void shouldRoundStripesUpToPowerOfTwo() {
+        assertEquals(64, cardLocks.stripeCount());
+        assertEquals(128, new CardLocks(true, 100, meterRegistry).stripeCount());
+        assertEquals(1, new CardLocks(true, 1, meterRegistry).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new CardLocks(true, 0, meterRegistry));
+    }
+
+    @Test
+    void shouldMakeSecondRequestForSameCardWaitAndCountContentionWhetherPackedOrNot() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean secondRan = new AtomicBoolean();
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> cardLocks.withLock(CARD_NUMBER, () -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                cardLocks.withLock(CardNumber.pack(CARD_NUMBER), () -> {
+                    secondRan.set(true);
+                    return null;
+                }));
+
+        while (meterRegistry.get("authorizer.card-lock.waiting").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        assertFalse(secondRan.get());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertTrue(secondRan.get());
+        assertEquals(1, meterRegistry.get("authorizer.card-lock.contended").counter().count());
+        assertEquals(2, meterRegistry.get("authorizer.card-lock.wait").timer().count());
+    }
+
+    @Test
+    void shouldRunDirectlyWhenDisabled() {
+        CardLocks disabled = new CardLocks(false, 64, meterRegistry);
+
+        assertEquals("done", disabled.withLock(CARD_NUMBER, () -> "done"));
+        assertEquals(0, disabled.stripeCount());
+    }
+
+    @Test
+    void shouldReleaseLockWhenActionThrows() {
+        assertThrows(IllegalStateException.class, () -> cardLocks.withLock(CARD_NUMBER, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("after", cardLocks.withLock(CARD_NUMBER, () -> "after"));
+        assertEquals(0, meterRegistry.get("authorizer.card-lock.contended").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CombiningDebitStrategyTest {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CombiningDebitStrategy strategy;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new CombiningDebitStrategy(
+                cardRepository,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                meterRegistry,
+                256
+        );
+
+        card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+
+        lenient().when(validatorChain.validate(any(), any(), eq(ValidationPhase.UNDER_LOCK)))
+                .thenAnswer(invocation -> invocation.getArgument(1, Card.class)
+                        .hasSufficientBalance(invocation.getArgument(0, Transaction.class).getAmountCents())
+                        ? AuthorizationResult.APPROVED
+                        : AuthorizationResult.INSUFFICIENT_BALANCE);
+    }
+
+    @Test
+    void shouldDebitColdCardLikePessimisticMode() {
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(debitOf(30), card));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(card.getBalance()));
+        verify(cardRepository).findByCardNumberWithLock(CARD_NUMBER);
+        verify(cardRepository).save(card);
+        assertEquals(1, meterRegistry.get("authorizer.debit.combining.batch-size").summary().count());
+    }
+
+    @Test
+    void shouldApplyQueuedDebitsUnderOneLockAgainstRunningBalance() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER))
+                .thenAnswer(invocation -> {
+                    firstLocked.countDown();
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                    return Optional.of(card);
+                })
+                .thenReturn(Optional.of(card));
+
+        CompletableFuture<AuthorizationResult> first =
+                CompletableFuture.supplyAsync(() -> strategy.debit(debitOf(10), card));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<AuthorizationResult>> queued = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> strategy.debit(debitOf(30), card)))
+                .toList();
+        while (strategy.queued(CARD_NUMBER) < queued.size()) {
+            Thread.onSpinWait();
+        }
+        releaseFirst.countDown();
+
+        assertEquals(AuthorizationResult.APPROVED, first.get(5, TimeUnit.SECONDS));
+        List<AuthorizationResult> results = queued.stream().map(CompletableFuture::join).toList();
+
+        assertEquals(3, results.stream().filter(AuthorizationResult::isApproved).count());
+        assertEquals(1, results.stream().filter(AuthorizationResult.INSUFFICIENT_BALANCE::equals).count());
+        assertEquals(0, BigDecimal.ZERO.compareTo(card.getBalance()));
+        verify(cardRepository, times(2)).findByCardNumberWithLock(CARD_NUMBER);
+        verify(cardRepository, times(2)).save(card);
+        assertEquals(5, meterRegistry.get("authorizer.debit.combining.batch-size").summary().totalAmount());
+    }
+
+    @Test
+    void shouldNotSaveWhenEveryCombinedDebitIsDeclined() {
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, strategy.debit(debitOf(150), card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRecheckCredentialsWhenHashChangedBeforeLock() {
+        Card rehashed = new Card(1L, CARD_NUMBER, "new-hash", BigDecimal.valueOf(100));
+        Transaction transaction = debitOf(10);
+
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(rehashed));
+        when(validatorChain.validate(transaction, rehashed, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
+
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReturnCardNotFoundWhenCardDisappearedBeforeLock() {
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.empty());
+
+        assertEquals(AuthorizationResult.CARD_NOT_FOUND, strategy.debit(debitOf(10), card));
+    }
+
+    @Test
+    void shouldPropagateFailureAndRecoverOnNextDebit() {
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(Optional.of(card));
+
+        assertThrows(QueryTimeoutException.class, () -> strategy.debit(debitOf(10), card));
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(debitOf(10), card));
+    }
+
+    private static Transaction debitOf(long amount) {
+        return new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(amount));
+    }
+}
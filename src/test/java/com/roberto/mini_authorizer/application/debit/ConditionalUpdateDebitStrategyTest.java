@@ -0,0 +1,55 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalUpdateDebitStrategyTest {
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    @InjectMocks
+    private ConditionalUpdateDebitStrategy strategy;
+
+    private Transaction transaction;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        transaction = new Transaction("1234567812345678", "1234", BigDecimal.valueOf(100));
+        card = new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500));
+    }
+
+    @Test
+    void shouldDebitWithoutLockingTheRow() {
+        when(cardRepository.tryDebit("1234567812345678", 10_000L))
+                .thenReturn(true);
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldDeclineWhenNoRowWasDebited() {
+        when(cardRepository.tryDebit("1234567812345678", 10_000L))
+                .thenReturn(false);
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, strategy.debit(transaction, card));
+    }
+}
@@ -0,0 +1,193 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitDebitStrategyTest {
+
+    private static final int MAX_BATCH_SIZE = 4;
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    private GroupCommitDebitStrategy strategy;
+
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        strategy = new GroupCommitDebitStrategy(
+                cardRepository,
+                TransactionOperations.withoutTransaction(),
+                new SimpleMeterRegistry(),
+                Duration.ofMillis(50),
+                MAX_BATCH_SIZE
+        );
+
+        card = new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        strategy.shutdown();
+    }
+
+    @Test
+    void shouldDebitSingleRequestAfterWindow() {
+        Transaction transaction = transaction(100);
+        when(cardRepository.tryDebitAll(List.of(transaction))).thenReturn(new boolean[]{true});
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldDeclineWhenItsDebitWasNotApplied() {
+        Transaction transaction = transaction(600);
+        when(cardRepository.tryDebitAll(List.of(transaction))).thenReturn(new boolean[]{false});
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, strategy.debit(transaction, card));
+    }
+
+    @Test
+    void shouldApplyConcurrentDebitsInOneBatch() throws Exception {
+        when(cardRepository.tryDebitAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            boolean[] debited = new boolean[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                debited[i] = batch.get(i).getAmount().compareTo(BigDecimal.valueOf(500)) <= 0;
+            }
+            return debited;
+        });
+
+        GroupCommitDebitStrategy grouped = new GroupCommitDebitStrategy(
+                cardRepository,
+                TransactionOperations.withoutTransaction(),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(30),
+                MAX_BATCH_SIZE
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_BATCH_SIZE);
+        List<Future<AuthorizationResult>> outcomes = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            Transaction transaction = transaction(i % 2 == 0 ? 100 : 900);
+            outcomes.add(executor.submit(() -> grouped.debit(transaction, card)));
+        }
+
+        List<AuthorizationResult> results = new ArrayList<>();
+        for (Future<AuthorizationResult> outcome : outcomes) {
+            results.add(outcome.get());
+        }
+        executor.shutdown();
+        grouped.shutdown();
+
+        assertEquals(List.of(
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.INSUFFICIENT_BALANCE,
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.INSUFFICIENT_BALANCE
+        ), results);
+        verify(cardRepository, times(1)).tryDebitAll(argThat(batch -> batch.size() == MAX_BATCH_SIZE));
+    }
+
+    @Test
+    void shouldPropagateBatchFailureToCaller() {
+        Transaction transaction = transaction(100);
+        when(cardRepository.tryDebitAll(List.of(transaction)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(
+                QueryTimeoutException.class,
+                () -> strategy.debit(transaction, card)
+        );
+    }
+
+    @Test
+    void shouldKeepFlushingAfterBatchFailsWithError() {
+        Transaction transaction = transaction(100);
+        when(cardRepository.tryDebitAll(List.of(transaction)))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(new boolean[]{true});
+
+        CompletionException error = assertThrows(
+                CompletionException.class,
+                () -> strategy.debit(transaction, card)
+        );
+        assertInstanceOf(StackOverflowError.class, error.getCause());
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+    }
+
+    @Test
+    void shouldRetryFailedBatchOneDebitAtATime() throws Exception {
+        Transaction good = transaction(100);
+        Transaction bad = new Transaction("8765432187654321", "1234", BigDecimal.valueOf(100));
+        when(cardRepository.tryDebitAll(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        when(cardRepository.tryDebit("1234567812345678", 10_000)).thenReturn(true);
+        when(cardRepository.tryDebit("8765432187654321", 10_000)).thenThrow(new QueryTimeoutException("timeout"));
+
+        GroupCommitDebitStrategy grouped = new GroupCommitDebitStrategy(
+                cardRepository,
+                TransactionOperations.withoutTransaction(),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(30),
+                2
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<AuthorizationResult> approved = executor.submit(() -> grouped.debit(good, card));
+        Future<AuthorizationResult> failed = executor.submit(() -> grouped.debit(bad, card));
+        try {
+            assertEquals(AuthorizationResult.APPROVED, approved.get());
+            ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+            assertInstanceOf(QueryTimeoutException.class, error.getCause());
+        } finally {
+            executor.shutdown();
+            grouped.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectDebitsAfterShutdown() throws InterruptedException {
+        strategy.shutdown();
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> strategy.debit(transaction(100), card)
+        );
+        verifyNoInteractions(cardRepository);
+    }
+
+    private Transaction transaction(long amount) {
+        return new Transaction("1234567812345678", "1234", BigDecimal.valueOf(amount));
+    }
+}
@@ -0,0 +1,119 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockDebitStrategyTest {
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockDebitStrategy strategy;
+
+    private Transaction transaction;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new OptimisticLockDebitStrategy(
+                cardRepository,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                meterRegistry,
+                3,
+                Duration.ZERO,
+                Duration.ZERO
+        );
+
+        transaction = new Transaction("1234567812345678", "1234", BigDecimal.valueOf(100));
+        card = new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500), 4L);
+
+        lenient().when(validatorChain.validate(any(), any(), any()))
+                .thenReturn(AuthorizationResult.APPROVED);
+    }
+
+    @Test
+    void shouldDebitWithoutLockingTheRow() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+
+        verify(validatorChain).validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        verify(cardRepository).save(card);
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        assertEquals(0.0, meterRegistry.counter("authorizer.debit.optimistic.conflicts").count());
+    }
+
+    @Test
+    void shouldRetryOnVersionConflict() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenAnswer(invocation -> Optional.of(
+                        new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500), 4L)));
+        when(cardRepository.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+
+        verify(cardRepository, times(2)).save(any());
+        assertEquals(1.0, meterRegistry.counter("authorizer.debit.optimistic.conflicts").count());
+        assertEquals(1.0, meterRegistry.counter("authorizer.debit.optimistic.retries").count());
+    }
+
+    @Test
+    void shouldReturnDeclineWithoutSaving() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenAnswer(invocation -> Optional.of(
+                        new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500), 4L)));
+        when(cardRepository.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThrows(
+                OptimisticLockingFailureException.class,
+                () -> strategy.debit(transaction, card)
+        );
+
+        verify(cardRepository, times(3)).save(any());
+        assertEquals(3.0, meterRegistry.counter("authorizer.debit.optimistic.conflicts").count());
+        assertEquals(2.0, meterRegistry.counter("authorizer.debit.optimistic.retries").count());
+        assertEquals(1.0, meterRegistry.counter("authorizer.debit.optimistic.exhausted").count());
+    }
+}
@@ -0,0 +1,149 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PessimisticLockDebitStrategyTest {
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PessimisticLockDebitStrategy strategy;
+
+    private Transaction transaction;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new PessimisticLockDebitStrategy(
+                cardRepository,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                new CardLocks(true, 16, meterRegistry),
+                new AuthorizationMetrics(meterRegistry)
+        );
+
+        transaction = new Transaction(
+                "1234567812345678",
+                "1234",
+                BigDecimal.valueOf(100)
+        );
+
+        card = new Card(
+                1L,
+                "1234567812345678",
+                "1234",
+                BigDecimal.valueOf(500)
+        );
+
+        lenient().when(validatorChain.validate(any(), any(), any()))
+                .thenReturn(AuthorizationResult.APPROVED);
+    }
+
+    @Test
+    void shouldDebitLockedCard() {
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(transaction, card));
+
+        verify(validatorChain).validate(transaction, card, ValidationPhase.UNDER_LOCK);
+        verify(validatorChain, never()).validate(any(), any(), eq(ValidationPhase.BEFORE_LOCK));
+        verify(cardRepository).save(card);
+
+        assertEquals(
+                0,
+                BigDecimal.valueOf(400).compareTo(card.getBalance())
+        );
+    }
+
+    @Test
+    void shouldRecheckCredentialsWhenHashChangedBeforeLock() {
+        Card rehashed = new Card(1L, "1234567812345678", "new-hash", BigDecimal.valueOf(500));
+
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.of(rehashed));
+
+        strategy.debit(transaction, card);
+
+        verify(validatorChain).validate(same(transaction), same(rehashed), eq(ValidationPhase.BEFORE_LOCK));
+        verify(cardRepository).save(same(rehashed));
+    }
+
+    @Test
+    void shouldDeclineWhenRehashedCredentialsNoLongerMatch() {
+        Card rehashed = new Card(1L, "1234567812345678", "new-hash", BigDecimal.valueOf(500));
+
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.of(rehashed));
+        when(validatorChain.validate(same(transaction), same(rehashed), eq(ValidationPhase.BEFORE_LOCK)))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
+
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReturnCardNotFoundWhenCardDisappearedBeforeLock() {
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.empty());
+
+        assertEquals(AuthorizationResult.CARD_NOT_FOUND, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotSaveCardWhenValidationFails() {
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+
+        when(validatorChain.validate(transaction, card, ValidationPhase.UNDER_LOCK))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, strategy.debit(transaction, card));
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRecordEachStageOfLockedDebit() {
+        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+
+        strategy.debit(transaction, card);
+
+        for (String stage : List.of("begin", "lock", "balance-check", "apply", "save", "commit")) {
+            assertEquals(1, meterRegistry.get("authorizer.authorize.stage").tag("stage", stage).timer().count(), stage);
+        }
+    }
+}
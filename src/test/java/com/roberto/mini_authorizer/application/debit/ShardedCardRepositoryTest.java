@@ -0,0 +1,77 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedCardRepositoryTest {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+
+    @Mock
+    private CardRepositoryPort database;
+
+    @Mock
+    private ShardedDebitStrategy engine;
+
+    private ShardedCardRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository = new ShardedCardRepository(database, engine);
+    }
+
+    @Test
+    void shouldServeBalanceOwnedByEngine() {
+        when(engine.balanceCents(CARD_NUMBER)).thenReturn(OptionalLong.of(70_00L));
+
+        assertEquals(Optional.of(new BigDecimal("70.00")), repository.findBalanceByCardNumber(CARD_NUMBER));
+        verifyNoInteractions(database);
+    }
+
+    @Test
+    void shouldFallBackToDatabaseForCardsEngineHasNotTouched() {
+        when(engine.balanceCents(CARD_NUMBER)).thenReturn(OptionalLong.empty());
+        when(database.findBalanceByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(new BigDecimal("500.00")));
+
+        assertEquals(Optional.of(new BigDecimal("500.00")), repository.findBalanceByCardNumber(CARD_NUMBER));
+    }
+
+    @Test
+    void shouldReplaceBalanceOfCardsReadFromDatabase() {
+        Card stored = new Card(1L, CARD_NUMBER, "hash", new BigDecimal("500.00"), 3L);
+        when(database.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(stored));
+        when(engine.balanceCents(CARD_NUMBER)).thenReturn(OptionalLong.of(70_00L));
+
+        Card card = repository.findByCardNumber(CARD_NUMBER).orElseThrow();
+
+        assertEquals(70_00L, card.getBalanceCents());
+        assertEquals("hash", card.getPassword());
+        assertEquals(3L, card.getVersion());
+    }
+
+    @Test
+    void shouldDebitThroughEngine() {
+        List<Transaction> transactions = List.of(new Transaction(CARD_NUMBER, "1234", 10_00L));
+        when(engine.tryDebit(CARD_NUMBER, 10_00L)).thenReturn(true);
+        when(engine.tryDebitAll(transactions)).thenReturn(new boolean[]{false});
+
+        assertTrue(repository.tryDebit(CARD_NUMBER, 10_00L));
+        assertArrayEquals(new boolean[]{false}, repository.tryDebitAll(transactions));
+        verifyNoInteractions(database);
+    }
+}
@@ -0,0 +1,366 @@
+package com.roberto.mini_authorizer.application.debit;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort.Entry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedDebitStrategyTest {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+    private static final String OTHER_CARD_NUMBER = "8765432187654321";
+
+    @Mock
+    private CardRepositoryPort database;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryJournal journal;
+    private ShardedDebitStrategy strategy;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new InMemoryJournal();
+        card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+
+        lenient().when(validatorChain.validate(any(), any(), eq(ValidationPhase.UNDER_LOCK)))
+                .thenAnswer(invocation -> invocation.getArgument(1, Card.class)
+                        .hasSufficientBalance(invocation.getArgument(0, Transaction.class).getAmountCents())
+                        ? AuthorizationResult.APPROVED
+                        : AuthorizationResult.INSUFFICIENT_BALANCE);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (strategy != null) {
+            strategy.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDebitInMemoryAndJournalBeforeAnswering() {
+        strategy = start(Duration.ofHours(1));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(debitOf(30), card));
+
+        assertEquals(List.of(new Entry(CARD_NUMBER, 30_00L, AuthorizationResult.APPROVED, 70_00L)), journal.entries);
+        assertEquals(OptionalLong.of(70_00L), strategy.balanceCents(CARD_NUMBER));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(card.getBalance()));
+        verify(database, never()).tryDebit(anyString(), anyLong());
+        verify(database, never()).save(any());
+    }
+
+    @Test
+    void shouldKeepOwningBalanceOnceCardWasDebited() {
+        strategy = start(Duration.ofHours(1));
+        strategy.debit(debitOf(30), card);
+
+        AuthorizationResult result = strategy.debit(debitOf(80), card);
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, result);
+        assertEquals(OptionalLong.of(70_00L), strategy.balanceCents(CARD_NUMBER));
+        assertEquals(new Entry(CARD_NUMBER, 80_00L, AuthorizationResult.INSUFFICIENT_BALANCE, 70_00L), journal.entries.get(1));
+    }
+
+    @Test
+    void shouldApplyConcurrentDebitsAgainstRunningBalance() {
+        strategy = start(Duration.ofHours(1));
+
+        List<AuthorizationResult> results = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> strategy.debit(debitOf(20), card)))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertEquals(5, results.stream().filter(AuthorizationResult::isApproved).count());
+        assertEquals(OptionalLong.of(0L), strategy.balanceCents(CARD_NUMBER));
+        assertEquals(10, meterRegistry.get("authorizer.debit.sharded.batch-size").summary().totalAmount());
+    }
+
+    @Test
+    void shouldRollBackBatchWhenJournalFails() {
+        strategy = start(Duration.ofHours(1));
+        journal.failNext = true;
+
+        assertThrows(UncheckedIOException.class, () -> strategy.debit(debitOf(30), card));
+        assertEquals(OptionalLong.empty(), strategy.balanceCents(CARD_NUMBER));
+
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(debitOf(100), card));
+        assertEquals(OptionalLong.of(0L), strategy.balanceCents(CARD_NUMBER));
+    }
+
+    @Test
+    void shouldFailDebitOfCardThatDoesNotFitInIndex() {
+        strategy = start(Duration.ofHours(1), 1);
+        Card other = new Card(2L, OTHER_CARD_NUMBER, "1234", BigDecimal.valueOf(500));
+        strategy.debit(debitOf(30), card);
+
+        assertThrows(IllegalStateException.class,
+                () -> strategy.debit(new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN), other));
+        assertEquals(OptionalLong.empty(), strategy.balanceCents(OTHER_CARD_NUMBER));
+        assertEquals(AuthorizationResult.APPROVED, strategy.debit(debitOf(20), card));
+        assertEquals(OptionalLong.of(50_00L), strategy.balanceCents(CARD_NUMBER));
+    }
+
+    @Test
+    void shouldFailOnlyDebitsOfCardThatDoesNotFitWhenBatchedWithOthers() throws InterruptedException {
+        strategy = start(Duration.ofHours(1), 1);
+        Card other = new Card(2L, OTHER_CARD_NUMBER, "1234", BigDecimal.valueOf(500));
+        assertEquals(strategy.shardOf(debitOf(1).getPackedCardNumber()),
+                strategy.shardOf(new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.ONE).getPackedCardNumber()));
+        strategy.debit(debitOf(30), card);
+
+        // Holds the shard in its journal append so that the debits below queue up into one batch
+        journal.gate = new CountDownLatch(1);
+        CompletableFuture<AuthorizationResult> first = CompletableFuture.supplyAsync(() -> strategy.debit(debitOf(10), card));
+        assertTrue(journal.appending.await(2, TimeUnit.SECONDS));
+
+        List<CompletableFuture<AuthorizationResult>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Transaction transaction = i % 2 == 0 ? debitOf(1) : new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.ONE);
+            Card verified = i % 2 == 0 ? card : other;
+            results.add(CompletableFuture.supplyAsync(() -> strategy.debit(transaction, verified)));
+        }
+        Thread.sleep(100);
+        journal.entries.clear();
+        journal.gate.countDown();
+        assertEquals(AuthorizationResult.APPROVED, first.join());
+
+        for (int i = 0; i < results.size(); i++) {
+            if (i % 2 == 0) {
+                assertEquals(AuthorizationResult.APPROVED, results.get(i).join());
+            } else {
+                CompletableFuture<AuthorizationResult> refused = results.get(i);
+                assertThrows(CompletionException.class, refused::join);
+            }
+        }
+        assertEquals(OptionalLong.of(50_00L), strategy.balanceCents(CARD_NUMBER));
+        assertEquals(11, journal.entries.size());
+        assertTrue(journal.entries.stream().allMatch(entry -> entry.cardNumber().equals(CARD_NUMBER)));
+    }
+
+    @Test
+    void shouldPersistLatestBalancesAsynchronously() {
+        strategy = start(Duration.ofMillis(5));
+
+        strategy.debit(debitOf(30), card);
+        strategy.debit(debitOf(20), card);
+
+        verify(database, timeout(2_000).atLeastOnce()).updateBalances(Map.of(CARD_NUMBER, 50_00L));
+    }
+
+    @Test
+    void shouldNotPersistCardsWithOnlyDeclines() throws InterruptedException {
+        strategy = start(Duration.ofHours(1));
+
+        strategy.debit(debitOf(300), card);
+        strategy.shutdown();
+        strategy = null;
+
+        verify(database, never()).updateBalances(any());
+    }
+
+    @Test
+    void shouldRetryPersistenceThatFailed() {
+        strategy = start(Duration.ofHours(1));
+        doThrow(new IllegalStateException("database down")).doNothing()
+                .when(database).updateBalances(any());
+        strategy.debit(debitOf(30), card);
+
+        strategy.persist();
+        assertEquals(1, meterRegistry.get("authorizer.debit.sharded.unpersisted").gauge().value());
+
+        strategy.persist();
+        assertEquals(0, meterRegistry.get("authorizer.debit.sharded.unpersisted").gauge().value());
+        verify(database, times(2)).updateBalances(Map.of(CARD_NUMBER, 70_00L));
+    }
+
+    @Test
+    void shouldDiscardJournalSealedBeforeBalancesWerePersisted() {
+        strategy = start(Duration.ofHours(1));
+        strategy.debit(debitOf(30), card);
+        int shard = strategy.shardOf(debitOf(30).getPackedCardNumber());
+
+        strategy.persist();
+
+        verify(database).updateBalances(Map.of(CARD_NUMBER, 70_00L));
+        assertEquals(1L, journal.discarded.get(shard));
+    }
+
+    @Test
+    void shouldKeepJournalWhenPersistenceFails() {
+        strategy = start(Duration.ofHours(1));
+        doThrow(new IllegalStateException("database down")).when(database).updateBalances(any());
+        strategy.debit(debitOf(30), card);
+
+        strategy.persist();
+
+        assertTrue(journal.discarded.isEmpty());
+    }
+
+    @Test
+    void shouldDebitOnlyWhenBalanceCoversIt() {
+        when(database.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        strategy = start(Duration.ofHours(1));
+
+        assertTrue(strategy.tryDebit(CARD_NUMBER, 60_00L));
+        assertArrayEquals(new boolean[]{false, true}, strategy.tryDebitAll(List.of(debitOf(50), debitOf(40))));
+
+        assertEquals(OptionalLong.of(0L), strategy.balanceCents(CARD_NUMBER));
+        verify(validatorChain, never()).validate(any(), any(), any());
+    }
+
+    @Test
+    void shouldNotDebitCardMissingFromDatabase() {
+        when(database.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.empty());
+        strategy = start(Duration.ofHours(1));
+
+        assertFalse(strategy.tryDebit(CARD_NUMBER, 10_00L));
+        assertArrayEquals(new boolean[]{false}, strategy.tryDebitAll(List.of(debitOf(10))));
+        assertTrue(journal.entries.isEmpty());
+    }
+
+    @Test
+    void shouldWriteJournaledBalancesToDatabaseOnStartup() {
+        journal.entries.addAll(List.of(
+                new Entry(CARD_NUMBER, 30_00L, AuthorizationResult.APPROVED, 70_00L),
+                new Entry(CARD_NUMBER, 90_00L, AuthorizationResult.INSUFFICIENT_BALANCE, 70_00L),
+                new Entry(CARD_NUMBER, 20_00L, AuthorizationResult.APPROVED, 50_00L),
+                new Entry(OTHER_CARD_NUMBER, 10_00L, AuthorizationResult.INVALID_PASSWORD, 500_00L)
+        ));
+
+        strategy = start(Duration.ofHours(1));
+
+        verify(database).updateBalances(Map.of(CARD_NUMBER, 50_00L));
+        assertTrue(journal.entries.isEmpty());
+    }
+
+    @Test
+    void shouldResetJournalOnceEverythingIsPersistedOnShutdown() throws InterruptedException {
+        strategy = start(Duration.ofHours(1));
+        strategy.debit(debitOf(30), card);
+
+        strategy.shutdown();
+
+        verify(database).updateBalances(Map.of(CARD_NUMBER, 70_00L));
+        assertTrue(journal.entries.isEmpty());
+        assertThrows(RejectedExecutionException.class, () -> strategy.debit(debitOf(10), card));
+        strategy = null;
+    }
+
+    private ShardedDebitStrategy start(Duration persistInterval) {
+        return start(persistInterval, 1024);
+    }
+
+    private ShardedDebitStrategy start(Duration persistInterval, int capacity) {
+        return new ShardedDebitStrategy(
+                database,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                journal,
+                meterRegistry,
+                2,
+                capacity,
+                256,
+                persistInterval
+        );
+    }
+
+    private static Transaction debitOf(long amount) {
+        return new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(amount));
+    }
+
+    private static final class InMemoryJournal implements DebitJournalPort {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Integer, Long> discarded = new ConcurrentHashMap<>();
+        private final CountDownLatch appending = new CountDownLatch(1);
+        private volatile boolean failNext;
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void append(int shard, List<Entry> appended) {
+            CountDownLatch holding = gate;
+            if (holding != null) {
+                appending.countDown();
+                try {
+                    holding.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            write(appended);
+        }
+
+        private synchronized void write(List<Entry> appended) {
+            if (failNext) {
+                failNext = false;
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+            entries.addAll(appended);
+        }
+
+        @Override
+        public synchronized long seal(int shard) {
+            return entries.size();
+        }
+
+        @Override
+        public void discard(int shard, long mark) {
+            discarded.put(shard, mark);
+        }
+
+        @Override
+        public synchronized void replay(Consumer<Entry> consumer) {
+            entries.forEach(consumer);
+        }
+
+        @Override
+        public synchronized void reset() {
+            entries.clear();
+        }
+    }
+}
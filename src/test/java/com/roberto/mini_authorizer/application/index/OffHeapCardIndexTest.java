@@ -0,0 +1,89 @@
+package com.roberto.mini_authorizer.application.index;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCardIndexTest {
+
+    private static final long CARD_NUMBER = CardNumber.pack("1234567812345678");
+    private static final long OTHER_CARD_NUMBER = CardNumber.pack("8765432187654321");
+
+    @Test
+    void shouldAssignDenseSlotsOncePerCard() {
+        OffHeapCardIndex index = new OffHeapCardIndex(8);
+
+        assertEquals(0, index.getOrAssign(CARD_NUMBER));
+        assertEquals(1, index.getOrAssign(OTHER_CARD_NUMBER));
+        assertEquals(0, index.getOrAssign(CARD_NUMBER));
+
+        assertEquals(0, index.slotOf(CARD_NUMBER));
+        assertEquals(1, index.slotOf(OTHER_CARD_NUMBER));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldNotFindUnknownOrInvalidCards() {
+        OffHeapCardIndex index = new OffHeapCardIndex(8);
+        index.getOrAssign(CARD_NUMBER);
+
+        assertEquals(-1, index.slotOf(OTHER_CARD_NUMBER));
+        assertEquals(-1, index.slotOf(CardNumber.INVALID));
+        assertThrows(IllegalArgumentException.class, () -> index.getOrAssign(CardNumber.INVALID));
+    }
+
+    @Test
+    void shouldKeepCardZero() {
+        OffHeapCardIndex index = new OffHeapCardIndex(8);
+
+        assertEquals(0, index.getOrAssign(0L));
+        assertEquals(0, index.slotOf(0L));
+    }
+
+    @Test
+    void shouldRejectNewCardsOnceFullButKeepServingKnownOnes() {
+        OffHeapCardIndex index = new OffHeapCardIndex(2);
+        index.getOrAssign(1L);
+        index.getOrAssign(2L);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> index.getOrAssign(3L));
+
+        assertEquals("The card index is full (2 cards)", exception.getMessage());
+        assertEquals(1, index.getOrAssign(2L));
+        assertEquals(-1, index.slotOf(3L));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldSizeTableToTwoBucketsPerCard() {
+        assertEquals(1024 * 2 * 16, new OffHeapCardIndex(1024).memoryBytes());
+        assertEquals(2048 * 2 * 16, new OffHeapCardIndex(1025).memoryBytes());
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCardIndex(OffHeapCardIndex.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    void shouldAssignEachCardOneSlotUnderConcurrentInserts() {
+        OffHeapCardIndex index = new OffHeapCardIndex(1000);
+        long base = CardNumber.pack("4000000000000000");
+
+        List<CompletableFuture<List<Integer>>> threads = IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.supplyAsync(() -> IntStream.range(0, 1000)
+                        .mapToObj(i -> index.getOrAssign(base + i))
+                        .toList()))
+                .toList();
+        List<List<Integer>> slots = threads.stream().map(CompletableFuture::join).toList();
+
+        slots.forEach(seen -> assertEquals(slots.getFirst(), seen));
+        Set<Integer> distinct = slots.getFirst().stream().collect(Collectors.toSet());
+        assertEquals(1000, distinct.size());
+        assertTrue(distinct.stream().allMatch(slot -> slot >= 0 && slot < 1000));
+        assertEquals(1000, index.size());
+    }
+}
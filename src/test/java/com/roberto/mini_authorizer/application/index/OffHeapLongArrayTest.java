@@ -0,0 +1,35 @@
+package com.roberto.mini_authorizer.application.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapLongArrayTest {
+
+    @Test
+    void shouldStartWithInitialValue() {
+        OffHeapLongArray array = new OffHeapLongArray(4, Long.MIN_VALUE);
+
+        assertEquals(Long.MIN_VALUE, array.get(0));
+        assertEquals(Long.MIN_VALUE, array.get(3));
+        assertEquals(32, array.memoryBytes());
+    }
+
+    @Test
+    void shouldReadWhatWasSet() {
+        OffHeapLongArray array = new OffHeapLongArray(4, 0L);
+
+        array.set(2, 70_00L);
+
+        assertEquals(70_00L, array.get(2));
+        assertEquals(0L, array.get(1));
+    }
+
+    @Test
+    void shouldRejectIndexOutsideArray() {
+        OffHeapLongArray array = new OffHeapLongArray(4, 0L);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, 1L));
+    }
+}
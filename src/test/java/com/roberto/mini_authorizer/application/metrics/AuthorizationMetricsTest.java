@@ -0,0 +1,61 @@
+package com.roberto.mini_authorizer.application.metrics;
+
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics.Stage;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthorizationMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new AuthorizationMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldRegisterOneTimerPerStageAndOneCounterPerResult() {
+        assertEquals(Stage.values().length, meterRegistry.get("authorizer.authorize.stage").timers().size());
+        assertEquals(AuthorizationResult.values().length, meterRegistry.get("authorizer.authorizations").counters().size());
+        assertNotNull(meterRegistry.get("authorizer.authorize.stage").tag("stage", "balance-check").timer());
+    }
+
+    @Test
+    void shouldRecordStageFromStartAndReturnItsEnd() {
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+
+        long end = metrics.stage(Stage.LOCK, start);
+
+        Timer lock = meterRegistry.get("authorizer.authorize.stage").tag("stage", "lock").timer();
+        assertEquals(1, lock.count());
+        assertTrue(lock.totalTime(TimeUnit.NANOSECONDS) >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(end - start >= lock.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void shouldTimeAuthorizationAndCountItsResult() {
+        AuthorizationResult result = metrics.authorized(AuthorizationResult.INVALID_PASSWORD, System.nanoTime());
+
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, result);
+        assertEquals(1, meterRegistry.get("authorizer.authorize").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorizations").tag("result", "SENHA_INVALIDA").counter().count());
+    }
+
+    @Test
+    void shouldCountBatchResultsWithoutTiming() {
+        metrics.count(AuthorizationResult.APPROVED);
+        metrics.count(AuthorizationResult.APPROVED);
+
+        assertEquals(2, meterRegistry.get("authorizer.authorizations").tag("result", "OK").counter().count());
+        assertEquals(0, meterRegistry.get("authorizer.authorize").timer().count());
+    }
+}
@@ -0,0 +1,113 @@
+package com.roberto.mini_authorizer.application.ratelimit;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long CARD_NUMBER = CardNumber.pack("1234567812345678");
+    private static final long OTHER_CARD_NUMBER = CardNumber.pack("8765432187654321");
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldGrantBurstThenRefuse() {
+        TokenBucketTable table = new TokenBucketTable(64, 10, 3, nanos::get);
+
+        assertTrue(table.tryAcquire(CARD_NUMBER));
+        assertTrue(table.tryAcquire(CARD_NUMBER));
+        assertTrue(table.tryAcquire(CARD_NUMBER));
+        assertFalse(table.tryAcquire(CARD_NUMBER));
+        assertFalse(table.tryAcquire(CARD_NUMBER));
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRateUpToBurst() {
+        TokenBucketTable table = new TokenBucketTable(64, 10, 3, nanos::get);
+        for (int i = 0; i < 3; i++) {
+            table.tryAcquire(CARD_NUMBER);
+        }
+
+        advance(99);
+        assertFalse(table.tryAcquire(CARD_NUMBER));
+        advance(1);
+        assertTrue(table.tryAcquire(CARD_NUMBER));
+        assertFalse(table.tryAcquire(CARD_NUMBER));
+
+        advance(10_000);
+        assertEquals(3, IntStream.range(0, 5).filter(i -> table.tryAcquire(CARD_NUMBER)).count());
+    }
+
+    @Test
+    void shouldKeepSeparateBucketPerKey() {
+        TokenBucketTable table = new TokenBucketTable(64, 1, 1, nanos::get);
+
+        assertTrue(table.tryAcquire(CARD_NUMBER));
+        assertFalse(table.tryAcquire(CARD_NUMBER));
+        assertTrue(table.tryAcquire(OTHER_CARD_NUMBER));
+    }
+
+    @Test
+    void shouldReplaceIdleBucketsBeforeOnesStillLimiting() {
+        TokenBucketTable table = new TokenBucketTable(4, 1, 2, nanos::get);
+        for (long key = 1; key <= 4; key++) {
+            assertTrue(table.tryAcquire(key));
+        }
+
+        advance(2_000);
+        assertTrue(table.tryAcquire(5));
+        assertEquals(0, table.evictions());
+
+        assertTrue(table.tryAcquire(6));
+        assertTrue(table.tryAcquire(7));
+        assertTrue(table.tryAcquire(8));
+        assertTrue(table.tryAcquire(9));
+        assertEquals(1, table.evictions());
+    }
+
+    @Test
+    void shouldGrantExactlyBurstUnderContention() {
+        TokenBucketTable table = new TokenBucketTable(64, 1, 1_000, nanos::get);
+        AtomicInteger granted = new AtomicInteger();
+
+        List<CompletableFuture<Void>> threads = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (table.tryAcquire(CARD_NUMBER)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }))
+                .toList();
+        threads.forEach(CompletableFuture::join);
+
+        assertEquals(1_000, granted.get());
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(2, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(64, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(64, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(64, 0.000_001, 1_000_000));
+    }
+
+    @Test
+    void shouldRoundTableUpToPowerOfTwo() {
+        assertEquals(8, new TokenBucketTable(5, 10, 1).slots());
+        assertEquals(64, new TokenBucketTable(64, 10, 1).slots());
+    }
+
+    private void advance(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
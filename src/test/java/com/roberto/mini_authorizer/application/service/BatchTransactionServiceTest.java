@@ -0,0 +1,269 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.application.debit.CardLocks;
+import com.roberto.mini_authorizer.application.debit.DebitStrategy;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransactionServiceTest {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+    private static final String OTHER_CARD_NUMBER = "8765432187654321";
+
+    @Mock
+    private CardRepositoryPort cardRepository;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    @Mock
+    private DebitStrategy debitStrategy;
+
+    @Mock
+    private BalanceCachePort balanceCache;
+
+    @Mock
+    private PasswordLockoutPort lockout;
+
+    private BatchTransactionService service;
+
+    @BeforeEach
+    void setup() {
+        service = new BatchTransactionService(
+                cardRepository,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                new CardLocks(true, 16, new SimpleMeterRegistry()),
+                debitStrategy,
+                balanceCache,
+                lockout,
+                new AuthorizationMetrics(new SimpleMeterRegistry()),
+                2,
+                false
+        );
+
+        lenient().when(validatorChain.validate(any(), any(), any()))
+                .thenReturn(AuthorizationResult.APPROVED);
+        lenient().when(debitStrategy.debitsUnderRowLock()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldDebitItemsOfSameCardInOrderAndSaveOnce() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction first = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(60));
+        Transaction second = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(60));
+        Transaction third = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(40));
+
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(validatorChain.validate(same(second), any(), eq(ValidationPhase.UNDER_LOCK)))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(first, second, third));
+
+        assertEquals(List.of(
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.INSUFFICIENT_BALANCE,
+                AuthorizationResult.APPROVED
+        ), results);
+        assertEquals(0, BigDecimal.ZERO.compareTo(card.getBalance()));
+        verify(cardRepository, times(1)).findByCardNumberWithLock(CARD_NUMBER);
+        verify(cardRepository, times(1)).save(card);
+        verify(balanceCache).invalidate(CARD_NUMBER);
+    }
+
+    @Test
+    void shouldReportCardNotFoundWithoutLocking() {
+        Transaction transaction = new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN);
+
+        when(cardRepository.findByCardNumber(OTHER_CARD_NUMBER)).thenReturn(Optional.empty());
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(transaction, transaction));
+
+        assertEquals(List.of(AuthorizationResult.CARD_NOT_FOUND, AuthorizationResult.CARD_NOT_FOUND), results);
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldDeclineItemsOfLockedOutCardWithoutReadingIt() {
+        Transaction locked = new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN);
+        Transaction other = new Transaction(CARD_NUMBER, "1234", BigDecimal.TEN);
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+
+        when(lockout.isLockedOut(OTHER_CARD_NUMBER)).thenReturn(true);
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(locked, other, locked));
+
+        assertEquals(List.of(AuthorizationResult.INVALID_PASSWORD, AuthorizationResult.APPROVED,
+                AuthorizationResult.INVALID_PASSWORD), results);
+        verify(cardRepository, never()).findByCardNumber(OTHER_CARD_NUMBER);
+    }
+
+    @Test
+    void shouldNotLockCardWhenEveryItemHasInvalidPassword() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction transaction = new Transaction(CARD_NUMBER, "0000", BigDecimal.TEN);
+
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(validatorChain.validate(same(transaction), any(), eq(ValidationPhase.BEFORE_LOCK)))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(transaction));
+
+        assertEquals(List.of(AuthorizationResult.INVALID_PASSWORD), results);
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        verifyNoInteractions(balanceCache);
+    }
+
+    @Test
+    void shouldKeepRequestOrderAcrossCards() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction approved = new Transaction(CARD_NUMBER, "1234", BigDecimal.TEN);
+        Transaction missing = new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN);
+
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(cardRepository.findByCardNumber(OTHER_CARD_NUMBER)).thenReturn(Optional.empty());
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(missing, approved, missing));
+
+        assertEquals(List.of(
+                AuthorizationResult.CARD_NOT_FOUND,
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.CARD_NOT_FOUND
+        ), results);
+    }
+
+    @Test
+    void shouldReportOtherCardsWhenOneCardFails() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Card other = new Card(2L, OTHER_CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction approved = new Transaction(CARD_NUMBER, "1234", BigDecimal.TEN);
+        Transaction failing = new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN);
+
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(cardRepository.findByCardNumber(OTHER_CARD_NUMBER)).thenReturn(Optional.of(other));
+        when(cardRepository.findByCardNumberWithLock(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(cardRepository.findByCardNumberWithLock(OTHER_CARD_NUMBER)).thenReturn(Optional.of(other));
+        lenient().doThrow(new IllegalStateException("deadlock")).when(cardRepository).save(same(other));
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(approved, failing, failing));
+
+        assertEquals(List.of(
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.ERROR,
+                AuthorizationResult.ERROR
+        ), results);
+        verify(cardRepository).save(card);
+        verify(balanceCache).invalidate(CARD_NUMBER);
+        verify(balanceCache, never()).invalidate(OTHER_CARD_NUMBER);
+    }
+
+    @Test
+    void shouldReportErrorOnlyForFailedItemOfStrategyWithoutRowLock() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction first = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(10));
+        Transaction failing = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(20));
+        Transaction third = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(30));
+
+        when(debitStrategy.debitsUnderRowLock()).thenReturn(false);
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(debitStrategy.debit(same(first), same(card))).thenReturn(AuthorizationResult.APPROVED);
+        when(debitStrategy.debit(same(failing), same(card))).thenThrow(new IllegalStateException("journal full"));
+        when(debitStrategy.debit(same(third), same(card))).thenReturn(AuthorizationResult.APPROVED);
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(first, failing, third));
+
+        assertEquals(List.of(
+                AuthorizationResult.APPROVED,
+                AuthorizationResult.ERROR,
+                AuthorizationResult.APPROVED
+        ), results);
+    }
+
+    @Test
+    void shouldHandItemsToStrategyWithoutRowLock() {
+        Card card = new Card(1L, CARD_NUMBER, "1234", BigDecimal.valueOf(100));
+        Transaction first = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(60));
+        Transaction second = new Transaction(CARD_NUMBER, "1234", BigDecimal.valueOf(50));
+
+        when(debitStrategy.debitsUnderRowLock()).thenReturn(false);
+        when(cardRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(card));
+        when(debitStrategy.debit(same(first), same(card))).thenReturn(AuthorizationResult.APPROVED);
+        when(debitStrategy.debit(same(second), same(card))).thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        List<AuthorizationResult> results = service.authorizeAll(List.of(first, second));
+
+        assertEquals(List.of(AuthorizationResult.APPROVED, AuthorizationResult.INSUFFICIENT_BALANCE), results);
+        var order = inOrder(debitStrategy);
+        order.verify(debitStrategy).debit(same(first), same(card));
+        order.verify(debitStrategy).debit(same(second), same(card));
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
+        verify(cardRepository, never()).save(any());
+        verify(balanceCache).invalidate(CARD_NUMBER);
+    }
+
+    @Test
+    void shouldAuthorizeCardsOnVirtualThreadsWhenEnabled() {
+        BatchTransactionService virtual = new BatchTransactionService(
+                cardRepository,
+                validatorChain,
+                TransactionOperations.withoutTransaction(),
+                new CardLocks(true, 16, new SimpleMeterRegistry()),
+                debitStrategy,
+                balanceCache,
+                lockout,
+                new AuthorizationMetrics(new SimpleMeterRegistry()),
+                2,
+                true
+        );
+        List<Boolean> virtualThreads = new CopyOnWriteArrayList<>();
+        when(cardRepository.findByCardNumber(OTHER_CARD_NUMBER)).thenAnswer(invocation -> {
+            virtualThreads.add(Thread.currentThread().isVirtual());
+            return Optional.empty();
+        });
+
+        try {
+            virtual.authorizeAll(List.of(new Transaction(OTHER_CARD_NUMBER, "1234", BigDecimal.TEN)));
+        } finally {
+            virtual.shutdown();
+        }
+
+        assertEquals(List.of(true), virtualThreads);
+    }
+}
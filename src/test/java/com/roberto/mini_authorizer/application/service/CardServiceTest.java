@@ -3,7 +3,9 @@ package com.roberto.mini_authorizer.application.service;
 import com.roberto.mini_authorizer.domain.exceptions.CardAlreadyExistsException;
 import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundException;
 import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
 import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +30,12 @@ class CardServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CredentialCachePort credentialCache;
+
+    @Mock
+    private BalanceCachePort balanceCache;
+
     @InjectMocks
     private CardService cardService;
 
@@ -49,6 +58,8 @@ class CardServiceTest {
 
         verify(passwordEncoder).encode(password);
         verify(cardRepository).save(any(Card.class));
+        verify(credentialCache).invalidate(cardNumber);
+        verify(balanceCache).invalidate(cardNumber);
     }
 
     @Test
@@ -71,21 +82,33 @@ class CardServiceTest {
 
     @Test
     void shouldReturnBalanceWhenCardExists() {
-        Card card = Card.create(cardNumber, encodedPassword);
-
-        when(cardRepository.findByCardNumber(cardNumber))
-                .thenReturn(Optional.of(card));
+        readThroughBalanceCache();
+        when(cardRepository.findBalanceByCardNumber(cardNumber))
+                .thenReturn(Optional.of(BigDecimal.valueOf(500)));
 
         BigDecimal result = cardService.getBalance(cardNumber);
 
         assertEquals(0, result.compareTo(BigDecimal.valueOf(500)));
-        verify(cardRepository).findByCardNumber(cardNumber);
+        verify(cardRepository).findBalanceByCardNumber(cardNumber);
+        verify(cardRepository, never()).findByCardNumber(any());
+    }
+
+    @Test
+    void shouldReturnCachedBalanceWithoutReadingCard() {
+        when(balanceCache.get(eq(cardNumber), any()))
+                .thenReturn(Optional.of(BigDecimal.valueOf(250)));
+
+        BigDecimal result = cardService.getBalance(cardNumber);
+
+        assertEquals(0, result.compareTo(BigDecimal.valueOf(250)));
+        verifyNoInteractions(cardRepository);
     }
 
 
     @Test
     void shouldThrowExceptionWhenCardDoesNotExist() {
-        when(cardRepository.findByCardNumber(cardNumber))
+        readThroughBalanceCache();
+        when(cardRepository.findBalanceByCardNumber(cardNumber))
                 .thenReturn(Optional.empty());
 
         assertThrows(
@@ -93,6 +116,12 @@ class CardServiceTest {
                 () -> cardService.getBalance(cardNumber)
         );
 
-        verify(cardRepository).findByCardNumber(cardNumber);
+        verify(cardRepository).findBalanceByCardNumber(cardNumber);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readThroughBalanceCache() {
+        when(balanceCache.get(eq(cardNumber), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1, Function.class).apply(cardNumber));
     }
 }
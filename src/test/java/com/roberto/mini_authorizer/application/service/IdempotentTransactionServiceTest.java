@@ -0,0 +1,200 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyInProgressException;
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyMismatchException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort;
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentTransactionServiceTest {
+
+    @Mock
+    private TransactionServicePort transactionService;
+
+    @Mock
+    private TransactionPersistencePort transactionPersistence;
+
+    @InjectMocks
+    private IdempotentTransactionService idempotentService;
+
+    private Transaction transaction;
+    private String fingerprint;
+
+    @BeforeEach
+    void setup() {
+        transaction = new Transaction("1234567812345678", "1234", BigDecimal.valueOf(100));
+        fingerprint = IdempotentTransactionService.fingerprint("client", transaction);
+    }
+
+    @Test
+    void shouldReturnStoredResultWithoutAuthorizingAgain() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.of(new IdempotencyRecord(fingerprint, "OK")));
+
+        AuthorizationResult result = idempotentService.authorize(transaction, "client", "key-1");
+
+        assertEquals(AuthorizationResult.APPROVED, result);
+        verifyNoInteractions(transactionService);
+        verify(transactionPersistence, never()).reserve(any(), any());
+    }
+
+    @Test
+    void shouldAuthorizeAndRecordResultForNewKey() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.empty());
+        when(transactionPersistence.reserve("key-1", fingerprint)).thenReturn(true);
+        when(transactionService.authorize(transaction)).thenReturn(AuthorizationResult.APPROVED);
+
+        AuthorizationResult result = idempotentService.authorize(transaction, "client", "key-1");
+
+        assertEquals(AuthorizationResult.APPROVED, result);
+        verify(transactionService).authorize(transaction);
+        verify(transactionPersistence).markAsProcessed("key-1", fingerprint, "OK");
+    }
+
+    @Test
+    void shouldRecordDeclinesAsResults() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.empty());
+        when(transactionPersistence.reserve("key-1", fingerprint)).thenReturn(true);
+        when(transactionService.authorize(transaction)).thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        AuthorizationResult result = idempotentService.authorize(transaction, "client", "key-1");
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, result);
+        verify(transactionPersistence).markAsProcessed("key-1", fingerprint, "SALDO_INSUFICIENTE");
+    }
+
+    @Test
+    void shouldReleaseKeyWhenAuthorizationFailsUnexpectedly() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.empty());
+        when(transactionPersistence.reserve("key-1", fingerprint)).thenReturn(true);
+        doThrow(new IllegalStateException("database down")).when(transactionService).authorize(transaction);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> idempotentService.authorize(transaction, "client", "key-1")
+        );
+
+        verify(transactionPersistence).release("key-1");
+        verify(transactionPersistence, never()).markAsProcessed(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentAmount() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.of(new IdempotencyRecord(fingerprint, "OK")));
+        Transaction otherAmount = new Transaction("1234567812345678", "1234", BigDecimal.valueOf(200));
+
+        assertThrows(
+                IdempotencyKeyMismatchException.class,
+                () -> idempotentService.authorize(otherAmount, "client", "key-1")
+        );
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void shouldRejectKeyReusedByDifferentClient() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.of(new IdempotencyRecord(fingerprint, "OK")));
+
+        assertThrows(
+                IdempotencyKeyMismatchException.class,
+                () -> idempotentService.authorize(transaction, "other-client", "key-1")
+        );
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void shouldRejectPendingKeyReservedForDifferentRequest() {
+        when(transactionPersistence.find("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyRecord("other", null)));
+        when(transactionPersistence.reserve("key-1", fingerprint)).thenReturn(false);
+
+        assertThrows(
+                IdempotencyKeyMismatchException.class,
+                () -> idempotentService.authorize(transaction, "client", "key-1")
+        );
+    }
+
+    @Test
+    void shouldMatchKeysStoredWithoutFingerprint() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.of(new IdempotencyRecord(null, "OK")));
+
+        assertEquals(AuthorizationResult.APPROVED, idempotentService.authorize(transaction, "client", "key-1"));
+    }
+
+    @Test
+    void shouldRejectKeyStillBeingProcessedElsewhere() {
+        when(transactionPersistence.find("key-1")).thenReturn(Optional.empty());
+        when(transactionPersistence.reserve("key-1", fingerprint)).thenReturn(false);
+
+        assertThrows(
+                IdempotencyKeyInProgressException.class,
+                () -> idempotentService.authorize(transaction, "client", "key-1")
+        );
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void shouldAuthorizeOnceForConcurrentRequestsWithSameKey() throws Exception {
+        CountDownLatch authorizing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AtomicReference<String> stored = new AtomicReference<>();
+        AtomicBoolean reserved = new AtomicBoolean();
+
+        when(transactionPersistence.find("key-1"))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get())
+                        .map(result -> new IdempotencyRecord(fingerprint, result)));
+        when(transactionPersistence.reserve("key-1", fingerprint))
+                .thenAnswer(invocation -> reserved.compareAndSet(false, true));
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(2));
+            return null;
+        }).when(transactionPersistence).markAsProcessed(eq("key-1"), eq(fingerprint), any());
+        doAnswer(invocation -> {
+            authorizing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return AuthorizationResult.APPROVED;
+        }).when(transactionService).authorize(transaction);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthorizationResult> first = executor.submit(() -> idempotentService.authorize(transaction, "client", "key-1"));
+            assertTrue(authorizing.await(5, TimeUnit.SECONDS));
+            Future<AuthorizationResult> second = executor.submit(() -> idempotentService.authorize(transaction, "client", "key-1"));
+
+            release.countDown();
+
+            assertEquals(AuthorizationResult.APPROVED, first.get(5, TimeUnit.SECONDS));
+            assertEquals(AuthorizationResult.APPROVED, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(transactionService, times(1)).authorize(transaction);
+    }
+}
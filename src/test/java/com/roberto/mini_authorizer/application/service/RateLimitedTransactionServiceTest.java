@@ -0,0 +1,53 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.domain.exceptions.RateLimitExceededException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitedTransactionServiceTest {
+
+    private TransactionServicePort transactionService;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitedTransactionService rateLimited;
+
+    @BeforeEach
+    void setup() {
+        transactionService = mock(TransactionServicePort.class);
+        when(transactionService.authorize(any())).thenReturn(AuthorizationResult.APPROVED);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimited = new RateLimitedTransactionService(transactionService, 0.001, 2, 64, meterRegistry);
+    }
+
+    @Test
+    void shouldRefuseCardOverItsLimitWithoutAuthorizing() {
+        Transaction transaction = new Transaction("1234567812345678", "1234", BigDecimal.TEN);
+
+        assertEquals(AuthorizationResult.APPROVED, rateLimited.authorize(transaction));
+        assertEquals(AuthorizationResult.APPROVED, rateLimited.authorize(transaction));
+        assertThrows(RateLimitExceededException.class, () -> rateLimited.authorize(transaction));
+
+        verify(transactionService, times(2)).authorize(same(transaction));
+        assertEquals(1, meterRegistry.get("authorizer.rate-limit.throttled").tag("key", "card").counter().count());
+    }
+
+    @Test
+    void shouldLimitEachCardSeparately() {
+        Transaction transaction = new Transaction("1234567812345678", "1234", BigDecimal.TEN);
+        Transaction other = new Transaction("8765432187654321", "1234", BigDecimal.TEN);
+
+        rateLimited.authorize(transaction);
+        rateLimited.authorize(transaction);
+
+        assertEquals(AuthorizationResult.APPROVED, rateLimited.authorize(other));
+    }
+}
@@ -0,0 +1,94 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.domain.exceptions.CardAlreadyExistsException;
+import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundException;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import com.roberto.mini_authorizer.ports.out.ReactiveCardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCardServiceTest {
+
+    @Mock
+    private ReactiveCardRepositoryPort cardRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private CredentialCachePort credentialCache;
+
+    private ReactiveCardService cardService;
+
+    private final String cardNumber = "1234567890123456";
+    private final String password = "1234";
+    private final String encodedPassword = "encoded-password";
+
+    @BeforeEach
+    void setup() {
+        cardService = new ReactiveCardService(cardRepository, passwordEncoder, credentialCache, Schedulers.immediate());
+    }
+
+    @Test
+    void shouldCreateCardWithEncodedPassword() {
+        when(passwordEncoder.encode(password)).thenReturn(encodedPassword);
+        when(cardRepository.save(any(Card.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, Card.class)));
+
+        StepVerifier.create(cardService.createCard(cardNumber, password))
+                .assertNext(card -> {
+                    assertEquals(cardNumber, card.getCardNumber());
+                    assertEquals(encodedPassword, card.getPassword());
+                })
+                .verifyComplete();
+
+        verify(credentialCache).invalidate(cardNumber);
+    }
+
+    @Test
+    void shouldMapDuplicateKeyToCardAlreadyExists() {
+        when(passwordEncoder.encode(password)).thenReturn(encodedPassword);
+        when(cardRepository.save(any(Card.class)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        StepVerifier.create(cardService.createCard(cardNumber, password))
+                .expectError(CardAlreadyExistsException.class)
+                .verify();
+
+        verify(credentialCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void shouldReturnBalance() {
+        when(cardRepository.findByCardNumber(cardNumber))
+                .thenReturn(Mono.just(new Card(1L, cardNumber, encodedPassword, new BigDecimal("500.00"))));
+
+        StepVerifier.create(cardService.getBalance(cardNumber))
+                .expectNext(new BigDecimal("500.00"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWithCardNotFoundWhenCardDoesNotExist() {
+        when(cardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.empty());
+
+        StepVerifier.create(cardService.getBalance(cardNumber))
+                .expectError(CardNotFoundException.class)
+                .verify();
+    }
+}
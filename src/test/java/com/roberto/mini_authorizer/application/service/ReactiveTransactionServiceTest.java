@@ -0,0 +1,128 @@
+package com.roberto.mini_authorizer.application.service;
+
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
+import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import com.roberto.mini_authorizer.ports.out.ReactiveCardRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+
+    @Mock
+    private ReactiveCardRepositoryPort cardRepository;
+
+    @Mock
+    private ValidatorChain validatorChain;
+
+    @Mock
+    private PasswordLockoutPort lockout;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveTransactionService transactionService;
+    private Transaction transaction;
+    private Card card;
+
+    @BeforeEach
+    void setup() {
+        transactionService = new ReactiveTransactionService(
+                cardRepository,
+                validatorChain,
+                Schedulers.immediate(),
+                lockout,
+                new AuthorizationMetrics(meterRegistry)
+        );
+
+        transaction = new Transaction("1234567812345678", "1234", BigDecimal.valueOf(100));
+        card = new Card(1L, "1234567812345678", "1234", BigDecimal.valueOf(500));
+    }
+
+    @Test
+    void shouldDeclineLockedOutCardWithoutReadingIt() {
+        when(lockout.isLockedOut(transaction.getCardNumber())).thenReturn(true);
+
+        StepVerifier.create(transactionService.authorize(transaction))
+                .expectNext(AuthorizationResult.INVALID_PASSWORD)
+                .verifyComplete();
+
+        verifyNoInteractions(cardRepository, validatorChain);
+    }
+
+    @Test
+    void shouldDebitWhenCredentialsAreValid() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber())).thenReturn(Mono.just(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.APPROVED);
+        when(cardRepository.tryDebit(transaction.getCardNumber(), transaction.getAmountCents()))
+                .thenReturn(Mono.just(true));
+
+        StepVerifier.create(transactionService.authorize(transaction))
+                .expectNext(AuthorizationResult.APPROVED)
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.get("authorizer.authorize").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorizations").tag("result", "OK").counter().count());
+    }
+
+    @Test
+    void shouldDeclineWhenConditionalDebitMatchesNoRow() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber())).thenReturn(Mono.just(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.APPROVED);
+        when(cardRepository.tryDebit(transaction.getCardNumber(), transaction.getAmountCents()))
+                .thenReturn(Mono.just(false));
+
+        StepVerifier.create(transactionService.authorize(transaction))
+                .expectNext(AuthorizationResult.INSUFFICIENT_BALANCE)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotDebitWhenCredentialsAreInvalid() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber())).thenReturn(Mono.just(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
+
+        StepVerifier.create(transactionService.authorize(transaction))
+                .expectNext(AuthorizationResult.INVALID_PASSWORD)
+                .verifyComplete();
+
+        verify(cardRepository, never()).tryDebit(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldReturnCardNotFoundWhenCardDoesNotExist() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber())).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.authorize(transaction))
+                .expectNext(AuthorizationResult.CARD_NOT_FOUND)
+                .verifyComplete();
+
+        verifyNoInteractions(validatorChain);
+    }
+
+    @Test
+    void shouldNotTouchRepositoryBeforeSubscription() {
+        transactionService.authorize(transaction);
+
+        verifyNoInteractions(cardRepository, validatorChain);
+    }
+}
@@ -1,15 +1,23 @@
 package com.roberto.mini_authorizer.application.service;
 
-import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundForTransactionException;
+import com.roberto.mini_authorizer.application.debit.DebitStrategy;
+import com.roberto.mini_authorizer.application.metrics.AuthorizationMetrics;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.domain.validator.ValidationPhase;
 import com.roberto.mini_authorizer.domain.validator.ValidatorChain;
+import com.roberto.mini_authorizer.ports.out.BalanceCachePort;
 import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -27,6 +35,20 @@ class TransactionServiceTest {
     @Mock
     private ValidatorChain validatorChain;
 
+    @Mock
+    private DebitStrategy debitStrategy;
+
+    @Mock
+    private BalanceCachePort balanceCache;
+
+    @Mock
+    private PasswordLockoutPort lockout;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthorizationMetrics metrics = new AuthorizationMetrics(meterRegistry);
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -49,54 +71,88 @@ class TransactionServiceTest {
         );
     }
 
+    @Test
+    void shouldDeclineLockedOutCardWithoutReadingIt() {
+        when(lockout.isLockedOut(transaction.getCardNumber())).thenReturn(true);
+
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, transactionService.authorize(transaction));
+
+        verifyNoInteractions(cardRepository, validatorChain, debitStrategy);
+    }
+
     @Test
     void shouldAuthorizeTransactionSuccessfully() {
-        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
                 .thenReturn(Optional.of(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.APPROVED);
+        when(debitStrategy.debit(transaction, card))
+                .thenReturn(AuthorizationResult.APPROVED);
 
-        transactionService.authorize(transaction);
+        assertEquals(AuthorizationResult.APPROVED, transactionService.authorize(transaction));
 
-        verify(validatorChain).validate(transaction, card);
-        verify(cardRepository).save(card);
+        InOrder inOrder = inOrder(validatorChain, debitStrategy);
+        inOrder.verify(validatorChain).validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+        inOrder.verify(debitStrategy).debit(transaction, card);
+        verify(balanceCache).invalidate(transaction.getCardNumber());
+    }
 
-        assertEquals(
-                0,
-                BigDecimal.valueOf(400).compareTo(card.getBalance())
-        );
+    @Test
+    void shouldNotDebitWhenCredentialCheckFails() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
+
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, transactionService.authorize(transaction));
+
+        verifyNoInteractions(debitStrategy);
+        verify(cardRepository, never()).findByCardNumberWithLock(any());
     }
 
     @Test
-    void shouldThrowExceptionWhenCardDoesNotExist() {
-        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+    void shouldReturnDebitDecline() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
+                .thenReturn(Optional.of(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.APPROVED);
+        when(debitStrategy.debit(transaction, card))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, transactionService.authorize(transaction));
+        verifyNoInteractions(balanceCache);
+    }
+
+    @Test
+    void shouldReturnCardNotFoundWhenCardDoesNotExist() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
                 .thenReturn(Optional.empty());
 
-        assertThrows(
-                CardNotFoundForTransactionException.class,
-                () -> transactionService.authorize(transaction)
-        );
+        assertEquals(AuthorizationResult.CARD_NOT_FOUND, transactionService.authorize(transaction));
 
         verify(cardRepository)
-                .findByCardNumberWithLock(transaction.getCardNumber());
+                .findByCardNumber(transaction.getCardNumber());
         verifyNoInteractions(validatorChain);
-        verify(cardRepository, never()).save(any());
+        verifyNoInteractions(debitStrategy);
     }
 
     @Test
-    void shouldNotSaveCardWhenValidationFails() {
-        when(cardRepository.findByCardNumberWithLock(transaction.getCardNumber()))
+    void shouldRecordStagesAndCountResult() {
+        when(cardRepository.findByCardNumber(transaction.getCardNumber()))
                 .thenReturn(Optional.of(card));
+        when(validatorChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK))
+                .thenReturn(AuthorizationResult.APPROVED);
+        when(debitStrategy.debit(transaction, card))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
 
-        doThrow(new RuntimeException("validation error"))
-                .when(validatorChain)
-                .validate(transaction, card);
-
-        assertThrows(
-                RuntimeException.class,
-                () -> transactionService.authorize(transaction)
-        );
+        transactionService.authorize(transaction);
 
-        verify(validatorChain).validate(transaction, card);
-        verify(cardRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("authorizer.authorize").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorize.stage").tag("stage", "read").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorize.stage").tag("stage", "credentials").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorize.stage").tag("stage", "debit").timer().count());
+        assertEquals(1, meterRegistry.get("authorizer.authorizations").tag("result", "SALDO_INSUFICIENTE").counter().count());
+        assertEquals(0, meterRegistry.get("authorizer.authorizations").tag("result", "OK").counter().count());
     }
-
 }
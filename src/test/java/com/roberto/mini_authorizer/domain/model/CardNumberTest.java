@@ -0,0 +1,45 @@
+package com.roberto.mini_authorizer.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberTest {
+
+    @Test
+    void shouldPackSixteenDigitsIntoLong() {
+        assertEquals(1234567890123456L, CardNumber.pack("1234567890123456"));
+        assertEquals(42L, CardNumber.pack("0000000000000042"));
+        assertEquals(9999999999999999L, CardNumber.pack("9999999999999999"));
+    }
+
+    @Test
+    void shouldRejectAnythingButSixteenDigits() {
+        assertEquals(CardNumber.INVALID, CardNumber.pack(null));
+        assertEquals(CardNumber.INVALID, CardNumber.pack("123456789012345"));
+        assertEquals(CardNumber.INVALID, CardNumber.pack("12345678901234567"));
+        assertEquals(CardNumber.INVALID, CardNumber.pack("123456789012345x"));
+        assertEquals(CardNumber.INVALID, CardNumber.pack("-123456789012345"));
+    }
+
+    @Test
+    void shouldUnpackWithLeadingZeros() {
+        assertEquals("0000000000000042", CardNumber.unpack(42L));
+        assertEquals("1234567890123456", CardNumber.unpack(CardNumber.pack("1234567890123456")));
+    }
+
+    @Test
+    void shouldSpreadSequentialNumbersOverLowBits() {
+        long base = CardNumber.pack("1234567890123456");
+        int mask = 0xFF;
+
+        long distinctBuckets = LongStream.range(0, 256)
+                .map(i -> CardNumber.hash(base + i) & mask)
+                .distinct()
+                .count();
+
+        assertTrue(distinctBuckets > 128, "only " + distinctBuckets + " of 256 buckets used");
+    }
+}
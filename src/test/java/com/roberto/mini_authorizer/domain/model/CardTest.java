@@ -54,6 +54,26 @@ class CardTest {
         assertEquals(new BigDecimal("400.00"), card.getBalance());
     }
 
+    @Test
+    void shouldDebitBalanceInCents() {
+        Card card = Card.create("1234567890123456", "1234");
+
+        card.debit(12_345L);
+
+        assertEquals(37_655L, card.getBalanceCents());
+        assertEquals(new BigDecimal("376.55"), card.getBalance());
+    }
+
+    @Test
+    void shouldDebitWholeBalance() {
+        Card card = Card.create("1234567890123456", "1234");
+
+        card.debit(new BigDecimal("500.00"));
+
+        assertEquals(0L, card.getBalanceCents());
+        assertThrows(InsufficientBalanceException.class, () -> card.debit(1L));
+    }
+
     @Test
     void shouldThrowExceptionWhenBalanceIsInsufficient() {
         Card card = Card.create("1234567890123456", "1234");
@@ -64,6 +84,19 @@ class CardTest {
         );
     }
 
+    @Test
+    void shouldThrowSharedStacklessExceptionWhenBalanceIsInsufficient() {
+        Card card = Card.create("1234567890123456", "1234");
+
+        InsufficientBalanceException exception = assertThrows(
+                InsufficientBalanceException.class,
+                () -> card.debit(60_000L)
+        );
+
+        assertSame(InsufficientBalanceException.INSTANCE, exception);
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
     @Test
     void shouldThrowExceptionWhenDebitAmountIsZeroOrNegative() {
         Card card = Card.create("1234567890123456", "1234");
@@ -94,6 +127,8 @@ class CardTest {
 
         assertTrue(card.hasSufficientBalance(BigDecimal.valueOf(100)));
         assertFalse(card.hasSufficientBalance(BigDecimal.valueOf(600)));
+        assertTrue(card.hasSufficientBalance(50_000L));
+        assertFalse(card.hasSufficientBalance(50_001L));
     }
 
     @Test
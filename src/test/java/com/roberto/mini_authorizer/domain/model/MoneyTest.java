@@ -0,0 +1,37 @@
+package com.roberto.mini_authorizer.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void shouldConvertAmountToCents() {
+        assertEquals(1_050L, Money.toCents(new BigDecimal("10.50")));
+        assertEquals(1_000L, Money.toCents(BigDecimal.TEN));
+        assertEquals(1L, Money.toCents(new BigDecimal("0.01")));
+    }
+
+    @Test
+    void shouldRoundHalfEvenWhenConvertingToCents() {
+        assertEquals(1_000L, Money.toCents(new BigDecimal("10.005")));
+        assertEquals(1_002L, Money.toCents(new BigDecimal("10.015")));
+    }
+
+    @Test
+    void shouldConvertCentsToAmountWithTwoDecimals() {
+        assertEquals(new BigDecimal("10.50"), Money.fromCents(1_050L));
+        assertEquals(new BigDecimal("0.00"), Money.fromCents(0L));
+    }
+
+    @Test
+    void shouldRejectAmountsThatDoNotFitInCents() {
+        assertThrows(
+                ArithmeticException.class,
+                () -> Money.toCents(new BigDecimal("1e20"))
+        );
+    }
+}
@@ -19,10 +19,19 @@ class TransactionTest {
         assertNotNull(transaction);
         assertEquals("1234567890123456", transaction.getCardNumber());
         assertEquals("1234", transaction.getCardPassword());
-        assertEquals(BigDecimal.valueOf(100), transaction.getAmount());
+        assertEquals(new BigDecimal("100.00"), transaction.getAmount());
+        assertEquals(10_000L, transaction.getAmountCents());
+        assertEquals(1234567890123456L, transaction.getPackedCardNumber());
         assertNotNull(transaction.getTimestamp());
     }
 
+    @Test
+    void shouldMarkCardNumberThatCannotBePacked() {
+        Transaction transaction = new Transaction("1234-5678", "1234", BigDecimal.valueOf(100));
+
+        assertEquals(CardNumber.INVALID, transaction.getPackedCardNumber());
+    }
+
     @Test
     void shouldThrowExceptionWhenCardNumberIsNull() {
         IllegalArgumentException exception = assertThrows(
@@ -86,6 +95,28 @@ class TransactionTest {
         );
     }
 
+    @Test
+    void shouldRoundAmountToCents() {
+        Transaction transaction = new Transaction(
+                "1234567890123456",
+                "1234",
+                new BigDecimal("10.005")
+        );
+
+        assertEquals(1_000L, transaction.getAmountCents());
+    }
+
+    @Test
+    void shouldCreateTransactionFromCents() {
+        Transaction transaction = new Transaction("1234567890123456", "1234", 1_050L);
+
+        assertEquals(new BigDecimal("10.50"), transaction.getAmount());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new Transaction("1234567890123456", "1234", 0L)
+        );
+    }
+
     @Test
     void shouldBeEqualWhenCardNumberIsSame() {
         Transaction t1 = new Transaction(
@@ -1,8 +1,10 @@
 package com.roberto.mini_authorizer.domain.validator;
 
-import com.roberto.mini_authorizer.domain.exceptions.InvalidPasswordException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import com.roberto.mini_authorizer.ports.out.PasswordLockoutPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +14,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.math.BigDecimal;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CorrectPasswordValidatorTest {
@@ -22,6 +24,12 @@ class CorrectPasswordValidatorTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
+    @Mock
+    CredentialCachePort credentialCache;
+
+    @Mock
+    PasswordLockoutPort lockout;
+
     CorrectPasswordValidator validator;
 
     Card card;
@@ -29,7 +37,7 @@ class CorrectPasswordValidatorTest {
 
     @BeforeEach
     void setup() {
-        validator = new CorrectPasswordValidator(passwordEncoder);
+        validator = new CorrectPasswordValidator(passwordEncoder, credentialCache, lockout);
 
         card = new Card(
                 "1234567890123456",
@@ -49,20 +57,42 @@ class CorrectPasswordValidatorTest {
         when(passwordEncoder.matches("raw-password", "encoded-password"))
                 .thenReturn(true);
 
-        assertDoesNotThrow(() ->
-                validator.validate(transaction, card)
-        );
+        assertEquals(AuthorizationResult.APPROVED, validator.validate(transaction, card));
+
+        verify(credentialCache).markVerified("1234567890123456", "raw-password", "encoded-password");
+        verify(lockout).reset("1234567890123456");
     }
 
     @Test
-    void shouldThrowExceptionWhenPasswordDoesNotMatch() {
+    void shouldDeclineWhenPasswordDoesNotMatch() {
         when(passwordEncoder.matches("raw-password", "encoded-password"))
                 .thenReturn(false);
 
-        assertThrows(
-                InvalidPasswordException.class,
-                () -> validator.validate(transaction, card)
-        );
+        assertEquals(AuthorizationResult.INVALID_PASSWORD, validator.validate(transaction, card));
+
+        verify(credentialCache, never()).markVerified(any(), any(), any());
+        verify(lockout).recordFailure("1234567890123456");
+    }
+
+    @Test
+    void shouldSkipPasswordEncoderWhenCredentialIsCached() {
+        when(credentialCache.isVerified("1234567890123456", "raw-password", "encoded-password"))
+                .thenReturn(true);
+
+        assertEquals(AuthorizationResult.APPROVED, validator.validate(transaction, card));
+
+        verifyNoInteractions(passwordEncoder);
+        verify(lockout).reset("1234567890123456");
+    }
+
+    @Test
+    void shouldLeaveLockoutCheckToTheServices() {
+        when(passwordEncoder.matches("raw-password", "encoded-password"))
+                .thenReturn(true);
+
+        validator.validate(transaction, card);
+
+        verify(lockout, never()).isLockedOut(any());
     }
 
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.roberto.mini_authorizer.domain.validator;
 
-import com.roberto.mini_authorizer.domain.exceptions.InsufficientBalanceException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
 import org.junit.jupiter.api.Test;
@@ -30,13 +30,11 @@ class SufficientBalanceValidatorTest {
 
         SufficientBalanceValidator validator = new SufficientBalanceValidator();
 
-        assertDoesNotThrow(() ->
-                validator.validate(transaction, card)
-        );
+        assertEquals(AuthorizationResult.APPROVED, validator.validate(transaction, card));
     }
 
     @Test
-    void shouldThrowExceptionWhenBalanceIsInsufficient() {
+    void shouldDeclineWhenBalanceIsInsufficient() {
         Card card = new Card(
                 "1234567890123456",
                 "encoded-password",
@@ -51,10 +49,7 @@ class SufficientBalanceValidatorTest {
 
         SufficientBalanceValidator validator = new SufficientBalanceValidator();
 
-        assertThrows(
-                InsufficientBalanceException.class,
-                () -> validator.validate(transaction, card)
-        );
+        assertEquals(AuthorizationResult.INSUFFICIENT_BALANCE, validator.validate(transaction, card));
     }
 
     @Test
@@ -73,9 +68,7 @@ class SufficientBalanceValidatorTest {
 
         SufficientBalanceValidator validator = new SufficientBalanceValidator();
 
-        assertDoesNotThrow(() ->
-                validator.validate(transaction, card)
-        );
+        assertEquals(AuthorizationResult.APPROVED, validator.validate(transaction, card));
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.roberto.mini_authorizer.domain.validator;
 
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.domain.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,7 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +37,10 @@ class ValidatorChainTest {
 
     @BeforeEach
     void setup() {
+        lenient().when(validator1.validate(transaction, card)).thenReturn(AuthorizationResult.APPROVED);
+        lenient().when(validator2.validate(transaction, card)).thenReturn(AuthorizationResult.APPROVED);
+        lenient().when(validator3.validate(transaction, card)).thenReturn(AuthorizationResult.APPROVED);
+
         validatorChain = new ValidatorChain(
                 List.of(validator1, validator2, validator3)
         );
@@ -43,7 +48,7 @@ class ValidatorChainTest {
 
     @Test
     void shouldExecuteAllValidators() {
-        validatorChain.validate(transaction, card);
+        assertEquals(AuthorizationResult.APPROVED, validatorChain.validate(transaction, card));
 
         verify(validator1).validate(transaction, card);
         verify(validator2).validate(transaction, card);
@@ -62,16 +67,12 @@ class ValidatorChainTest {
     }
 
     @Test
-    void shouldStopExecutionWhenValidatorThrowsException() {
-        RuntimeException exception = new RuntimeException("validation failed");
-
-        doThrow(exception)
-                .when(validator2)
-                .validate(transaction, card);
+    void shouldStopExecutionAtFirstDecline() {
+        when(validator2.validate(transaction, card)).thenReturn(AuthorizationResult.INVALID_PASSWORD);
 
-        assertThrows(
-                RuntimeException.class,
-                () -> validatorChain.validate(transaction, card)
+        assertEquals(
+                AuthorizationResult.INVALID_PASSWORD,
+                validatorChain.validate(transaction, card)
         );
 
         verify(validator1).validate(transaction, card);
@@ -79,5 +80,20 @@ class ValidatorChainTest {
         verify(validator3, never()).validate(any(), any());
     }
 
+    @Test
+    void shouldOnlyExecuteValidatorsOfRequestedPhase() {
+        when(validator1.phase()).thenReturn(ValidationPhase.BEFORE_LOCK);
+        when(validator2.phase()).thenReturn(ValidationPhase.UNDER_LOCK);
+        when(validator3.phase()).thenReturn(ValidationPhase.UNDER_LOCK);
 
-}
\ No newline at end of file
+        ValidatorChain phasedChain = new ValidatorChain(
+                List.of(validator1, validator2, validator3)
+        );
+
+        phasedChain.validate(transaction, card, ValidationPhase.BEFORE_LOCK);
+
+        verify(validator1).validate(transaction, card);
+        verify(validator2, never()).validate(any(), any());
+        verify(validator3, never()).validate(any(), any());
+    }
+}
@@ -3,7 +3,10 @@ package com.roberto.mini_authorizer.infrastructure.api.controllers;
 import com.roberto.mini_authorizer.domain.model.Card;
 import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.CardRequest;
 import com.roberto.mini_authorizer.infrastructure.config.SecurityConfig;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog;
 import com.roberto.mini_authorizer.ports.in.CardServicePort;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -23,7 +26,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CardController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, SimpleMeterRegistry.class})
 class CardControllerTest {
 
     @Autowired
@@ -38,6 +41,12 @@ class CardControllerTest {
     @MockitoBean
     private UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private CredentialCachePort credentialCachePort;
+
+    @MockitoBean
+    private SampledRequestLog sampledRequestLog;
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void shouldCreateCardSuccessfully() throws Exception {
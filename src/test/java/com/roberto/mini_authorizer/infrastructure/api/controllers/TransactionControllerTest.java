@@ -1,12 +1,15 @@
 package com.roberto.mini_authorizer.infrastructure.api.controllers;
 
-import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundForTransactionException;
-import com.roberto.mini_authorizer.domain.exceptions.InsufficientBalanceException;
-import com.roberto.mini_authorizer.domain.exceptions.InvalidPasswordException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
 import com.roberto.mini_authorizer.domain.model.Transaction;
 import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.TransactionRequest;
 import com.roberto.mini_authorizer.infrastructure.config.SecurityConfig;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog;
+import com.roberto.mini_authorizer.ports.in.BatchTransactionServicePort;
+import com.roberto.mini_authorizer.ports.in.IdempotentTransactionServicePort;
 import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import com.roberto.mini_authorizer.ports.out.CredentialCachePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -19,14 +22,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.contains;
 
 @WebMvcTest(TransactionController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, SimpleMeterRegistry.class})
 class TransactionControllerTest {
 
     @Autowired
@@ -38,9 +45,21 @@ class TransactionControllerTest {
     @MockitoBean
     private TransactionServicePort transactionService;
 
+    @MockitoBean
+    private IdempotentTransactionServicePort idempotentTransactionService;
+
+    @MockitoBean
+    private BatchTransactionServicePort batchTransactionService;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private CredentialCachePort credentialCachePort;
+
+    @MockitoBean
+    private SampledRequestLog sampledRequestLog;
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void shouldAuthorizeTransactionSuccessfully() throws Exception {
@@ -51,7 +70,8 @@ class TransactionControllerTest {
                 new BigDecimal("100.00")
         );
 
-        doNothing().when(transactionService).authorize(any(Transaction.class));
+        when(transactionService.authorize(any(Transaction.class)))
+                .thenReturn(AuthorizationResult.APPROVED);
 
         mockMvc.perform(post("/transacoes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -90,9 +110,8 @@ class TransactionControllerTest {
                 new BigDecimal("100.00")
         );
 
-        doThrow(new InsufficientBalanceException())
-                .when(transactionService)
-                .authorize(any(Transaction.class));
+        when(transactionService.authorize(any(Transaction.class)))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
 
         mockMvc.perform(post("/transacoes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -113,9 +132,8 @@ class TransactionControllerTest {
                 new BigDecimal("50.00")
         );
 
-        doThrow(new InvalidPasswordException())
-                .when(transactionService)
-                .authorize(any(Transaction.class));
+        when(transactionService.authorize(any(Transaction.class)))
+                .thenReturn(AuthorizationResult.INVALID_PASSWORD);
 
         mockMvc.perform(post("/transacoes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -136,9 +154,8 @@ class TransactionControllerTest {
                 new BigDecimal("10.00")
         );
 
-        doThrow(new CardNotFoundForTransactionException())
-                .when(transactionService)
-                .authorize(any(Transaction.class));
+        when(transactionService.authorize(any(Transaction.class)))
+                .thenReturn(AuthorizationResult.CARD_NOT_FOUND);
 
         mockMvc.perform(post("/transacoes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -149,5 +166,120 @@ class TransactionControllerTest {
         verify(transactionService).authorize(any(Transaction.class));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldAuthorizeThroughIdempotentServiceWhenKeyIsPresent() throws Exception {
+
+        var request = new TransactionRequest(
+                "1234567890123456",
+                "1234",
+                new BigDecimal("100.00")
+        );
+
+        when(idempotentTransactionService.authorize(any(Transaction.class), eq("user"), eq("key-1")))
+                .thenReturn(AuthorizationResult.APPROVED);
+
+        mockMvc.perform(post("/transacoes")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("OK"));
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldReplayStoredDeclineForIdempotencyKey() throws Exception {
+
+        var request = new TransactionRequest(
+                "1234567890123456",
+                "1234",
+                new BigDecimal("100.00")
+        );
+
+        when(idempotentTransactionService.authorize(any(Transaction.class), eq("user"), eq("key-1")))
+                .thenReturn(AuthorizationResult.INSUFFICIENT_BALANCE);
+
+        mockMvc.perform(post("/transacoes")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("SALDO_INSUFICIENTE"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldRejectBlankIdempotencyKey() throws Exception {
+
+        var request = new TransactionRequest(
+                "1234567890123456",
+                "1234",
+                new BigDecimal("100.00")
+        );
+
+        mockMvc.perform(post("/transacoes")
+                        .header("Idempotency-Key", " ")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transactionService, idempotentTransactionService);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldReturnPerItemResultsForBatch() throws Exception {
+
+        var requests = List.of(
+                new TransactionRequest("1234567890123456", "1234", new BigDecimal("10.00")),
+                new TransactionRequest("1234567890123456", "1234", new BigDecimal("900.00")),
+                new TransactionRequest("0000000000000000", "1234", new BigDecimal("10.00"))
+        );
+
+        when(batchTransactionService.authorizeAll(anyList()))
+                .thenReturn(List.of(
+                        AuthorizationResult.APPROVED,
+                        AuthorizationResult.INSUFFICIENT_BALANCE,
+                        AuthorizationResult.CARD_NOT_FOUND
+                ));
+
+        mockMvc.perform(post("/transacoes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains("OK", "SALDO_INSUFICIENTE", "CARTAO_INEXISTENTE")));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldReturnBadRequestWhenBatchItemIsInvalid() throws Exception {
 
+        var requests = List.of(
+                new TransactionRequest("1234567890123456", "1234", new BigDecimal("10.00")),
+                new TransactionRequest("", "", BigDecimal.ZERO)
+        );
+
+        mockMvc.perform(post("/transacoes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['[1].cardNumber']").exists());
+
+        verifyNoInteractions(batchTransactionService);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void shouldReturnBadRequestWhenBatchIsEmpty() throws Exception {
+
+        mockMvc.perform(post("/transacoes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(batchTransactionService);
+    }
 }
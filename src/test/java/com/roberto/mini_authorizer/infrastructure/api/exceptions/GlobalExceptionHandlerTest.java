@@ -2,12 +2,18 @@ package com.roberto.mini_authorizer.infrastructure.api.exceptions;
 
 import com.roberto.mini_authorizer.domain.exceptions.CardAlreadyExistsException;
 import com.roberto.mini_authorizer.domain.exceptions.CardNotFoundException;
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyInProgressException;
+import com.roberto.mini_authorizer.domain.exceptions.IdempotencyKeyMismatchException;
 import com.roberto.mini_authorizer.domain.exceptions.InsufficientBalanceException;
 import com.roberto.mini_authorizer.domain.exceptions.InvalidPasswordException;
+import com.roberto.mini_authorizer.domain.exceptions.RateLimitExceededException;
 import com.roberto.mini_authorizer.infrastructure.api.controllers.dtos.CardResponse;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog;
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog.Reason;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.MethodParameter;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -19,15 +25,18 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GlobalExceptionHandlerTest {
 
+    private SampledRequestLog requestLog;
     private GlobalExceptionHandler handler;
 
     @BeforeEach
     void setUp() {
-        handler = new GlobalExceptionHandler();
+        requestLog = mock(SampledRequestLog.class);
+        handler = new GlobalExceptionHandler(requestLog);
     }
 
     @Test
@@ -38,7 +47,7 @@ class GlobalExceptionHandlerTest {
 
         ResponseEntity<CardResponse> response = handler.handleCardAlreadyExists(exception);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().cardNumber()).isEqualTo(cardNumber);
         assertThat(response.getBody().password()).isEqualTo(password);
@@ -61,8 +70,9 @@ class GlobalExceptionHandlerTest {
 
         ResponseEntity<String> response = handler.handleTransactionRuleViolation(exception);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT);
         assertThat(response.getBody()).isEqualTo(exception.getMessage());
+        verify(requestLog).record(Reason.TRANSACTION_DENIED, exception.getMessage());
     }
 
     @Test
@@ -71,10 +81,49 @@ class GlobalExceptionHandlerTest {
 
         ResponseEntity<String> response = handler.handleTransactionRuleViolation(exception);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT);
         assertThat(response.getBody()).isEqualTo(exception.getMessage());
     }
 
+    @Test
+    void shouldHandleIdempotencyKeyInProgress() {
+        IdempotencyKeyInProgressException exception = new IdempotencyKeyInProgressException("key-1");
+
+        ResponseEntity<Void> response = handler.handleIdempotencyKeyInProgress(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void shouldHandleIdempotencyKeyMismatch() {
+        IdempotencyKeyMismatchException exception = new IdempotencyKeyMismatchException("key-1");
+
+        ResponseEntity<String> response = handler.handleIdempotencyKeyMismatch(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo(exception.getMessage());
+    }
+
+    @Test
+    void shouldHandleRateLimitExceeded() {
+        ResponseEntity<Void> response = handler.handleRateLimitExceeded(RateLimitExceededException.INSTANCE);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getBody()).isNull();
+        verify(requestLog).record(Reason.RATE_LIMITED, RateLimitExceededException.INSTANCE.getMessage());
+    }
+
+    @Test
+    void shouldHandleOptimisticLockingFailure() {
+        OptimisticLockingFailureException exception = new OptimisticLockingFailureException("stale card");
+
+        ResponseEntity<Void> response = handler.handleOptimisticLockingFailure(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNull();
+    }
+
     @Test
     void shouldHandleMethodArgumentNotValidException() {
         MethodParameter methodParameter = mock(MethodParameter.class);
@@ -97,6 +146,7 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get("cardNumber")).isEqualTo("must not be blank");
         assertThat(response.getBody().get("password")).isEqualTo("size must be between 4 and 6");
+        verify(requestLog).record(Reason.VALIDATION_ERROR, response.getBody());
     }
 
     @Test
@@ -107,6 +157,7 @@ class GlobalExceptionHandlerTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         assertThat(response.getBody()).isEqualTo("Internal server error");
+        verify(requestLog).record(Reason.UNEXPECTED_ERROR, exception.getMessage(), exception);
     }
 
     @Test
@@ -0,0 +1,112 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceCacheTest {
+
+    private static final String CARD_NUMBER = "1234567890123456";
+
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BalanceCache(100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeLaterReadsFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get(CARD_NUMBER, cardNumber -> {
+                loads.incrementAndGet();
+                return Optional.of(new BigDecimal("500.00"));
+            })).contains(new BigDecimal("500.00"));
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheMissingCard() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(CARD_NUMBER, cardNumber -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<BigDecimal> balance = cache.get(CARD_NUMBER, cardNumber -> {
+            loads.incrementAndGet();
+            return Optional.of(new BigDecimal("500.00"));
+        });
+
+        assertThat(balance).contains(new BigDecimal("500.00"));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        cache.get(CARD_NUMBER, cardNumber -> Optional.of(new BigDecimal("500.00")));
+
+        cache.invalidate(CARD_NUMBER);
+
+        assertThat(cache.get(CARD_NUMBER, cardNumber -> Optional.of(new BigDecimal("400.00"))))
+                .contains(new BigDecimal("400.00"));
+    }
+
+    @Test
+    void shouldDiscardLoadThatWasInFlightWhenInvalidated() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        CompletableFuture<Optional<BigDecimal>> staleRead = CompletableFuture.supplyAsync(() ->
+                cache.get(CARD_NUMBER, cardNumber -> {
+                    loading.countDown();
+                    await(committed);
+                    return Optional.of(new BigDecimal("500.00"));
+                }));
+
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> invalidation = CompletableFuture.runAsync(() -> cache.invalidate(CARD_NUMBER));
+        committed.countDown();
+        invalidation.get(5, TimeUnit.SECONDS);
+
+        assertThat(staleRead.get(5, TimeUnit.SECONDS)).contains(new BigDecimal("500.00"));
+        assertThat(cache.get(CARD_NUMBER, cardNumber -> Optional.of(new BigDecimal("400.00"))))
+                .contains(new BigDecimal("400.00"));
+    }
+
+    @Test
+    void shouldExportHitAndMissCounts() {
+        cache.get(CARD_NUMBER, cardNumber -> Optional.of(BigDecimal.TEN));
+        cache.get(CARD_NUMBER, cardNumber -> Optional.of(BigDecimal.TEN));
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "balances").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "balances").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "balances").functionCounter()).isNotNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordLockoutCacheTest {
+
+    private static final String CARD = "1234567890123456";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordLockoutCache lockout;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockout = new PasswordLockoutCache(3, Duration.ofMinutes(15), 100, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void shouldLockOutAfterMaxConsecutiveFailures() {
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+
+        assertThat(lockout.isLockedOut(CARD)).isFalse();
+
+        lockout.recordFailure(CARD);
+
+        assertThat(lockout.isLockedOut(CARD)).isTrue();
+        assertThat(lockout.isLockedOut("6543210987654321")).isFalse();
+        assertThat(meterRegistry.counter("authorizer.password-lockout.lockouts").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStartCountingAgainAfterReset() {
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+        lockout.reset(CARD);
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+
+        assertThat(lockout.isLockedOut(CARD)).isFalse();
+    }
+
+    @Test
+    void shouldUnlockAfterCoolDown() {
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+
+        nanos.addAndGet(Duration.ofMinutes(15).minusSeconds(1).toNanos());
+        assertThat(lockout.isLockedOut(CARD)).isTrue();
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(lockout.isLockedOut(CARD)).isFalse();
+    }
+
+    @Test
+    void shouldForgetFailuresOlderThanCoolDown() {
+        lockout.recordFailure(CARD);
+        lockout.recordFailure(CARD);
+
+        nanos.addAndGet(Duration.ofMinutes(15).toNanos());
+        lockout.recordFailure(CARD);
+
+        assertThat(lockout.isLockedOut(CARD)).isFalse();
+    }
+}
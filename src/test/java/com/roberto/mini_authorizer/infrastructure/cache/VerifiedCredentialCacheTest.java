@@ -0,0 +1,87 @@
+package com.roberto.mini_authorizer.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedCredentialCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedCredentialCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedCredentialCache(100, Duration.ofMinutes(5), "", meterRegistry);
+    }
+
+    @Test
+    void shouldReportVerifiedAfterMarking() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        assertThat(cache.isVerified("1234567890123456", "1234", "hash-1")).isTrue();
+    }
+
+    @Test
+    void shouldNotReportVerifiedForDifferentPassword() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        assertThat(cache.isVerified("1234567890123456", "0000", "hash-1")).isFalse();
+    }
+
+    @Test
+    void shouldNotReportVerifiedForDifferentCard() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        assertThat(cache.isVerified("6543210987654321", "1234", "hash-1")).isFalse();
+    }
+
+    @Test
+    void shouldDiscardEntryWhenStoredHashChanges() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        assertThat(cache.isVerified("1234567890123456", "1234", "hash-2")).isFalse();
+        assertThat(cache.isVerified("1234567890123456", "1234", "hash-1")).isFalse();
+    }
+
+    @Test
+    void shouldForgetInvalidatedCard() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        cache.invalidate("1234567890123456");
+
+        assertThat(cache.isVerified("1234567890123456", "1234", "hash-1")).isFalse();
+    }
+
+    @Test
+    void shouldExposeHitAndMissCounters() {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        cache.isVerified("1234567890123456", "1234", "hash-1");
+        cache.isVerified("6543210987654321", "1234", "hash-1");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "verified-credentials").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "verified-credentials").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "verified-credentials")
+                .functionCounter()).isNotNull();
+    }
+
+    @Test
+    void shouldProduceSameDigestOnVirtualAndPlatformThreads() throws InterruptedException {
+        cache.markVerified("1234567890123456", "1234", "hash-1");
+
+        AtomicBoolean verifiedOnVirtualThread = new AtomicBoolean();
+        Thread.ofVirtual()
+                .start(() -> verifiedOnVirtualThread.set(cache.isVerified("1234567890123456", "1234", "hash-1")))
+                .join();
+
+        assertThat(verifiedOnVirtualThread).isTrue();
+    }
+}
@@ -0,0 +1,141 @@
+package com.roberto.mini_authorizer.infrastructure.journal;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.ports.out.DebitJournalPort.Entry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDebitJournalTest {
+
+    private static final Entry FIRST = new Entry("1234567812345678", 30_00L, AuthorizationResult.APPROVED, 70_00L);
+    private static final Entry SECOND = new Entry("1234567812345678", 90_00L, AuthorizationResult.INSUFFICIENT_BALANCE, 70_00L);
+    private static final Entry OTHER = new Entry("8765432187654321", 10_00L, AuthorizationResult.APPROVED, 490_00L);
+
+    @TempDir
+    private Path directory;
+
+    private FileDebitJournal journal;
+
+    @BeforeEach
+    void setup() {
+        journal = new FileDebitJournal(directory, true, DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void shouldReplayAppendedEntriesInOrder() {
+        journal.append(0, List.of(FIRST));
+        journal.append(0, List.of(SECOND));
+        journal.append(1, List.of(OTHER));
+
+        assertEquals(List.of(FIRST, SECOND, OTHER), replayed(new FileDebitJournal(directory, true, DataSize.ofMegabytes(1))));
+    }
+
+    @Test
+    void shouldIgnoreTornLastEntry() throws IOException {
+        journal.append(0, List.of(FIRST, SECOND));
+        journal.close();
+
+        Path log = directory.resolve("shard-0-0.journal");
+        byte[] bytes = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOf(bytes, bytes.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertEquals(List.of(FIRST), replayed(journal));
+    }
+
+    @Test
+    void shouldStopAtEntryWithBadChecksum() throws IOException {
+        journal.append(0, List.of(FIRST, SECOND));
+        journal.close();
+
+        Path log = directory.resolve("shard-0-0.journal");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(log, bytes);
+
+        assertEquals(List.of(FIRST), replayed(journal));
+    }
+
+    @Test
+    void shouldDiscardEveryLogOnReset() {
+        journal.append(0, List.of(FIRST));
+        journal.append(1, List.of(OTHER));
+
+        journal.reset();
+        journal.append(0, List.of(SECOND));
+
+        assertEquals(List.of(SECOND), replayed(journal));
+    }
+
+    @Test
+    void shouldReplaySegmentsOfShardInOrder() {
+        journal = new FileDebitJournal(directory, true, DataSize.ofBytes(1));
+        for (int i = 0; i < 11; i++) {
+            journal.append(0, List.of(i % 2 == 0 ? FIRST : SECOND));
+            journal.seal(0);
+        }
+
+        List<Entry> entries = replayed(journal);
+
+        assertEquals(11, entries.size());
+        assertEquals(SECOND, entries.get(9));
+        assertEquals(FIRST, entries.get(10));
+    }
+
+    @Test
+    void shouldKeepAppendingToSegmentBelowSegmentSize() {
+        journal.append(0, List.of(FIRST));
+
+        assertEquals(-1L, journal.seal(0));
+        journal.append(0, List.of(SECOND));
+
+        assertEquals(List.of(FIRST, SECOND), replayed(journal));
+        assertTrue(Files.exists(directory.resolve("shard-0-0.journal")));
+        assertFalse(Files.exists(directory.resolve("shard-0-1.journal")));
+    }
+
+    @Test
+    void shouldDiscardSealedSegmentsUpToMark() {
+        journal = new FileDebitJournal(directory, true, DataSize.ofBytes(1));
+        journal.append(0, List.of(FIRST));
+        long mark = journal.seal(0);
+        journal.append(0, List.of(SECOND));
+        journal.append(1, List.of(OTHER));
+
+        journal.discard(0, mark);
+
+        assertEquals(List.of(SECOND, OTHER), replayed(journal));
+    }
+
+    @Test
+    void shouldNotDiscardSegmentStillOpen() {
+        journal.append(0, List.of(FIRST));
+
+        journal.discard(0, journal.seal(0));
+
+        assertEquals(List.of(FIRST), replayed(journal));
+    }
+
+    private static List<Entry> replayed(FileDebitJournal journal) {
+        List<Entry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+        return entries;
+    }
+}
@@ -0,0 +1,98 @@
+package com.roberto.mini_authorizer.infrastructure.monitoring;
+
+import com.roberto.mini_authorizer.infrastructure.monitoring.SampledRequestLog.Reason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SampledRequestLogTest {
+
+    private static final String SUMMARY = "{} x {} in the last {} ms ({} logged)";
+    private static final String SAMPLE = "{}: {}";
+
+    private Logger logger;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        logger = mock(Logger.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldLogSamplesAndSummarizeTheRest() {
+        SampledRequestLog requestLog = new SampledRequestLog(3, 100, meterRegistry, logger);
+
+        for (int i = 0; i < 10; i++) {
+            requestLog.record(Reason.TRANSACTION_DENIED, "decline-" + i);
+        }
+        requestLog.flush();
+
+        verify(logger).info(eq(SAMPLE), eq("Transaction denied"), eq("decline-0"), isNull());
+        verify(logger).info(eq(SAMPLE), eq("Transaction denied"), eq("decline-1"), isNull());
+        verify(logger).info(eq(SAMPLE), eq("Transaction denied"), eq("decline-2"), isNull());
+        verify(logger).info(eq(SUMMARY), eq(10L), eq("Transaction denied"), anyLong(), eq(3));
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void shouldNotSummarizeWhenEveryRequestWasLogged() {
+        SampledRequestLog requestLog = new SampledRequestLog(3, 100, meterRegistry, logger);
+
+        requestLog.record(Reason.CARD_NOT_FOUND, "1234567890123456");
+        requestLog.flush();
+
+        verify(logger).warn(eq(SAMPLE), eq("Card not found"), eq("1234567890123456"), isNull());
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void shouldSampleEachReasonSeparatelyAndResetEveryInterval() {
+        SampledRequestLog requestLog = new SampledRequestLog(1, 100, meterRegistry, logger);
+
+        requestLog.record(Reason.TRANSACTION_DENIED, "first");
+        requestLog.record(Reason.VALIDATION_ERROR, "invalid");
+        requestLog.record(Reason.TRANSACTION_DENIED, "suppressed");
+        requestLog.flush();
+        requestLog.record(Reason.TRANSACTION_DENIED, "next interval");
+        requestLog.flush();
+
+        verify(logger).info(eq(SAMPLE), eq("Transaction denied"), eq("first"), isNull());
+        verify(logger).warn(eq(SAMPLE), eq("Validation error"), eq("invalid"), isNull());
+        verify(logger).info(eq(SUMMARY), eq(2L), eq("Transaction denied"), anyLong(), eq(1));
+        verify(logger).info(eq(SAMPLE), eq("Transaction denied"), eq("next interval"), isNull());
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void shouldLogUnexpectedErrorsWithTheirStackTrace() {
+        SampledRequestLog requestLog = new SampledRequestLog(3, 100, meterRegistry, logger);
+        RuntimeException error = new RuntimeException("boom");
+
+        requestLog.record(Reason.UNEXPECTED_ERROR, error.getMessage(), error);
+        requestLog.flush();
+
+        verify(logger).error(SAMPLE, "Unexpected error", "boom", error);
+    }
+
+    @Test
+    void shouldDropSamplesWithoutBlockingWhenBufferIsFull() {
+        SampledRequestLog requestLog = new SampledRequestLog(10, 2, meterRegistry, logger);
+
+        for (int i = 0; i < 5; i++) {
+            requestLog.record(Reason.TRANSACTION_DENIED, "decline-" + i);
+        }
+
+        assertThat(meterRegistry.counter("authorizer.request-log.dropped").count()).isEqualTo(3);
+
+        requestLog.flush();
+
+        verify(logger, times(2)).info(eq(SAMPLE), eq("Transaction denied"), anyString(), isNull());
+        verify(logger).info(eq(SUMMARY), eq(5L), eq("Transaction denied"), anyLong(), eq(2));
+    }
+}
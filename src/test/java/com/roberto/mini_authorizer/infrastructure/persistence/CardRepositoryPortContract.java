@@ -0,0 +1,187 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link CardRepositoryPort} implementation has to share. Spring looks
+ * for {@code @Transactional} on the class declaring a test method, so it is repeated
+ * here for subclasses that run each test in a rolled-back transaction.
+ */
+@Transactional
+abstract class CardRepositoryPortContract {
+
+    protected abstract CardRepositoryPort adapter();
+
+    /**
+     * Makes the next read go to the store rather than to anything cached in between.
+     */
+    protected abstract void flushAndClear();
+
+    @Test
+    void shouldSaveCardSuccessfully() {
+        Card card = Card.create(
+                "1234567890123456",
+                "1234"
+        );
+
+        Card saved = adapter().save(card);
+
+        assertNotNull(saved);
+        assertNotNull(saved.getId());
+        assertEquals("1234567890123456", saved.getCardNumber());
+        assertEquals(new BigDecimal("500.00"), saved.getBalance());
+    }
+
+    @Test
+    void shouldFindCardByCardNumber() {
+        adapter().save(new Card("1234567890123456", "1234", new BigDecimal("500.00")));
+        flushAndClear();
+
+        Optional<Card> result =
+                adapter().findByCardNumber("1234567890123456");
+
+        assertTrue(result.isPresent());
+        assertEquals("1234567890123456", result.get().getCardNumber());
+        assertEquals(new BigDecimal("500.00"), result.get().getBalance());
+    }
+
+    @Test
+    void shouldReadOnlyBalanceByCardNumber() {
+        adapter().save(new Card("1234567890123456", "1234", new BigDecimal("321.50")));
+        flushAndClear();
+
+        assertEquals(Optional.of(new BigDecimal("321.50")), adapter().findBalanceByCardNumber("1234567890123456"));
+        assertTrue(adapter().findBalanceByCardNumber("9999999999999999").isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenCardDoesNotExist() {
+        Optional<Card> result =
+                adapter().findByCardNumber("9999999999999999");
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void shouldReturnTrueWhenCardExists() {
+        adapter().save(new Card("1234567890123456", "1234", new BigDecimal("500.00")));
+        flushAndClear();
+
+        boolean exists =
+                adapter().existsByCardNumber("1234567890123456");
+
+        assertTrue(exists);
+    }
+
+    @Test
+    void shouldReturnFalseWhenCardDoesNotExist() {
+        boolean exists =
+                adapter().existsByCardNumber("0000000000000000");
+
+        assertFalse(exists);
+    }
+
+    @Test
+    void shouldFindCardByCardNumberWithLock() {
+        adapter().save(new Card("1234567890123456", "1234", new BigDecimal("500.00")));
+        flushAndClear();
+
+        Optional<Card> result =
+                adapter().findByCardNumberWithLock("1234567890123456");
+
+        assertTrue(result.isPresent());
+    }
+
+    @Test
+    void shouldSaveDebitedCardWithNextVersion() {
+        adapter().save(Card.create("1234567890123456", "1234"));
+        flushAndClear();
+
+        Card card = adapter().findByCardNumber("1234567890123456").orElseThrow();
+        card.debit(100_00L);
+        adapter().save(card);
+        flushAndClear();
+
+        Card saved = adapter().findByCardNumber("1234567890123456").orElseThrow();
+        assertEquals(new BigDecimal("400.00"), saved.getBalance());
+        assertEquals(card.getVersion() + 1, saved.getVersion());
+    }
+
+    @Test
+    void shouldDebitWhenBalanceIsSufficient() {
+        adapter().save(Card.create("1234567890123456", "1234"));
+
+        boolean debited = adapter().tryDebit("1234567890123456", 12_050L);
+        flushAndClear();
+
+        assertTrue(debited);
+        assertEquals(new BigDecimal("379.50"),
+                adapter().findByCardNumber("1234567890123456").orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldNotDebitWhenBalanceIsInsufficient() {
+        adapter().save(Card.create("1234567890123456", "1234"));
+
+        boolean debited = adapter().tryDebit("1234567890123456", 50_001L);
+        flushAndClear();
+
+        assertFalse(debited);
+        assertEquals(new BigDecimal("500.00"),
+                adapter().findByCardNumber("1234567890123456").orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldNotDebitUnknownCard() {
+        assertFalse(adapter().tryDebit("9999999999999999", 1_000L));
+    }
+
+    @Test
+    void shouldApplyBatchOfDebitsInOrder() {
+        adapter().save(Card.create("1234567890123456", "1234"));
+
+        boolean[] debited = adapter().tryDebitAll(List.of(
+                new Transaction("1234567890123456", "1234", new BigDecimal("300.00")),
+                new Transaction("1234567890123456", "1234", new BigDecimal("300.00")),
+                new Transaction("9999999999999999", "1234", BigDecimal.TEN),
+                new Transaction("1234567890123456", "1234", new BigDecimal("200.00"))
+        ));
+        flushAndClear();
+
+        assertArrayEquals(new boolean[]{true, false, false, true}, debited);
+        assertEquals(new BigDecimal("0.00"),
+                adapter().findByCardNumber("1234567890123456").orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldAcceptEmptyBatch() {
+        assertEquals(0, adapter().tryDebitAll(List.of()).length);
+    }
+
+    @Test
+    void shouldOverwriteBalancesOfEveryCard() {
+        adapter().save(Card.create("1234567890123456", "1234"));
+        adapter().save(Card.create("1234567890123457", "1234"));
+
+        adapter().updateBalances(Map.of(
+                "1234567890123456", 12_34L,
+                "1234567890123457", 0L
+        ));
+        flushAndClear();
+
+        assertEquals(new BigDecimal("12.34"), adapter().findBalanceByCardNumber("1234567890123456").orElseThrow());
+        assertEquals(new BigDecimal("0.00"), adapter().findBalanceByCardNumber("1234567890123457").orElseThrow());
+        assertEquals(1L, adapter().findByCardNumber("1234567890123456").orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,177 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCardRepositoryAdapterTest extends CardRepositoryPortContract {
+
+    @TempDir
+    private Path directory;
+
+    private MappedCardRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setup() {
+        adapter = open(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Override
+    protected CardRepositoryPort adapter() {
+        return adapter;
+    }
+
+    @Override
+    protected void flushAndClear() {
+    }
+
+    @Test
+    void shouldKeepCardsWhenFileIsMappedAgain() {
+        adapter.save(Card.create("1234567890123456", "1234"));
+        adapter.tryDebit("1234567890123456", 100_00L);
+        adapter.close();
+
+        MappedCardRepositoryAdapter reopened = open(4096);
+
+        Card card = reopened.findByCardNumber("1234567890123456").orElseThrow();
+        assertEquals(new BigDecimal("400.00"), card.getBalance());
+        assertEquals("1234", card.getPassword());
+        assertEquals(1L, card.getVersion());
+    }
+
+    @Test
+    void shouldRejectSaveOfStaleVersion() {
+        adapter.save(Card.create("1234567890123456", "1234"));
+        Card first = adapter.findByCardNumber("1234567890123456").orElseThrow();
+        Card second = adapter.findByCardNumber("1234567890123456").orElseThrow();
+
+        first.debit(100_00L);
+        adapter.save(first);
+        second.debit(50_00L);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> adapter.save(second));
+        assertEquals(new BigDecimal("400.00"), adapter.findBalanceByCardNumber("1234567890123456").orElseThrow());
+    }
+
+    @Test
+    void shouldRejectDuplicateCardNumber() {
+        adapter.save(Card.create("0000000000000042", "1234"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> adapter.save(Card.create("0000000000000042", "4321")));
+        assertEquals("0000000000000042", adapter.findByCardNumber("0000000000000042").orElseThrow().getCardNumber());
+    }
+
+    @Test
+    void shouldNotFindCardNumbersThatAreNotSixteenDigits() {
+        assertTrue(adapter.findByCardNumber("12345").isEmpty());
+        assertTrue(adapter.findByCardNumber("123456789012345x").isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> adapter.save(new Card("12345", "1234", BigDecimal.TEN)));
+    }
+
+    @Test
+    void shouldFailWhenStoreIsFull() {
+        MappedCardRepositoryAdapter small = new MappedCardRepositoryAdapter(directory.resolve("small.dat"), 2, false, Duration.ofSeconds(1), "pessimistic", true);
+        small.save(Card.create("1234567890123456", "1234"));
+        small.save(Card.create("1234567890123457", "1234"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> small.save(Card.create("1234567890123458", "1234")));
+        assertTrue(small.existsByCardNumber("1234567890123457"));
+    }
+
+    @Test
+    void shouldNeverDebitBelowZeroUnderConcurrentDebits() {
+        adapter.save(Card.create("1234567890123456", "1234"));
+
+        long debited = IntStream.range(0, 200)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> adapter.tryDebit("1234567890123456", 3_00L)))
+                .toList()
+                .stream()
+                .filter(CompletableFuture::join)
+                .count();
+
+        Card card = adapter.findByCardNumber("1234567890123456").orElseThrow();
+        assertEquals(166, debited);
+        assertEquals(2_00L, card.getBalanceCents());
+        assertEquals(166L, card.getVersion());
+    }
+
+    @Test
+    void shouldReleaseRecordLeftMidWriteWhenReopenedAfterCrash() throws IOException {
+        Card saved = adapter.save(Card.create("1234567890123456", "1234"));
+        writeSequence(saved.getId(), 3L);
+
+        MappedCardRepositoryAdapter reopened = open(1024);
+
+        assertEquals(2L, reopened.findByCardNumber("1234567890123456").orElseThrow().getVersion());
+        assertTrue(reopened.tryDebit("1234567890123456", 100_00L));
+        assertEquals(new BigDecimal("400.00"), reopened.findBalanceByCardNumber("1234567890123456").orElseThrow());
+    }
+
+    @Test
+    void shouldGiveUpWaitingForRecordThatStaysClaimed() throws IOException {
+        MappedCardRepositoryAdapter impatient =
+                new MappedCardRepositoryAdapter(directory.resolve("cards.dat"), 1024, false, Duration.ofMillis(20), "pessimistic", true);
+        Card saved = impatient.save(Card.create("1234567890123456", "1234"));
+        writeSequence(saved.getId(), 1L);
+
+        assertThrows(CannotAcquireLockException.class, () -> impatient.findByCardNumber("1234567890123456"));
+        assertThrows(CannotAcquireLockException.class, () -> impatient.tryDebit("1234567890123456", 1_00L));
+    }
+
+    @Test
+    void shouldRejectDebitModesThatSaveWithoutTheCardLocks() {
+        Path path = directory.resolve("modes.dat");
+        Duration timeout = Duration.ofSeconds(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedCardRepositoryAdapter(path, 2, false, timeout, "combining", true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedCardRepositoryAdapter(path, 2, false, timeout, "sharded", true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedCardRepositoryAdapter(path, 2, false, timeout, "pessimistic", false));
+        new MappedCardRepositoryAdapter(path, 2, false, timeout, "optimistic", false).close();
+    }
+
+    private MappedCardRepositoryAdapter open(int capacity) {
+        return new MappedCardRepositoryAdapter(directory.resolve("cards.dat"), capacity, false, Duration.ofSeconds(1), "pessimistic", true);
+    }
+
+    /**
+     * Overwrites the sequence of a record behind the adapter's back, as a writer that
+     * claimed it and never released it would leave it.
+     */
+    private void writeSequence(long id, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve("cards.dat"), StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.nativeOrder()).putLong(0, sequence);
+            channel.write(bytes, 128 * id + 24);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.roberto.mini_authorizer.infrastructure.persistence;
+
+import com.roberto.mini_authorizer.ports.out.TransactionPersistencePort.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TransactionPersistenceAdapter.class, TransactionPersistenceAdapterTest.MetricsConfig.class})
+class TransactionPersistenceAdapterTest {
+
+    @Autowired
+    private TransactionPersistenceAdapter adapter;
+
+    @Test
+    void shouldReserveKeyOnlyOnce() {
+        String key = UUID.randomUUID().toString();
+
+        assertTrue(adapter.reserve(key, "fingerprint"));
+        assertFalse(adapter.reserve(key, "fingerprint"));
+    }
+
+    @Test
+    void shouldNotReportPendingKeyAsProcessed() {
+        String key = UUID.randomUUID().toString();
+
+        adapter.reserve(key, "fingerprint");
+
+        assertFalse(adapter.hasBeenProcessed(key));
+        assertEquals(Optional.of(new IdempotencyRecord("fingerprint", null)), adapter.find(key));
+    }
+
+    @Test
+    void shouldReturnResultOfProcessedKey() {
+        String key = UUID.randomUUID().toString();
+
+        adapter.reserve(key, "fingerprint");
+        adapter.markAsProcessed(key, "fingerprint", "SALDO_INSUFICIENTE");
+
+        assertTrue(adapter.hasBeenProcessed(key));
+        assertEquals(Optional.of(new IdempotencyRecord("fingerprint", "SALDO_INSUFICIENTE")), adapter.find(key));
+    }
+
+    @Test
+    void shouldAllowReservingReleasedKeyAgain() {
+        String key = UUID.randomUUID().toString();
+
+        adapter.reserve(key, "fingerprint");
+        adapter.release(key);
+
+        assertTrue(adapter.reserve(key, "fingerprint"));
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -30,7 +30,8 @@ class CardMapperTest {
                 id,
                 "1234567890123456",
                 "encoded-password",
-                BigDecimal.valueOf(500)
+                BigDecimal.valueOf(500),
+                3L
         );
 
         CardEntity entity = mapper.toEntity(card);
@@ -40,6 +41,7 @@ class CardMapperTest {
         assertEquals(card.getCardNumber(), entity.getCardNumber());
         assertEquals(card.getPassword(), entity.getPassword());
         assertEquals(card.getBalance(), entity.getBalance());
+        assertEquals(3L, entity.getVersion());
     }
 
     @Test
@@ -49,6 +51,7 @@ class CardMapperTest {
         entity.setCardNumber("1234567890123456");
         entity.setPassword("encoded-password");
         entity.setBalance(BigDecimal.valueOf(300));
+        entity.setVersion(7L);
 
         Card card = mapper.toDomain(entity);
 
@@ -60,6 +63,7 @@ class CardMapperTest {
                 0,
                 BigDecimal.valueOf(300).compareTo(card.getBalance())
         );
+        assertEquals(7L, card.getVersion());
     }
 
     @Test
@@ -0,0 +1,77 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import com.roberto.mini_authorizer.infrastructure.cache.VerifiedCredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingBasicAuthenticationProviderTest {
+
+    private PasswordEncoder passwordEncoder;
+    private CachingBasicAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches("password", "{hash}")).thenReturn(true);
+
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("username").password("{hash}").roles("USER").build());
+        provider = new CachingBasicAuthenticationProvider(users, passwordEncoder,
+                new VerifiedCredentialCache(100, Duration.ofMinutes(5), "", new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldVerifyPasswordOnlyOnceForRepeatedRequests() {
+        Authentication first = provider.authenticate(credentials("username", "password"));
+        Authentication second = provider.authenticate(credentials("username", "password"));
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("username");
+        assertThat(second.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        assertThat(second.getCredentials()).isNull();
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void shouldRejectWrongPasswordEvenAfterCorrectOneWasCached() {
+        provider.authenticate(credentials("username", "password"));
+
+        assertThatThrownBy(() -> provider.authenticate(credentials("username", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void shouldRejectUnknownUserAsBadCredentials() {
+        assertThatThrownBy(() -> provider.authenticate(credentials("nobody", "password")))
+                .isInstanceOf(BadCredentialsException.class);
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void shouldNotCacheFailedVerification() {
+        assertThatThrownBy(() -> provider.authenticate(credentials("username", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(credentials("username", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        verify(passwordEncoder, times(2)).matches("wrong", "{hash}");
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
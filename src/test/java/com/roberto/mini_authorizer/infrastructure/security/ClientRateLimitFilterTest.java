@@ -0,0 +1,103 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import com.roberto.mini_authorizer.application.ratelimit.TokenBucketTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientRateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientRateLimitFilter filter;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ClientRateLimitFilter(new TokenBucketTable(64, 0.001, 1), meterRegistry);
+        chain = mock(FilterChain.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAnswer429OnceClientIsOverItsLimit() throws Exception {
+        authenticate("pos-switch");
+
+        assertThat(filter(post("/transacoes")).getStatus()).isEqualTo(200);
+        assertThat(filter(post("/transacoes/lote")).getStatus()).isEqualTo(429);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        assertThat(meterRegistry.get("authorizer.rate-limit.throttled").tag("key", "client").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldLimitEachClientSeparately() throws Exception {
+        authenticate("pos-switch");
+        filter(post("/transacoes"));
+
+        authenticate("username");
+
+        assertThat(filter(post("/transacoes")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldLimitClientsWithSameNameHashSeparately() throws Exception {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        authenticate("Aa");
+        filter(post("/transacoes"));
+
+        authenticate("BB");
+
+        assertThat(filter(post("/transacoes")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotLimitOtherRequests() throws Exception {
+        authenticate("pos-switch");
+        filter(post("/transacoes"));
+
+        assertThat(filter(new MockHttpServletRequest("GET", "/cartoes/1234567812345678")).getStatus()).isEqualTo(200);
+        assertThat(filter(post("/cartoes")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldLeaveUnauthenticatedRequestsToSecurity() throws Exception {
+        filter(post("/transacoes"));
+
+        assertThat(filter(post("/transacoes")).getStatus()).isEqualTo(200);
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRequestURI(path);
+        return request;
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                name, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
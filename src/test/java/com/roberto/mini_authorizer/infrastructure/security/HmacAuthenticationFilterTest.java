@@ -0,0 +1,239 @@
+package com.roberto.mini_authorizer.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HmacAuthenticationFilterTest {
+
+    private static final String CLIENT_ID = "pos-switch";
+    private static final String SECRET = "s3cr3t";
+    private static final String PATH = "/transacoes";
+    private static final byte[] BODY = "{\"numeroCartao\":\"1234567890123456\",\"senhaCartao\":\"1234\",\"valor\":10.00}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_BODY_BYTES = 256;
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private HmacAuthenticationFilter filter;
+    private AtomicReference<Authentication> authenticated;
+    private AtomicReference<byte[]> bodySeen;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new HmacAuthenticationFilter(
+                new ApiClientProperties(Map.of(CLIENT_ID, SECRET), Duration.ofMinutes(5), 1000, DataSize.ofBytes(MAX_BODY_BYTES)),
+                Clock.fixed(NOW, ZoneOffset.UTC),
+                meterRegistry);
+        authenticated = new AtomicReference<>();
+        bodySeen = new AtomicReference<>();
+        chain = (request, response) -> {
+            authenticated.set(SecurityContextHolder.getContext().getAuthentication());
+            bodySeen.set(request.getInputStream().readAllBytes());
+        };
+    }
+
+    @Test
+    void shouldAuthenticateSignedRequestAndKeepBodyReadable() throws Exception {
+        MockHttpServletResponse response = filter(signed(CLIENT_ID, SECRET, NOW.getEpochSecond()));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(authenticated.get().getName()).isEqualTo(CLIENT_ID);
+        assertThat(authenticated.get().getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        assertThat(bodySeen.get()).isEqualTo(BODY);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void shouldPassUnsignedRequestThroughUntouched() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setContent(BODY);
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(authenticated.get()).isNull();
+        assertThat(bodySeen.get()).isEqualTo(BODY);
+    }
+
+    @Test
+    void shouldRejectUnknownClient() throws Exception {
+        assertRejected(signed("someone-else", SECRET, NOW.getEpochSecond()));
+    }
+
+    @Test
+    void shouldRejectSignatureWithWrongSecret() throws Exception {
+        assertRejected(signed(CLIENT_ID, "guessed", NOW.getEpochSecond()));
+    }
+
+    @Test
+    void shouldRejectTimestampOutsideAllowedSkew() throws Exception {
+        assertRejected(signed(CLIENT_ID, SECRET, NOW.minusSeconds(301).getEpochSecond()));
+    }
+
+    @Test
+    void shouldRejectTamperedBody() throws Exception {
+        MockHttpServletRequest request = signed(CLIENT_ID, SECRET, NOW.getEpochSecond());
+        request.setContent("{\"numeroCartao\":\"1234567890123456\",\"senhaCartao\":\"1234\",\"valor\":999.00}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertRejected(request);
+    }
+
+    @Test
+    void shouldRejectReplayedRequest() throws Exception {
+        assertThat(filter(signed(CLIENT_ID, SECRET, NOW.getEpochSecond())).getStatus()).isEqualTo(200);
+        authenticated.set(null);
+
+        assertRejected(signed(CLIENT_ID, SECRET, NOW.getEpochSecond()));
+    }
+
+    @Test
+    void shouldAcceptIdenticalRequestWithAnotherNonce() throws Exception {
+        assertThat(filter(signed(CLIENT_ID, SECRET, NOW.getEpochSecond(), "nonce-1")).getStatus()).isEqualTo(200);
+
+        assertThat(filter(signed(CLIENT_ID, SECRET, NOW.getEpochSecond(), "nonce-2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRejectRequestWithoutNonce() throws Exception {
+        MockHttpServletRequest request = signed(CLIENT_ID, SECRET, NOW.getEpochSecond(), "");
+        request.removeHeader(RequestSignature.NONCE_HEADER);
+
+        assertRejected(request);
+    }
+
+    @Test
+    void shouldNotReadBodyOfRequestFailingHeaderChecks() throws Exception {
+        MockHttpServletRequest request = signed("someone-else", SECRET, NOW.getEpochSecond());
+        CountingInputStream body = new CountingInputStream(BODY);
+        request.setContent(null);
+
+        assertRejected(new MockHttpServletRequestWithBody(request, body));
+        assertThat(body.read).isZero();
+    }
+
+    @Test
+    void shouldRejectBodyAnnouncedLargerThanAllowed() throws Exception {
+        MockHttpServletRequest request = signed(CLIENT_ID, SECRET, NOW.getEpochSecond());
+        request.setContent(Arrays.copyOf(BODY, MAX_BODY_BYTES + 1));
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(authenticated.get()).isNull();
+    }
+
+    @Test
+    void shouldStopReadingBodyOnceItPassesLimit() throws Exception {
+        MockHttpServletRequest request = signed(CLIENT_ID, SECRET, NOW.getEpochSecond());
+        CountingInputStream body = new CountingInputStream(new byte[MAX_BODY_BYTES * 100]);
+
+        MockHttpServletResponse response = filter(new MockHttpServletRequestWithBody(request, body));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(body.read).isLessThanOrEqualTo(MAX_BODY_BYTES + 1);
+    }
+
+    private void assertRejected(HttpServletRequest request) throws Exception {
+        double before = meterRegistry.counter("authorizer.api-clients.rejected").count();
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(authenticated.get()).isNull();
+        assertThat(meterRegistry.counter("authorizer.api-clients.rejected").count()).isEqualTo(before + 1);
+    }
+
+    private MockHttpServletResponse filter(HttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest signed(String clientId, String secret, long timestamp) {
+        return signed(clientId, secret, timestamp, "nonce-1");
+    }
+
+    private static MockHttpServletRequest signed(String clientId, String secret, long timestamp, String nonce) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setContent(BODY);
+        request.addHeader(RequestSignature.CLIENT_ID_HEADER, clientId);
+        request.addHeader(RequestSignature.TIMESTAMP_HEADER, Long.toString(timestamp));
+        request.addHeader(RequestSignature.NONCE_HEADER, nonce);
+        request.addHeader(RequestSignature.SIGNATURE_HEADER,
+                RequestSignature.sign(secret, "POST", PATH, timestamp, nonce, BODY));
+        return request;
+    }
+
+    /**
+     * A signed request whose body comes from {@code body}, with no Content-Length, as a
+     * chunked upload would arrive.
+     */
+    private static final class MockHttpServletRequestWithBody extends HttpServletRequestWrapper {
+
+        private final CountingInputStream body;
+
+        private MockHttpServletRequestWithBody(HttpServletRequest request, CountingInputStream body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new DelegatingServletInputStream(body);
+        }
+    }
+
+    private static final class CountingInputStream extends ByteArrayInputStream {
+
+        private int read;
+
+        private CountingInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read() {
+            int value = super.read();
+            read += value < 0 ? 0 : 1;
+            return value;
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) {
+            int count = super.read(buffer, offset, length);
+            read += Math.max(count, 0);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.roberto.mini_authorizer.infrastructure.tcp;
+
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Request;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Response;
+import org.junit.jupiter.api.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationFramesTest {
+
+    private static final Request REQUEST = new Request(42L, CardNumber.pack("1234567890123456"), "1234", 10_00L);
+
+    @Test
+    void shouldReadRequestThatWasWritten() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        AuthorizationFrames.writeRequest(buffer, REQUEST);
+        AuthorizationFrames.writeRequest(buffer, new Request(43L, 1L, "senha-ç", 1L));
+        buffer.flip();
+
+        assertEquals(REQUEST, AuthorizationFrames.readRequest(buffer));
+        assertEquals(new Request(43L, 1L, "senha-ç", 1L), AuthorizationFrames.readRequest(buffer));
+        assertNull(AuthorizationFrames.readRequest(buffer));
+    }
+
+    @Test
+    void shouldWaitForRestOfPartialFrame() throws ProtocolException {
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        AuthorizationFrames.writeRequest(frame, REQUEST);
+        frame.flip();
+
+        ByteBuffer partial = frame.slice(0, frame.limit() - 1);
+
+        assertNull(AuthorizationFrames.readRequest(partial));
+        assertEquals(0, partial.position());
+        assertEquals(REQUEST, AuthorizationFrames.readRequest(frame));
+    }
+
+    @Test
+    void shouldRejectFrameWithImpossibleLength() {
+        ByteBuffer tooLong = ByteBuffer.allocate(8).putInt(100_000).flip();
+        ByteBuffer tooShort = ByteBuffer.allocate(8).putInt(3).flip();
+
+        assertThrows(ProtocolException.class, () -> AuthorizationFrames.readRequest(tooLong));
+        assertThrows(ProtocolException.class, () -> AuthorizationFrames.readRequest(tooShort));
+    }
+
+    @Test
+    void shouldRejectPasswordLengthThatDisagreesWithFrame() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        AuthorizationFrames.writeRequest(buffer, REQUEST);
+        buffer.put(Integer.BYTES + 3 * Long.BYTES, (byte) 3).flip();
+
+        assertThrows(ProtocolException.class, () -> AuthorizationFrames.readRequest(buffer));
+    }
+
+    @Test
+    void shouldReadResponseThatWasWritten() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(AuthorizationFrames.RESPONSE_FRAME_BYTES);
+        AuthorizationFrames.writeResponse(buffer, new Response(42L, AuthorizationFrames.INSUFFICIENT_BALANCE));
+        buffer.flip();
+
+        assertEquals(new Response(42L, AuthorizationFrames.INSUFFICIENT_BALANCE), AuthorizationFrames.readResponse(buffer));
+    }
+
+    @Test
+    void shouldDescribeStatusesWithRestCodes() {
+        for (AuthorizationResult result : AuthorizationResult.values()) {
+            if (result != AuthorizationResult.ERROR) {
+                assertEquals(result.getCode(), AuthorizationFrames.describe(AuthorizationFrames.statusOf(result)));
+            }
+        }
+        assertEquals(AuthorizationFrames.ERROR, AuthorizationFrames.statusOf(AuthorizationResult.ERROR));
+        assertEquals("REJECTED", AuthorizationFrames.describe(AuthorizationFrames.REJECTED));
+        assertEquals("THROTTLED", AuthorizationFrames.describe(AuthorizationFrames.THROTTLED));
+        assertEquals("ERROR", AuthorizationFrames.describe(AuthorizationFrames.ERROR));
+    }
+}
@@ -0,0 +1,220 @@
+package com.roberto.mini_authorizer.infrastructure.tcp;
+
+import com.roberto.mini_authorizer.domain.exceptions.RateLimitExceededException;
+import com.roberto.mini_authorizer.domain.model.AuthorizationResult;
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.domain.model.Transaction;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Request;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Response;
+import com.roberto.mini_authorizer.ports.in.TransactionServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TcpAuthorizationServerTest {
+
+    private static final String CARD_NUMBER = "1234567890123456";
+    private static final long PACKED_CARD_NUMBER = CardNumber.pack(CARD_NUMBER);
+
+    @Mock
+    private TransactionServicePort transactionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TcpAuthorizationServer server;
+    private SocketChannel client;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    void shouldAnswerPipelinedRequestsByCorrelationId() throws IOException {
+        start(2);
+        when(transactionService.authorize(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, Transaction.class).getAmountCents() > 100_00L
+                        ? AuthorizationResult.INSUFFICIENT_BALANCE
+                        : AuthorizationResult.APPROVED);
+
+        ByteBuffer requests = ByteBuffer.allocate(64 * 100);
+        for (long id = 0; id < 100; id++) {
+            AuthorizationFrames.writeRequest(requests, new Request(id, PACKED_CARD_NUMBER, "1234", id * 2_00L + 1));
+        }
+        send(requests.flip());
+
+        Map<Long, Byte> statuses = receive(100);
+
+        for (long id = 0; id < 100; id++) {
+            byte expected = id * 2_00L + 1 > 100_00L ? AuthorizationFrames.INSUFFICIENT_BALANCE : AuthorizationFrames.APPROVED;
+            assertEquals(expected, statuses.get(id), "request " + id);
+        }
+        verify(transactionService, times(100)).authorize(argThat(transaction ->
+                CARD_NUMBER.equals(transaction.getCardNumber()) && "1234".equals(transaction.getCardPassword())));
+        assertEquals(1, meterRegistry.get("authorizer.tcp.connections").gauge().value());
+    }
+
+    @Test
+    void shouldRejectRequestsThatAreNotValidTransactions() throws IOException {
+        start(2);
+        ByteBuffer requests = ByteBuffer.allocate(128);
+        AuthorizationFrames.writeRequest(requests, new Request(1L, PACKED_CARD_NUMBER, "1234", 0L));
+        AuthorizationFrames.writeRequest(requests, new Request(2L, CardNumber.INVALID, "1234", 10_00L));
+        send(requests.flip());
+
+        assertEquals(Map.of(1L, AuthorizationFrames.REJECTED, 2L, AuthorizationFrames.REJECTED), receive(2));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void shouldAnswerErrorWhenAuthorizationFails() throws IOException {
+        start(2);
+        when(transactionService.authorize(any())).thenThrow(new IllegalStateException("database down"));
+
+        send(frame(new Request(7L, PACKED_CARD_NUMBER, "1234", 10_00L)));
+
+        assertEquals(Map.of(7L, AuthorizationFrames.ERROR), receive(1));
+    }
+
+    @Test
+    void shouldAnswerThrottledWhenCardIsOverItsRateLimit() throws IOException {
+        start(2);
+        when(transactionService.authorize(any())).thenThrow(RateLimitExceededException.INSTANCE);
+
+        send(frame(new Request(8L, PACKED_CARD_NUMBER, "1234", 10_00L)));
+
+        assertEquals(Map.of(8L, AuthorizationFrames.THROTTLED), receive(1));
+    }
+
+    @Test
+    void shouldStopReadingConnectionAtMaxInFlightAndResumeAsRequestsComplete() throws Exception {
+        start(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.authorize(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return AuthorizationResult.APPROVED;
+        });
+
+        ByteBuffer requests = ByteBuffer.allocate(64 * 3);
+        for (long id = 0; id < 3; id++) {
+            AuthorizationFrames.writeRequest(requests, new Request(id, PACKED_CARD_NUMBER, "1234", 1L));
+        }
+        send(requests.flip());
+
+        verify(transactionService, after(200).times(1)).authorize(any());
+        release.countDown();
+
+        assertEquals(3, receive(3).size());
+        verify(transactionService, times(3)).authorize(any());
+    }
+
+    @Test
+    void shouldStopReadingConnectionWhoseClientDoesNotReadItsResponses() throws Exception {
+        AtomicInteger authorized = new AtomicInteger();
+        start(transaction -> {
+            authorized.incrementAndGet();
+            return AuthorizationResult.APPROVED;
+        }, 4);
+
+        client.configureBlocking(false);
+        ByteBuffer requests = ByteBuffer.allocate(64 * 1024);
+        long sent = 0;
+        long stalledSince = System.nanoTime();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() - stalledSince < TimeUnit.MILLISECONDS.toNanos(500)) {
+            if (System.nanoTime() > deadline) {
+                fail("Client was never held back: " + authorized.get() + " requests dispatched");
+            }
+            while (requests.remaining() >= 64) {
+                AuthorizationFrames.writeRequest(requests, new Request(sent++, PACKED_CARD_NUMBER, "1234", 1L));
+            }
+            requests.flip();
+            if (client.write(requests) > 0) {
+                stalledSince = System.nanoTime();
+            }
+            requests.compact();
+        }
+        int dispatched = authorized.get();
+        Thread.sleep(200);
+
+        assertTrue(dispatched < sent, "dispatched " + dispatched + " of " + sent + " requests");
+        assertEquals(dispatched, authorized.get());
+    }
+
+    @Test
+    void shouldCloseConnectionOnMalformedFrame() throws IOException {
+        start(2);
+
+        send(ByteBuffer.allocate(8).putInt(-1).putInt(0).flip());
+
+        ByteBuffer in = ByteBuffer.allocate(16);
+        assertEquals(-1, client.read(in));
+        verifyNoInteractions(transactionService);
+    }
+
+    private void start(int maxInFlight) throws IOException {
+        start(transactionService, maxInFlight);
+    }
+
+    private void start(TransactionServicePort service, int maxInFlight) throws IOException {
+        server = new TcpAuthorizationServer(service, meterRegistry, "127.0.0.1", 0, 4, maxInFlight, false);
+        client = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getPort()));
+        client.socket().setSoTimeout(5_000);
+    }
+
+    private void send(ByteBuffer frames) throws IOException {
+        while (frames.hasRemaining()) {
+            client.write(frames);
+        }
+    }
+
+    private Map<Long, Byte> receive(int count) throws IOException {
+        Map<Long, Byte> statuses = new HashMap<>();
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        while (statuses.size() < count) {
+            if (client.read(in) < 0) {
+                fail("Connection closed after " + statuses.size() + " responses");
+            }
+            in.flip();
+            Response response;
+            while ((response = AuthorizationFrames.readResponse(in)) != null) {
+                statuses.put(response.correlationId(), response.status());
+            }
+            in.compact();
+        }
+        return statuses;
+    }
+
+    private static ByteBuffer frame(Request request) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        AuthorizationFrames.writeRequest(buffer, request);
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,78 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import com.roberto.mini_authorizer.infrastructure.security.RequestSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "authorizer.api-clients.secrets.pos-switch=integration-secret")
+class ApiClientAuthenticationIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "5555444433332222";
+    private static final String SECRET = "integration-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER).ifPresent(cardJpaRepository::delete);
+    }
+
+    @Test
+    void shouldAuthorizeSignedRequestsAlongsideBasicAuth() throws Exception {
+        mockMvc.perform(signed(post("/cartoes"), "/cartoes", SECRET,
+                        "{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senha\": \"1234\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(signed(post("/transacoes"), "/transacoes", SECRET,
+                        "{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senhaCartao\": \"1234\", \"valor\": 100.00}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("OK"));
+
+        mockMvc.perform(get("/cartoes/{cardNumber}", CARD_NUMBER)
+                        .with(httpBasic("username", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("400.00"));
+    }
+
+    @Test
+    void shouldRejectRequestSignedWithWrongSecret() throws Exception {
+        mockMvc.perform(signed(post("/transacoes"), "/transacoes", "guessed",
+                        "{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senhaCartao\": \"1234\", \"valor\": 100.00}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder signed(MockHttpServletRequestBuilder request, String path,
+                                                        String secret, String body) {
+        long timestamp = Instant.now().getEpochSecond();
+        String nonce = UUID.randomUUID().toString();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return request
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bytes)
+                .header(RequestSignature.CLIENT_ID_HEADER, "pos-switch")
+                .header(RequestSignature.TIMESTAMP_HEADER, timestamp)
+                .header(RequestSignature.NONCE_HEADER, nonce)
+                .header(RequestSignature.SIGNATURE_HEADER,
+                        RequestSignature.sign(secret, "POST", path, timestamp, nonce, bytes));
+    }
+}
@@ -0,0 +1,68 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BatchIntegrationIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "1234567890123459";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CardRepositoryPort cardRepository;
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER)
+                .ifPresent(cardJpaRepository::delete);
+
+        cardRepository.save(new Card(
+                CARD_NUMBER,
+                passwordEncoder.encode("1234"),
+                new BigDecimal("100.00")
+        ));
+    }
+
+    @Test
+    void shouldAuthorizeEachItemOfBatchInOrder() throws Exception {
+        mockMvc.perform(post("/transacoes/lote")
+                        .with(httpBasic("username", "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                    { "numeroCartao": "1234567890123459", "senhaCartao": "1234", "valor": 60.00 },
+                                    { "numeroCartao": "1234567890123459", "senhaCartao": "1234", "valor": 60.00 },
+                                    { "numeroCartao": "1234567890123459", "senhaCartao": "9999", "valor": 10.00 },
+                                    { "numeroCartao": "0000000000000000", "senhaCartao": "1234", "valor": 10.00 },
+                                    { "numeroCartao": "1234567890123459", "senhaCartao": "1234", "valor": 40.00 }
+                                ]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains(
+                        "OK", "SALDO_INSUFICIENTE", "SENHA_INVALIDA", "CARTAO_INEXISTENTE", "OK")));
+
+        assertThat(cardRepository.findByCardNumber(CARD_NUMBER).orElseThrow().getBalance())
+                .isEqualByComparingTo("0.00");
+    }
+}
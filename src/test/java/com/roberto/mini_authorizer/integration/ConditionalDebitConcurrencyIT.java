@@ -0,0 +1,7 @@
+package com.roberto.mini_authorizer.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "authorizer.debit.mode=conditional")
+class ConditionalDebitConcurrencyIT extends AuthorizationConcurrencyIT {
+}
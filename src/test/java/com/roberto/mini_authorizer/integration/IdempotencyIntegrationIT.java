@@ -0,0 +1,135 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IdempotencyIntegrationIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "1234567890123458";
+    private static final String REQUEST = """
+            {
+                "numeroCartao": "1234567890123458",
+                "senhaCartao": "1234",
+                "valor": 20.00
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CardRepositoryPort cardRepository;
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER)
+                .ifPresent(cardJpaRepository::delete);
+
+        cardRepository.save(new Card(
+                CARD_NUMBER,
+                passwordEncoder.encode("1234"),
+                new BigDecimal("100.00")
+        ));
+    }
+
+    @Test
+    void shouldDebitOnlyOnceWhenRequestIsRetried() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/transacoes")
+                            .with(httpBasic("username", "password"))
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(REQUEST))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().string("OK"));
+        }
+
+        assertThat(balance()).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentAmount() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/transacoes")
+                        .with(httpBasic("username", "password"))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/transacoes")
+                        .with(httpBasic("username", "password"))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST.replace("20.00", "30.00")))
+                .andExpect(status().isConflict());
+
+        assertThat(balance()).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void shouldDebitOnlyOnceForConcurrentRequestsWithSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicInteger approved = new AtomicInteger();
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    mockMvc.perform(post("/transacoes")
+                                    .with(httpBasic("username", "password"))
+                                    .header("Idempotency-Key", key)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(REQUEST))
+                            .andExpect(result -> {
+                                if (result.getResponse().getStatus() == 201) {
+                                    approved.incrementAndGet();
+                                }
+                            });
+                } catch (Exception ignored) {
+                    // counted as not approved
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+
+        assertThat(approved.get()).isEqualTo(threads);
+        assertThat(balance()).isEqualByComparingTo("80.00");
+    }
+
+    private BigDecimal balance() {
+        return cardRepository.findByCardNumber(CARD_NUMBER).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,11 @@
+package com.roberto.mini_authorizer.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "authorizer.card-store.type=mapped",
+        "authorizer.card-store.mapped.path=target/cards-${random.uuid}.dat",
+        "authorizer.card-store.mapped.capacity=1024"
+})
+class MappedCardStoreConcurrencyIT extends AuthorizationConcurrencyIT {
+}
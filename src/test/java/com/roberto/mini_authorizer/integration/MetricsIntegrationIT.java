@@ -0,0 +1,68 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.domain.model.Card;
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import com.roberto.mini_authorizer.ports.out.CardRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "management.prometheus.metrics.export.enabled=true")
+class MetricsIntegrationIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "1234567890123460";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CardRepositoryPort cardRepository;
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER)
+                .ifPresent(cardJpaRepository::delete);
+
+        cardRepository.save(new Card(
+                CARD_NUMBER,
+                passwordEncoder.encode("1234"),
+                new BigDecimal("10.00")
+        ));
+    }
+
+    @Test
+    void shouldExposeStageTimersResultCountersAndPoolGaugesForScraping() throws Exception {
+        mockMvc.perform(post("/transacoes")
+                        .with(httpBasic("username", "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "numeroCartao": "1234567890123460", "senhaCartao": "1234", "valor": 50.00 }
+                                """))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(httpBasic("username", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("authorizer_authorize_seconds_bucket")))
+                .andExpect(content().string(containsString("authorizer_authorize_stage_seconds_bucket{stage=\"lock\"")))
+                .andExpect(content().string(containsString("authorizer_authorizations_total{result=\"SALDO_INSUFICIENTE\"}")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")));
+    }
+}
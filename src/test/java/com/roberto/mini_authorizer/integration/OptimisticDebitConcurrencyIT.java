@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "authorizer.debit.mode=optimistic",
+        "authorizer.debit.optimistic.max-attempts=50"
+})
+class OptimisticDebitConcurrencyIT extends AuthorizationConcurrencyIT {
+}
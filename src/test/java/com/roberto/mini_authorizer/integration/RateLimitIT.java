@@ -0,0 +1,63 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "authorizer.rate-limit.enabled=true",
+        "authorizer.rate-limit.card.per-second=0.001",
+        "authorizer.rate-limit.card.burst=3"
+})
+class RateLimitIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "6666555544443333";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER).ifPresent(cardJpaRepository::delete);
+    }
+
+    @Test
+    void shouldAnswer429OnceCardIsOverItsLimitWithoutDebiting() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                        .with(httpBasic("username", "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senha\": \"1234\"}"))
+                .andExpect(status().isCreated());
+
+        authorize("9999").andExpect(status().isUnprocessableContent());
+        authorize("9999").andExpect(status().isUnprocessableContent());
+        authorize("1234").andExpect(status().isCreated());
+        authorize("1234").andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/cartoes/{cardNumber}", CARD_NUMBER)
+                        .with(httpBasic("username", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("490.00"));
+    }
+
+    private ResultActions authorize(String password) throws Exception {
+        return mockMvc.perform(post("/transacoes")
+                .with(httpBasic("username", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senhaCartao\": \"" + password + "\", \"valor\": 10.00}"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveIntegrationIT {
+
+    private static final String CARD_NUMBER = "1234567890123462";
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER)
+                .ifPresent(cardJpaRepository::delete);
+    }
+
+    @Test
+    void shouldCreateCardAuthorizeAndReportBalance() {
+        createCard()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.numeroCartao").isEqualTo(CARD_NUMBER);
+
+        authorize("400.00")
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo("OK");
+
+        authorize("200.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT)
+                .expectBody(String.class).isEqualTo("SALDO_INSUFICIENTE");
+
+        webTestClient.get().uri("/cartoes/{cardNumber}", CARD_NUMBER)
+                .headers(headers -> headers.setBasicAuth("username", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("100.00");
+    }
+
+    @Test
+    void shouldRejectDuplicateCard() {
+        createCard().expectStatus().isCreated();
+
+        createCard()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT)
+                .expectBody()
+                .jsonPath("$.numeroCartao").isEqualTo(CARD_NUMBER);
+    }
+
+    @Test
+    void shouldDeclineWrongPasswordAndUnknownCard() {
+        createCard().expectStatus().isCreated();
+
+        authorize(CARD_NUMBER, "9999", "10.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT)
+                .expectBody(String.class).isEqualTo("SENHA_INVALIDA");
+
+        authorize("1234567890129999", "1234", "10.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT)
+                .expectBody(String.class).isEqualTo("CARTAO_INEXISTENTE");
+    }
+
+    @Test
+    void shouldAuthorizeBatchThroughBlockingService() {
+        createCard().expectStatus().isCreated();
+
+        webTestClient.post().uri("/transacoes/lote")
+                .headers(headers -> headers.setBasicAuth("username", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        [
+                            { "numeroCartao": "1234567890123462", "senhaCartao": "1234", "valor": 300.00 },
+                            { "numeroCartao": "1234567890123462", "senhaCartao": "1234", "valor": 300.00 }
+                        ]
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0]").isEqualTo("OK")
+                .jsonPath("$[1]").isEqualTo("SALDO_INSUFICIENTE");
+    }
+
+    @Test
+    void shouldRejectInvalidRequestBody() {
+        webTestClient.post().uri("/cartoes")
+                .headers(headers -> headers.setBasicAuth("username", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        { "numeroCartao": "123", "senha": "1234" }
+                        """)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.cardNumber").exists();
+    }
+
+    @Test
+    void shouldRequireAuthentication() {
+        webTestClient.get().uri("/cartoes/{cardNumber}", CARD_NUMBER)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private WebTestClient.ResponseSpec createCard() {
+        return webTestClient.post().uri("/cartoes")
+                .headers(headers -> headers.setBasicAuth("username", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        { "numeroCartao": "%s", "senha": "1234" }
+                        """.formatted(CARD_NUMBER))
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec authorize(String amount) {
+        return authorize(CARD_NUMBER, "1234", amount);
+    }
+
+    private WebTestClient.ResponseSpec authorize(String cardNumber, String password, String amount) {
+        return webTestClient.post().uri("/transacoes")
+                .headers(headers -> headers.setBasicAuth("username", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        { "numeroCartao": "%s", "senhaCartao": "%s", "valor": %s }
+                        """.formatted(cardNumber, password, amount))
+                .exchange();
+    }
+}
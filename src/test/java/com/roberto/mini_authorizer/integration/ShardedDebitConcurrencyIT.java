@@ -0,0 +1,10 @@
+package com.roberto.mini_authorizer.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "authorizer.debit.mode=sharded",
+        "authorizer.debit.sharded.journal-dir=target/debit-journal"
+})
+class ShardedDebitConcurrencyIT extends AuthorizationConcurrencyIT {
+}
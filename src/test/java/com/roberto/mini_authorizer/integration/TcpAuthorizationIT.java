@@ -0,0 +1,103 @@
+package com.roberto.mini_authorizer.integration;
+
+import com.roberto.mini_authorizer.domain.model.CardNumber;
+import com.roberto.mini_authorizer.infrastructure.persistence.repository.CardJpaRepository;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Request;
+import com.roberto.mini_authorizer.infrastructure.tcp.AuthorizationFrames.Response;
+import com.roberto.mini_authorizer.infrastructure.tcp.TcpAuthorizationServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "authorizer.tcp.enabled=true",
+        "authorizer.tcp.port=0"
+})
+class TcpAuthorizationIT extends IntegrationTest {
+
+    private static final String CARD_NUMBER = "4444333322221111";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardJpaRepository cardJpaRepository;
+
+    @Autowired
+    private TcpAuthorizationServer server;
+
+    @BeforeEach
+    void setup() {
+        cardJpaRepository.findByCardNumber(CARD_NUMBER).ifPresent(cardJpaRepository::delete);
+    }
+
+    @Test
+    void shouldAuthorizePipelinedFramesAgainstSameBalanceAsRestApi() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                        .with(httpBasic("username", "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"numeroCartao\": \"" + CARD_NUMBER + "\", \"senha\": \"1234\"}"))
+                .andExpect(status().isCreated());
+
+        ByteBuffer requests = ByteBuffer.allocate(256);
+        long card = CardNumber.pack(CARD_NUMBER);
+        AuthorizationFrames.writeRequest(requests, new Request(1L, card, "1234", 200_00L));
+        AuthorizationFrames.writeRequest(requests, new Request(2L, card, "1234", 200_00L));
+        AuthorizationFrames.writeRequest(requests, new Request(3L, card, "1234", 200_00L));
+        AuthorizationFrames.writeRequest(requests, new Request(4L, card, "4321", 10_00L));
+        AuthorizationFrames.writeRequest(requests, new Request(5L, CardNumber.pack("4444333322220000"), "1234", 10_00L));
+
+        Map<Long, String> results;
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getPort()))) {
+            client.write(requests.flip());
+            results = receive(client, 5);
+        }
+
+        assertEquals(2, results.entrySet().stream()
+                .filter(result -> result.getKey() <= 3 && "OK".equals(result.getValue()))
+                .count());
+        assertEquals(1, results.entrySet().stream()
+                .filter(result -> result.getKey() <= 3 && "SALDO_INSUFICIENTE".equals(result.getValue()))
+                .count());
+        assertEquals("SENHA_INVALIDA", results.get(4L));
+        assertEquals("CARTAO_INEXISTENTE", results.get(5L));
+
+        mockMvc.perform(get("/cartoes/{cardNumber}", CARD_NUMBER)
+                        .with(httpBasic("username", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("100.00"));
+    }
+
+    private static Map<Long, String> receive(SocketChannel client, int count) throws IOException {
+        Map<Long, String> results = new HashMap<>();
+        ByteBuffer in = ByteBuffer.allocate(1024);
+        while (results.size() < count) {
+            assertTrue(client.read(in) >= 0, "connection closed");
+            in.flip();
+            Response response;
+            while ((response = AuthorizationFrames.readResponse(in)) != null) {
+                results.put(response.correlationId(), AuthorizationFrames.describe(response.status()));
+            }
+            in.compact();
+        }
+        return results;
+    }
+}